@@ -5,14 +5,25 @@ import java.util.Random;
 
 /**
  * <p>Represents an immutable vector of {@code boolean} values.</p>
+ * <p>The values are packed into an array of {@code long} words (64 bits per
+ * word), so that copying, comparing and hashing work a word at a time.</p>
  * <p>For a mutable version, see the {@link MutableBitVector} subclass.</p>
  *
  * @author Mate Gašparini
  */
 public class BitVector {
 
-    /** Internal array of bit values. */
-    protected boolean[] bits;
+    /** Number of bits stored in a single word. */
+    protected static final int WORD_SIZE = Long.SIZE;
+
+    /** Number of bits the bit index is shifted by to get its word index. */
+    protected static final int WORD_SHIFT = 6;
+
+    /** Internal array of packed bit values (unused high bits are zero). */
+    protected long[] words;
+
+    /** Number of stored bits. */
+    protected int size;
 
     /**
      * Constructor specifying the {@link Random} instance (used to generate all
@@ -26,9 +37,10 @@ public class BitVector {
     public BitVector(Random rand, int numberOfBits) {
         this(numberOfBits);
         Objects.requireNonNull(rand, "Random instance cannot be null.");
-        for (int i = 0; i < numberOfBits; i ++) {
-            bits[i] = rand.nextBoolean();
+        for (int i = 0; i < words.length; i ++) {
+            words[i] = rand.nextLong();
         }
+        clearUnusedBits();
     }
 
     /**
@@ -38,7 +50,12 @@ public class BitVector {
      * @throws NullPointerException If the given argument is {@code null}.
      */
     public BitVector(boolean... bits) {
-        this.bits = Objects.requireNonNull(bits, "Bits cannot be null.");
+        this(Objects.requireNonNull(bits, "Bits cannot be null.").length);
+        for (int i = 0; i < bits.length; i ++) {
+            if (bits[i]) {
+                words[i >>> WORD_SHIFT] |= 1L << i;
+            }
+        }
     }
 
     /**
@@ -48,7 +65,19 @@ public class BitVector {
      * @param n The specified size of the bit array.
      */
     public BitVector(int n) {
-        this.bits = new boolean[n];
+        this(new long[wordCount(n)], n);
+    }
+
+    /**
+     * Constructor specifying the packed words (which are not copied) and the
+     * number of stored bits.
+     *
+     * @param words The specified packed words.
+     * @param size The specified number of stored bits.
+     */
+    protected BitVector(long[] words, int size) {
+        this.words = words;
+        this.size = size;
     }
 
     /**
@@ -59,7 +88,8 @@ public class BitVector {
      *         {@code false} otherwise.
      */
     public boolean get(int index) {
-        return bits[index];
+        checkIndex(index);
+        return (getWord(index >>> WORD_SHIFT) & 1L << index) != 0;
     }
 
     /**
@@ -68,16 +98,72 @@ public class BitVector {
      * @return The size of the vector.
      */
     public int getSize() {
-        return bits.length;
+        return size;
+    }
+
+    /**
+     * Returns the number of bits in which this and the given vector differ.
+     *
+     * @param other The given vector.
+     * @return The Hamming distance between the vectors.
+     * @throws IllegalArgumentException If the vectors are not of same size.
+     */
+    public int hammingDistance(BitVector other) {
+        if (size != other.size) {
+            throw new IllegalArgumentException("Vectors must be of same size.");
+        }
+        int distance = 0;
+        for (int i = 0, count = wordCount(size); i < count; i ++) {
+            distance += Long.bitCount(getWord(i) ^ other.getWord(i));
+        }
+        return distance;
+    }
+
+    /**
+     * Returns the number of bits set to {@code true}.
+     *
+     * @return The number of {@code true} bits.
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0, count = wordCount(size); i < count; i ++) {
+            cardinality += Long.bitCount(getWord(i));
+        }
+        return cardinality;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BitVector)) return false;
+        BitVector other = (BitVector) o;
+        if (size != other.size) return false;
+        for (int i = 0, count = wordCount(size); i < count; i ++) {
+            if (getWord(i) != other.getWord(i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = size;
+        for (int i = 0, count = wordCount(size); i < count; i ++) {
+            hash = 31 * hash + getWord(i);
+        }
+        return (int) (hash ^ hash >>> 32);
     }
 
     @Override
     public String toString() {
-        StringBuilder builder = new StringBuilder();
-        for (boolean bit : bits) {
-            builder.append(bit ? 1 : 0);
+        char[] chars = new char[size];
+        for (int i = 0, count = wordCount(size); i < count; i ++) {
+            long word = getWord(i);
+            for (int bit = i << WORD_SHIFT, end = Math.min(bit + WORD_SIZE, size); bit < end; bit ++) {
+                chars[bit] = (char) ('0' + (word & 1L));
+                word >>>= 1;
+            }
         }
-        return builder.toString();
+        return new String(chars);
     }
 
     /**
@@ -87,6 +173,53 @@ public class BitVector {
      * @return A {@link MutableBitVector} copy of this vector.
      */
     public MutableBitVector copy() {
-        return new MutableBitVector(bits.clone());
+        int count = wordCount(size);
+        long[] copy = new long[count];
+        for (int i = 0; i < count; i ++) {
+            copy[i] = getWord(i);
+        }
+        return new MutableBitVector(copy, size);
+    }
+
+    /**
+     * Returns the packed word at the given word index. Subclasses which do not
+     * store their own words (e.g. views) override this method.
+     *
+     * @param wordIndex The given word index.
+     * @return The corresponding packed word.
+     */
+    protected long getWord(int wordIndex) {
+        return words[wordIndex];
+    }
+
+    /**
+     * Throws an exception if the given bit index is out of bounds.
+     *
+     * @param index The given bit index.
+     * @throws IndexOutOfBoundsException If the index is out of bounds.
+     */
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size + ".");
+        }
+    }
+
+    /**
+     * Sets the unused high bits of the last word to zero.
+     */
+    protected void clearUnusedBits() {
+        if (words.length > 0 && size % WORD_SIZE != 0) {
+            words[words.length - 1] &= -1L >>> (WORD_SIZE - size % WORD_SIZE);
+        }
+    }
+
+    /**
+     * Returns the number of words needed to store the given number of bits.
+     *
+     * @param numberOfBits The given number of bits.
+     * @return The corresponding number of words.
+     */
+    protected static int wordCount(int numberOfBits) {
+        return (numberOfBits + WORD_SIZE - 1) >>> WORD_SHIFT;
     }
 }
@@ -3,10 +3,14 @@ package hr.fer.zemris.trisat;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.IntFunction;
 
 /**
  * <p>Represents the {@link BitVector} neighborhood function.</p>
  * <p>For some assignment x, it is commonly denoted as &#960;(x).</p>
+ * <p>Neighbors are generated as independent {@link MutableBitVector}s, or,
+ * using {@link #views()}, as read-only {@link NeighborBitVector} views, so no
+ * bit values are copied.</p>
  *
  * @author Mate Gašparini
  */
@@ -28,7 +32,17 @@ public class BitVectorNGenerator implements Iterable<MutableBitVector> {
 
     @Override
     public Iterator<MutableBitVector> iterator() {
-        return new NeighborIterator();
+        return new NeighborIterator<>(this::generateMutatedVector);
+    }
+
+    /**
+     * Returns an {@link Iterable} over the read-only views of all assignment
+     * vector's neighbors (each created in {@code O(1)} time).
+     *
+     * @return The neighbor views.
+     */
+    public Iterable<BitVector> views() {
+        return () -> new NeighborIterator<>(index -> new NeighborBitVector(assignment, index));
     }
 
     /**
@@ -54,7 +68,7 @@ public class BitVectorNGenerator implements Iterable<MutableBitVector> {
      */
     private MutableBitVector generateMutatedVector(int mutationIndex) {
         MutableBitVector neighbor = assignment.copy();
-        neighbor.set(mutationIndex, !neighbor.get(mutationIndex));
+        neighbor.flip(mutationIndex);
         return neighbor;
     }
 
@@ -62,8 +76,10 @@ public class BitVectorNGenerator implements Iterable<MutableBitVector> {
      * <p><i>Iterator</i> which iterates through all of the assignment's neighbors.</p>
      * <p>The neighbors are generated one-by-one, with each {@code next()} method
      * call.</p>
+     *
+     * @param <T> The type of the generated neighbors.
      */
-    private class NeighborIterator implements Iterator<MutableBitVector> {
+    private class NeighborIterator<T extends BitVector> implements Iterator<T> {
 
         /** Number of already generated neighbors. */
         private int counter;
@@ -71,17 +87,29 @@ public class BitVectorNGenerator implements Iterable<MutableBitVector> {
         /** Number of all possible neighbors. */
         private int size = assignment.getSize();
 
+        /** Generates the neighbor with the bit flipped at the given index. */
+        private IntFunction<T> generator;
+
+        /**
+         * Constructor specifying the neighbor generator.
+         *
+         * @param generator The specified generator.
+         */
+        NeighborIterator(IntFunction<T> generator) {
+            this.generator = generator;
+        }
+
         @Override
         public boolean hasNext() {
             return counter < size;
         }
 
         @Override
-        public MutableBitVector next() {
+        public T next() {
             if (!hasNext()) {
                 throw new NoSuchElementException("End of neighbors reached.");
             }
-            return generateMutatedVector(counter ++);
+            return generator.apply(counter ++);
         }
     }
 }
@@ -7,6 +7,9 @@ import java.util.Objects;
  * <p>It stores an array of indexes which correspond to distinct variables.</p>
  * <p>If some index is negative, the complement of the corresponding variable is
  * used instead.</p>
+ * <p>The indexes may also be a range of some larger (shared) array, which is
+ * how {@link SATFormula} exposes its flat literal storage without creating
+ * separate arrays for each clause.</p>
  *
  * @author Mate Gašparini
  */
@@ -15,6 +18,12 @@ public class Clause {
     /** Internal array of variable indexes. */
     private int[] indexes;
 
+    /** Offset of the first variable index of this clause. */
+    private int start;
+
+    /** Number of variable indexes of this clause. */
+    private int size;
+
     /**
      * Constructor specifying the array of variable indexes.
      *
@@ -22,16 +31,31 @@ public class Clause {
      * @throws NullPointerException If the given array is {@code null}.
      */
     public Clause(int[] indexes) {
+        this(Objects.requireNonNull(indexes, "Indexes cannot be null."), 0, indexes.length);
+    }
+
+    /**
+     * Constructor specifying the range of some (possibly shared) array of
+     * variable indexes. The array is not copied.
+     *
+     * @param indexes The specified array of variable indexes.
+     * @param start The offset of the first variable index (inclusive).
+     * @param end The offset of the last variable index (exclusive).
+     * @throws NullPointerException If the given array is {@code null}.
+     */
+    Clause(int[] indexes, int start, int end) {
         this.indexes = Objects.requireNonNull(indexes, "Indexes cannot be null.");
+        this.start = start;
+        this.size = end - start;
     }
 
     /**
-     * Returns the length of the internal array of variable indexes.
+     * Returns the number of variable indexes.
      *
      * @return The size of the clause.
      */
     public int getSize() {
-        return indexes.length;
+        return size;
     }
 
     /**
@@ -41,7 +65,7 @@ public class Clause {
      * @return The corresponding value (some stored variable index).
      */
     public int getLiteral(int index) {
-        return indexes[index];
+        return indexes[start + index];
     }
 
     /**
@@ -53,7 +77,8 @@ public class Clause {
      *         or {@code false} otherwise.
      */
     public boolean isSatisfied(BitVector assignment) {
-        for (int index : indexes) {
+        for (int i = start, end = start + size; i < end; i ++) {
+            int index = indexes[i];
             if (index < 0 && !assignment.get(-index-1)
                     || index > 0 && assignment.get(index-1)) {
                 return true;
@@ -65,8 +90,8 @@ public class Clause {
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < indexes.length; i ++) {
-            int index = indexes[i];
+        for (int i = 0; i < size; i ++) {
+            int index = indexes[start + i];
 
             if (i != 0) {
                 builder.append('+');
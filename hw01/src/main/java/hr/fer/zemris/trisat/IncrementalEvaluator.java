@@ -0,0 +1,368 @@
+package hr.fer.zemris.trisat;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * <p>Incremental evaluator of some specified {@link SATFormula} for a single
+ * (internally stored) mutable assignment.</p>
+ * <p>It keeps variable-to-clause occurrence lists, the number of true literals
+ * of each clause, make/break scores of each variable and the set of currently
+ * unsatisfied clauses, so that flipping a variable (and querying the resulting
+ * change of the number of satisfied clauses) costs only as much as the number
+ * of occurrences of that variable, instead of re-evaluating every
+ * {@link Clause}.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class IncrementalEvaluator {
+
+    /** Number of defined boolean algebra variables. */
+    private int numberOfVariables;
+
+    /** Number of clauses in the formula. */
+    private int numberOfClauses;
+
+    /** Start offsets of each clause in the {@code literals} array (shared with the formula). */
+    private int[] clauseStart;
+
+    /** Flat array of all literals (shared with the formula). */
+    private int[] literals;
+
+    /** Start offsets of each variable in the {@code occurrences} array (shared with the formula). */
+    private int[] occurrenceStart;
+
+    /**
+     * Flat array of variable occurrences (shared with the formula). Each
+     * element is the clause index shifted left by one, with the lowest bit set
+     * if the literal is negated.
+     */
+    private int[] occurrences;
+
+    /** Current assignment. */
+    private MutableBitVector assignment;
+
+    /** Number of true literals of each clause. */
+    private int[] trueCount;
+
+    /** Sum of variable indexes of true literals of each clause. */
+    private int[] trueSum;
+
+    /** Number of unsatisfied clauses that would be satisfied by a flip. */
+    private int[] makeCount;
+
+    /** Number of satisfied clauses that would be unsatisfied by a flip. */
+    private int[] breakCount;
+
+    /** Dense array of unsatisfied clause indexes. */
+    private int[] unsatisfied;
+
+    /** Position of each clause in the {@code unsatisfied} array, or -1. */
+    private int[] unsatisfiedPosition;
+
+    /** Number of unsatisfied clauses. */
+    private int numberOfUnsatisfied;
+
+    /** Number of performed flips. */
+    private long numberOfFlips;
+
+    /**
+     * Constructor specifying the {@link SATFormula}.
+     *
+     * @param formula The specified {@link SATFormula}.
+     * @throws NullPointerException If the specified {@link SATFormula} is
+     *         {@code null}.
+     */
+    public IncrementalEvaluator(SATFormula formula) {
+        Objects.requireNonNull(formula, "Formula cannot be null.");
+        numberOfVariables = formula.getNumberOfVariables();
+        numberOfClauses = formula.getNumberOfClauses();
+
+        clauseStart = formula.getClauseStarts();
+        literals = formula.getLiterals();
+        occurrenceStart = formula.getOccurrenceStarts();
+        occurrences = formula.getOccurrences();
+
+        assignment = new MutableBitVector(numberOfVariables);
+        trueCount = new int[numberOfClauses];
+        trueSum = new int[numberOfClauses];
+        makeCount = new int[numberOfVariables];
+        breakCount = new int[numberOfVariables];
+        unsatisfied = new int[numberOfClauses];
+        unsatisfiedPosition = new int[numberOfClauses];
+    }
+
+    /**
+     * Copies the given assignment vector and recalculates all information from
+     * scratch (this is the only operation which visits every clause).
+     *
+     * @param vector The given assignment vector.
+     * @throws IllegalArgumentException If the size of the given assignment is
+     *         not equal to the number of defined boolean algebra variables.
+     */
+    public void setAssignment(BitVector vector) {
+        if (numberOfVariables != vector.getSize()) {
+            throw new IllegalArgumentException(
+                    "Assignment and formula must be of same size."
+            );
+        }
+
+        assignment.setAll(vector);
+        Arrays.fill(makeCount, 0);
+        Arrays.fill(breakCount, 0);
+        numberOfUnsatisfied = 0;
+
+        for (int i = 0; i < numberOfClauses; i ++) {
+            int count = 0;
+            int sum = 0;
+            for (int j = clauseStart[i]; j < clauseStart[i + 1]; j ++) {
+                int literal = literals[j];
+                int variable = Math.abs(literal) - 1;
+                if (assignment.get(variable) == literal > 0) {
+                    count ++;
+                    sum += variable;
+                }
+            }
+            trueCount[i] = count;
+            trueSum[i] = sum;
+
+            if (count == 0) {
+                unsatisfiedPosition[i] = numberOfUnsatisfied;
+                unsatisfied[numberOfUnsatisfied ++] = i;
+                for (int j = clauseStart[i]; j < clauseStart[i + 1]; j ++) {
+                    makeCount[Math.abs(literals[j]) - 1] ++;
+                }
+            } else {
+                unsatisfiedPosition[i] = -1;
+                if (count == 1) {
+                    breakCount[sum] ++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Flips the value of the specified variable and updates all information
+     * affected by the change.
+     *
+     * @param variable The specified (zero-based) variable index.
+     */
+    public void flip(int variable) {
+        numberOfFlips ++;
+        assignment.flip(variable);
+        boolean value = assignment.get(variable);
+
+        for (int i = occurrenceStart[variable]; i < occurrenceStart[variable + 1]; i ++) {
+            int clause = occurrences[i] >>> 1;
+            boolean negated = (occurrences[i] & 1) != 0;
+
+            if (value != negated) {
+                int count = trueCount[clause];
+                if (count == 0) {
+                    removeUnsatisfied(clause);
+                    adjustMakeCounts(clause, -1);
+                    breakCount[variable] ++;
+                } else if (count == 1) {
+                    breakCount[trueSum[clause]] --;
+                }
+                trueCount[clause] = count + 1;
+                trueSum[clause] += variable;
+            } else {
+                int count = -- trueCount[clause];
+                trueSum[clause] -= variable;
+                if (count == 0) {
+                    addUnsatisfied(clause);
+                    adjustMakeCounts(clause, 1);
+                    breakCount[variable] --;
+                } else if (count == 1) {
+                    breakCount[trueSum[clause]] ++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the change of the number of satisfied clauses which would be
+     * caused by flipping the specified variable.
+     *
+     * @param variable The specified (zero-based) variable index.
+     * @return The difference between the make and the break score.
+     */
+    public int getScore(int variable) {
+        return makeCount[variable] - breakCount[variable];
+    }
+
+    /**
+     * Returns the number of currently unsatisfied clauses which would become
+     * satisfied by flipping the specified variable.
+     *
+     * @param variable The specified (zero-based) variable index.
+     * @return The make score of the variable.
+     */
+    public int getMakeCount(int variable) {
+        return makeCount[variable];
+    }
+
+    /**
+     * Returns the number of currently satisfied clauses which would become
+     * unsatisfied by flipping the specified variable.
+     *
+     * @param variable The specified (zero-based) variable index.
+     * @return The break score of the variable.
+     */
+    public int getBreakCount(int variable) {
+        return breakCount[variable];
+    }
+
+    /**
+     * Returns the sum of weights of clauses which would become satisfied, minus
+     * the sum of weights of clauses which would become unsatisfied by flipping
+     * the specified variable.
+     *
+     * @param variable The specified (zero-based) variable index.
+     * @param clauseWeight Function which maps a clause index to its weight.
+     * @return The weighted score of the variable.
+     */
+    public double getWeightedScore(int variable, IntToDoubleFunction clauseWeight) {
+        boolean value = assignment.get(variable);
+        double score = 0.0;
+        for (int i = occurrenceStart[variable]; i < occurrenceStart[variable + 1]; i ++) {
+            int clause = occurrences[i] >>> 1;
+            boolean negated = (occurrences[i] & 1) != 0;
+            if (value == negated) {
+                if (trueCount[clause] == 0) {
+                    score += clauseWeight.applyAsDouble(clause);
+                }
+            } else if (trueCount[clause] == 1) {
+                score -= clauseWeight.applyAsDouble(clause);
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Returns the current value of the specified variable.
+     *
+     * @param variable The specified (zero-based) variable index.
+     * @return The value of the variable.
+     */
+    public boolean get(int variable) {
+        return assignment.get(variable);
+    }
+
+    /**
+     * Returns a copy of the current assignment.
+     *
+     * @return A {@link MutableBitVector} copy of the current assignment.
+     */
+    public MutableBitVector getAssignment() {
+        return assignment.copy();
+    }
+
+    /**
+     * Returns the number of defined boolean algebra variables.
+     *
+     * @return The number of defined boolean algebra variables.
+     */
+    public int getNumberOfVariables() {
+        return numberOfVariables;
+    }
+
+    /**
+     * Returns the number of flips performed since the construction.
+     *
+     * @return The number of performed flips.
+     */
+    public long getNumberOfFlips() {
+        return numberOfFlips;
+    }
+
+    /**
+     * Returns the number of satisfied clauses.
+     *
+     * @return The number of satisfied clauses.
+     */
+    public int getNumberOfSatisfied() {
+        return numberOfClauses - numberOfUnsatisfied;
+    }
+
+    /**
+     * Returns the number of unsatisfied clauses.
+     *
+     * @return The number of unsatisfied clauses.
+     */
+    public int getNumberOfUnsatisfied() {
+        return numberOfUnsatisfied;
+    }
+
+    /**
+     * Returns the index of the unsatisfied clause at the given position in the
+     * unsatisfied clause set.
+     *
+     * @param index The given position (from 0 to the number of unsatisfied
+     *              clauses, exclusive).
+     * @return The corresponding clause index.
+     */
+    public int getUnsatisfied(int index) {
+        return unsatisfied[index];
+    }
+
+    /**
+     * Returns {@code true} if the clause specified by the given index is
+     * satisfied by the current assignment.
+     *
+     * @param clause The given clause index.
+     * @return {@code true} if the clause is satisfied, or {@code false}
+     *         otherwise.
+     */
+    public boolean isSatisfied(int clause) {
+        return trueCount[clause] > 0;
+    }
+
+    /**
+     * Returns {@code true} if all clauses are satisfied.
+     *
+     * @return {@code true} if the formula is satisfied, or {@code false}
+     *         otherwise.
+     */
+    public boolean isSatisfied() {
+        return numberOfUnsatisfied == 0;
+    }
+
+    /**
+     * Adds the specified amount to the make score of each variable of the
+     * specified clause.
+     *
+     * @param clause The specified clause index.
+     * @param amount The specified amount.
+     */
+    private void adjustMakeCounts(int clause, int amount) {
+        for (int j = clauseStart[clause]; j < clauseStart[clause + 1]; j ++) {
+            makeCount[Math.abs(literals[j]) - 1] += amount;
+        }
+    }
+
+    /**
+     * Adds the specified clause to the unsatisfied clause set.
+     *
+     * @param clause The specified clause index.
+     */
+    private void addUnsatisfied(int clause) {
+        unsatisfiedPosition[clause] = numberOfUnsatisfied;
+        unsatisfied[numberOfUnsatisfied ++] = clause;
+    }
+
+    /**
+     * Removes the specified clause from the unsatisfied clause set.
+     *
+     * @param clause The specified clause index.
+     */
+    private void removeUnsatisfied(int clause) {
+        int position = unsatisfiedPosition[clause];
+        int last = unsatisfied[-- numberOfUnsatisfied];
+        unsatisfied[position] = last;
+        unsatisfiedPosition[last] = position;
+        unsatisfiedPosition[clause] = -1;
+    }
+}
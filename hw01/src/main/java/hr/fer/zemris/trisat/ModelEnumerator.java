@@ -0,0 +1,164 @@
+package hr.fer.zemris.trisat;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+/**
+ * <p>Exhaustive enumerator of all assignments of some specified
+ * {@link SATFormula}, used for counting (#SAT) or streaming all of its
+ * models.</p>
+ * <p>Assignments are visited in Gray-code order, so that each step flips
+ * exactly one variable, which is then re-evaluated by an
+ * {@link IncrementalEvaluator} (only the clauses containing that variable are
+ * visited). Any contiguous range of the Gray-code sequence can be enumerated
+ * independently, so the 2<sup>n</sup> space is split into ranges which are
+ * enumerated in parallel on a {@link ForkJoinPool}.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class ModelEnumerator {
+
+    /** Maximum supported number of variables. */
+    public static final int MAX_VARIABLES = 62;
+
+    /** Minimum number of assignments enumerated by a single task. */
+    private static final long MIN_RANGE = 1L << 14;
+
+    /** Number of tasks per worker thread (used for load balancing). */
+    private static final int TASKS_PER_THREAD = 16;
+
+    /** The specified {@link SATFormula}. */
+    private SATFormula formula;
+
+    /** The specified {@link ForkJoinPool}. */
+    private ForkJoinPool pool;
+
+    /**
+     * Constructor specifying the {@link SATFormula} and the
+     * {@link ForkJoinPool} used for parallel enumeration.
+     *
+     * @param formula The specified {@link SATFormula}.
+     * @param pool The specified {@link ForkJoinPool}.
+     * @throws NullPointerException If any of the arguments is {@code null}.
+     * @throws IllegalArgumentException If the formula has more than
+     *         {@code MAX_VARIABLES} variables.
+     */
+    public ModelEnumerator(SATFormula formula, ForkJoinPool pool) {
+        this.formula = Objects.requireNonNull(formula, "Formula cannot be null.");
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null.");
+        if (formula.getNumberOfVariables() > MAX_VARIABLES) {
+            throw new IllegalArgumentException(
+                    "At most " + MAX_VARIABLES + " variables are supported."
+            );
+        }
+    }
+
+    /**
+     * Returns the number of assignments which satisfy the formula.
+     *
+     * @return The number of models.
+     */
+    public long countModels() {
+        return run(null);
+    }
+
+    /**
+     * <p>Passes every assignment which satisfies the formula to the given sink
+     * (as a separate copy), as soon as it is found.</p>
+     * <p>The sink is called concurrently from multiple threads, in no
+     * particular order, so it must be thread-safe.</p>
+     *
+     * @param sink The given sink.
+     * @return The number of models.
+     * @throws NullPointerException If the given sink is {@code null}.
+     */
+    public long enumerate(Consumer<? super BitVector> sink) {
+        return run(Objects.requireNonNull(sink, "Sink cannot be null."));
+    }
+
+    /**
+     * Enumerates all assignments in parallel.
+     *
+     * @param sink The sink for found models, or {@code null} when only
+     *             counting.
+     * @return The number of models.
+     */
+    private long run(Consumer<? super BitVector> sink) {
+        long total = 1L << formula.getNumberOfVariables();
+        long range = Math.max(MIN_RANGE, total / ((long) pool.getParallelism() * TASKS_PER_THREAD));
+        return pool.invoke(new EnumerationTask(0L, total, range, sink));
+    }
+
+    /**
+     * Task which enumerates the assignments of a contiguous range of the
+     * Gray-code sequence, splitting it into halves while it is too large.
+     */
+    private class EnumerationTask extends RecursiveTask<Long> {
+
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** First Gray-code sequence index (inclusive). */
+        private long from;
+
+        /** Last Gray-code sequence index (exclusive). */
+        private long to;
+
+        /** Maximum number of assignments enumerated without splitting. */
+        private long range;
+
+        /** The sink for found models, or {@code null} when only counting. */
+        private Consumer<? super BitVector> sink;
+
+        /**
+         * Constructor specifying the range and the sink.
+         *
+         * @param from First sequence index (inclusive).
+         * @param to Last sequence index (exclusive).
+         * @param range Maximum number of assignments without splitting.
+         * @param sink The sink for found models, or {@code null}.
+         */
+        EnumerationTask(long from, long to, long range, Consumer<? super BitVector> sink) {
+            this.from = from;
+            this.to = to;
+            this.range = range;
+            this.sink = sink;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > range) {
+                long middle = from + (to - from) / 2;
+                EnumerationTask left = new EnumerationTask(from, middle, range, sink);
+                left.fork();
+                long right = new EnumerationTask(middle, to, range, sink).compute();
+                return left.join() + right;
+            }
+
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(formula);
+            int size = formula.getNumberOfVariables();
+            MutableBitVector start = new MutableBitVector(size);
+            long gray = from ^ from >>> 1;
+            for (int i = 0; i < size; i ++) {
+                start.set(i, (gray >>> i & 1L) != 0);
+            }
+            evaluator.setAssignment(start);
+
+            long count = 0;
+            for (long index = from; ; ) {
+                if (evaluator.isSatisfied()) {
+                    count ++;
+                    if (sink != null) {
+                        sink.accept(evaluator.getAssignment());
+                    }
+                }
+                if (++ index == to) break;
+                // Consecutive Gray codes differ in the lowest set bit of the index.
+                evaluator.flip(Long.numberOfTrailingZeros(index));
+            }
+            return count;
+        }
+    }
+}
@@ -28,6 +28,17 @@ public class MutableBitVector extends BitVector {
         super(n);
     }
 
+    /**
+     * Constructor specifying the packed words (which are not copied) and the
+     * number of stored bits.
+     *
+     * @param words The specified packed words.
+     * @param size The specified number of stored bits.
+     */
+    MutableBitVector(long[] words, int size) {
+        super(words, size);
+    }
+
     /**
      * Sets the bit at the given index to the given value.
      *
@@ -35,6 +46,36 @@ public class MutableBitVector extends BitVector {
      * @param value The given value.
      */
     public void set(int index, boolean value) {
-        bits[index] = value;
+        checkIndex(index);
+        if (value) {
+            words[index >>> WORD_SHIFT] |= 1L << index;
+        } else {
+            words[index >>> WORD_SHIFT] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Inverts the bit at the given index.
+     *
+     * @param index The given index.
+     */
+    public void flip(int index) {
+        checkIndex(index);
+        words[index >>> WORD_SHIFT] ^= 1L << index;
+    }
+
+    /**
+     * Copies all bit values from the given vector (word by word).
+     *
+     * @param other The given vector.
+     * @throws IllegalArgumentException If the vectors are not of same size.
+     */
+    public void setAll(BitVector other) {
+        if (size != other.size) {
+            throw new IllegalArgumentException("Vectors must be of same size.");
+        }
+        for (int i = 0; i < words.length; i ++) {
+            words[i] = other.getWord(i);
+        }
     }
 }
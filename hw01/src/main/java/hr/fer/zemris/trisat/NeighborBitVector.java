@@ -0,0 +1,50 @@
+package hr.fer.zemris.trisat;
+
+import java.util.Objects;
+
+/**
+ * <p>Represents a flyweight, read-only view of some base {@link BitVector} with
+ * exactly one bit inverted.</p>
+ * <p>No bit values are copied, so creating a view costs O(1) regardless of the
+ * vector size. Changes of the base vector are visible through the view.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class NeighborBitVector extends BitVector {
+
+    /** The specified base vector. */
+    private BitVector base;
+
+    /** The index of the inverted bit. */
+    private int flippedIndex;
+
+    /**
+     * Constructor specifying the base vector and the index of the inverted bit.
+     *
+     * @param base The specified base vector.
+     * @param flippedIndex The specified index of the inverted bit.
+     * @throws NullPointerException If the specified base vector is {@code null}.
+     * @throws IndexOutOfBoundsException If the specified index is out of bounds.
+     */
+    public NeighborBitVector(BitVector base, int flippedIndex) {
+        super((long[]) null, Objects.requireNonNull(base, "Base vector cannot be null.").getSize());
+        base.checkIndex(flippedIndex);
+        this.base = base;
+        this.flippedIndex = flippedIndex;
+    }
+
+    /**
+     * Returns the index of the inverted bit.
+     *
+     * @return The index of the inverted bit.
+     */
+    public int getFlippedIndex() {
+        return flippedIndex;
+    }
+
+    @Override
+    protected long getWord(int wordIndex) {
+        long word = base.getWord(wordIndex);
+        return wordIndex == flippedIndex >>> WORD_SHIFT ? word ^ 1L << flippedIndex : word;
+    }
+}
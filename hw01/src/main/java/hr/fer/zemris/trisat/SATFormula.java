@@ -1,11 +1,20 @@
 package hr.fer.zemris.trisat;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * <p>Represents a boolean algebra formula made up from multiple multiplied
  * (logical AND operation) {@link Clause}s.</p>
  * <p>It is specified for some number of boolean algebra variables.</p>
+ * <p>All literals are stored in a single flat array, with the start offset of
+ * each clause stored in a second array (compressed sparse row layout), so
+ * that even formulas with millions of clauses consist of only two arrays.</p>
+ * <p>The clauses are normalized when the formula is created: repeated
+ * literals are removed, and tautological clauses (containing both some
+ * variable and its negation) are dropped, as they are always satisfied. The
+ * number of clauses therefore counts only the remaining ones, which keeps
+ * the make and break counts of the incremental evaluation exact.</p>
  *
  * @author Mate Gašparini
  */
@@ -14,8 +23,27 @@ public class SATFormula {
     /** Number of defined boolean algebra variables. */
     private int numberOfVariables;
 
-    /** Internal array of {@link Clause}s. */
-    private Clause[] clauses;
+    /** Flat array of all literals (as specified in {@link Clause}). */
+    private int[] literals;
+
+    /**
+     * Start offsets of each clause in the {@code literals} array, followed by
+     * the total number of literals.
+     */
+    private int[] clauseStart;
+
+    /**
+     * Start offsets of each variable in the {@code occurrences} array, followed
+     * by the total number of occurrences (built lazily).
+     */
+    private int[] occurrenceStart;
+
+    /**
+     * Flat array of variable occurrences (built lazily). Each element is the
+     * clause index shifted left by one, with the lowest bit set if the literal
+     * is negated.
+     */
+    private int[] occurrences;
 
     /**
      * Constructor specifying the number of defined boolean algebra variables
@@ -36,7 +64,52 @@ public class SATFormula {
         Objects.requireNonNull(clauses, "Clauses cannot be null.");
 
         this.numberOfVariables = numberOfVariables;
-        this.clauses = clauses;
+        this.clauseStart = new int[clauses.length + 1];
+        for (int i = 0; i < clauses.length; i ++) {
+            clauseStart[i + 1] = clauseStart[i] + clauses[i].getSize();
+        }
+        this.literals = new int[clauseStart[clauses.length]];
+        for (int i = 0; i < clauses.length; i ++) {
+            for (int j = 0, size = clauses[i].getSize(); j < size; j ++) {
+                literals[clauseStart[i] + j] = clauses[i].getLiteral(j);
+            }
+        }
+        checkLiterals();
+        normalize();
+    }
+
+    /**
+     * <p>Constructor specifying the number of defined boolean algebra variables,
+     * the flat array of literals and the start offsets of each clause.</p>
+     * <p>The arrays are not copied.</p>
+     *
+     * @param numberOfVariables The specified number of defined boolean algebra
+     *                          variables.
+     * @param literals The specified flat array of literals.
+     * @param clauseStart The specified start offsets of each clause, followed
+     *                    by the total number of literals.
+     * @throws IllegalArgumentException If the specified number of defined
+     *         boolean algebra variables is not positive, or if the arrays are
+     *         not consistent.
+     * @throws NullPointerException If any of the specified arrays is
+     *         {@code null}.
+     */
+    public SATFormula(int numberOfVariables, int[] literals, int[] clauseStart) {
+        if (numberOfVariables <= 0) {
+            throw new IllegalArgumentException("Number of variables must be positive.");
+        }
+        Objects.requireNonNull(literals, "Literals cannot be null.");
+        Objects.requireNonNull(clauseStart, "Clause offsets cannot be null.");
+        if (clauseStart.length == 0 || clauseStart[0] != 0
+                || clauseStart[clauseStart.length - 1] != literals.length) {
+            throw new IllegalArgumentException("Clause offsets do not match the literals.");
+        }
+
+        this.numberOfVariables = numberOfVariables;
+        this.literals = literals;
+        this.clauseStart = clauseStart;
+        checkLiterals();
+        normalize();
     }
 
     /**
@@ -49,22 +122,107 @@ public class SATFormula {
     }
 
     /**
-     * Returns the length of the internal array of {@link Clause}s.
+     * Returns the number of stored {@link Clause}s.
      *
      * @return The number of {@link Clause}s.
      */
     public int getNumberOfClauses() {
-        return clauses.length;
+        return clauseStart.length - 1;
     }
 
     /**
-     * Returns the {@link Clause} specified by the given index.
+     * Returns the total number of literals in all clauses.
+     *
+     * @return The number of literals.
+     */
+    public int getNumberOfLiterals() {
+        return literals.length;
+    }
+
+    /**
+     * Returns a {@link Clause} view of the clause specified by the given index.
      *
      * @param index The given index.
      * @return The corresponding {@link Clause}.
      */
     public Clause getClause(int index) {
-        return clauses[index];
+        return new Clause(literals, clauseStart[index], clauseStart[index + 1]);
+    }
+
+    /**
+     * Returns the number of literals of the clause specified by the given
+     * index.
+     *
+     * @param index The given clause index.
+     * @return The size of the clause.
+     */
+    public int getClauseSize(int index) {
+        return clauseStart[index + 1] - clauseStart[index];
+    }
+
+    /**
+     * Returns {@code true} if some clause has no literals (so the formula can
+     * not be satisfied).
+     *
+     * @return {@code true} if there is an empty clause, or {@code false}
+     *         otherwise.
+     */
+    public boolean hasEmptyClause() {
+        for (int i = 0, size = getNumberOfClauses(); i < size; i ++) {
+            if (clauseStart[i] == clauseStart[i + 1]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the literal at the given position of the given clause.
+     *
+     * @param clauseIndex The given clause index.
+     * @param literalIndex The given position inside the clause.
+     * @return The corresponding literal.
+     */
+    public int getLiteral(int clauseIndex, int literalIndex) {
+        return literals[clauseStart[clauseIndex] + literalIndex];
+    }
+
+    /**
+     * Returns the internal flat array of literals (not a copy).
+     *
+     * @return The flat array of literals.
+     */
+    int[] getLiterals() {
+        return literals;
+    }
+
+    /**
+     * Returns the internal array of clause start offsets (not a copy).
+     *
+     * @return The array of clause start offsets.
+     */
+    int[] getClauseStarts() {
+        return clauseStart;
+    }
+
+    /**
+     * Returns the start offsets of each variable in the occurrence array,
+     * building the occurrence lists on the first call.
+     *
+     * @return The array of occurrence start offsets (not a copy).
+     */
+    int[] getOccurrenceStarts() {
+        buildOccurrences();
+        return occurrenceStart;
+    }
+
+    /**
+     * Returns the flat array of variable occurrences, building the occurrence
+     * lists on the first call.
+     *
+     * @return The flat array of variable occurrences (not a copy).
+     */
+    int[] getOccurrences() {
+        buildOccurrences();
+        return occurrences;
     }
 
     /**
@@ -84,22 +242,142 @@ public class SATFormula {
             );
         }
 
-        for (Clause clause : clauses) {
-            if (!clause.isSatisfied(assignment)) {
+        for (int i = 0, size = getNumberOfClauses(); i < size; i ++) {
+            if (!isSatisfied(i, assignment)) {
                 return false;
             }
         }
         return true;
     }
 
+    /**
+     * Returns {@code true} if the clause specified by the given index is
+     * satisfied for the given assignment.
+     *
+     * @param index The given clause index.
+     * @param assignment The given assignment.
+     * @return {@code true} if the clause is satisfied for the given assignment,
+     *         or {@code false} otherwise.
+     */
+    public boolean isSatisfied(int index, BitVector assignment) {
+        for (int i = clauseStart[index], end = clauseStart[index + 1]; i < end; i ++) {
+            int literal = literals[i];
+            if (literal < 0 && !assignment.get(-literal-1)
+                    || literal > 0 && assignment.get(literal-1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
-        for (Clause clause : clauses) {
+        for (int i = 0, size = getNumberOfClauses(); i < size; i ++) {
             builder.append('(');
-            builder.append(clause);
+            builder.append(getClause(i));
             builder.append(')');
         }
         return builder.toString();
     }
+
+    /**
+     * <p>Builds the variable-to-clause occurrence lists, unless they are
+     * already built.</p>
+     * <p>The lists are built only once, so that all {@link IncrementalEvaluator}s
+     * (possibly used by different threads) share them.</p>
+     */
+    private synchronized void buildOccurrences() {
+        if (occurrences != null) return;
+
+        int[] starts = new int[numberOfVariables + 1];
+        for (int literal : literals) {
+            starts[Math.abs(literal)] ++;
+        }
+        for (int i = 0; i < numberOfVariables; i ++) {
+            starts[i + 1] += starts[i];
+        }
+        int[] flat = new int[literals.length];
+        int[] fill = new int[numberOfVariables];
+        for (int i = 0, size = getNumberOfClauses(); i < size; i ++) {
+            for (int j = clauseStart[i]; j < clauseStart[i + 1]; j ++) {
+                int variable = Math.abs(literals[j]) - 1;
+                flat[starts[variable] + fill[variable] ++] =
+                        i << 1 | (literals[j] < 0 ? 1 : 0);
+            }
+        }
+        occurrenceStart = starts;
+        occurrences = flat;
+    }
+
+    /**
+     * Checks that every literal refers to a defined variable.
+     *
+     * @throws IllegalArgumentException If some literal is zero or refers to an
+     *         undefined variable.
+     */
+    private void checkLiterals() {
+        for (int literal : literals) {
+            if (literal == 0 || Math.abs(literal) > numberOfVariables) {
+                throw new IllegalArgumentException(
+                        "Literal " + literal + " does not refer to a defined variable."
+                );
+            }
+        }
+    }
+
+    /**
+     * Removes the repeated literals from each clause and drops the
+     * tautological clauses. The arrays are replaced only if some clause
+     * changes.
+     */
+    private void normalize() {
+        int[] marks = new int[numberOfVariables + 1];
+        int[] normalized = null;
+        int[] normalizedStart = null;
+        int literalCounter = 0;
+        int clauseCounter = 0;
+        for (int i = 0, size = getNumberOfClauses(); i < size; i ++) {
+            int start = literalCounter;
+            boolean tautology = false;
+            for (int j = clauseStart[i]; j < clauseStart[i + 1]; j ++) {
+                int literal = literals[j];
+                int variable = Math.abs(literal);
+                int mark = literal > 0 ? i + 1 : -(i + 1);
+                boolean keep = marks[variable] != mark;
+                if (marks[variable] == -mark) {
+                    tautology = true;
+                } else {
+                    marks[variable] = mark;
+                }
+
+                if (normalized == null && keep && !tautology) {
+                    literalCounter ++;
+                    continue;
+                }
+                if (normalized == null) {
+                    // First change: copy the unchanged prefix.
+                    normalized = new int[literals.length];
+                    normalizedStart = new int[clauseStart.length];
+                    System.arraycopy(literals, 0, normalized, 0, literalCounter);
+                    System.arraycopy(clauseStart, 0, normalizedStart, 0, clauseCounter + 1);
+                }
+                if (keep && !tautology) {
+                    normalized[literalCounter ++] = literal;
+                }
+            }
+
+            if (tautology) {
+                literalCounter = start;
+            } else {
+                clauseCounter ++;
+                if (normalizedStart != null) normalizedStart[clauseCounter] = literalCounter;
+            }
+        }
+
+        if (normalized != null) {
+            literals = Arrays.copyOf(normalized, literalCounter);
+            clauseStart = Arrays.copyOf(normalizedStart, clauseCounter + 1);
+        }
+    }
 }
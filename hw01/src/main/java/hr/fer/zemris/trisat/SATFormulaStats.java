@@ -57,8 +57,7 @@ public class SATFormulaStats {
     public void setAssignment(BitVector assignment, boolean updatePercentages) {
         resetValues();
         for (int i = 0, size = formula.getNumberOfClauses(); i < size; i ++) {
-            Clause clause = formula.getClause(i);
-            if (clause.isSatisfied(assignment)) {
+            if (formula.isSatisfied(i, assignment)) {
                 numberOfSatisfied ++;
                 percentageBonus += PERCENTAGE_UNIT_AMOUNT * (1.0 - percentages[i]);
                 if (updatePercentages) {
@@ -74,6 +73,30 @@ public class SATFormulaStats {
         satisfied = numberOfSatisfied == formula.getNumberOfClauses();
     }
 
+    /**
+     * <p>Updates the clause percentage values using the current assignment of
+     * the given {@link IncrementalEvaluator}.</p>
+     * <p>Afterwards, this object reflects that assignment, with the percentage
+     * bonus calculated (as in {@code setAssignment}) from the percentage values
+     * before the update.</p>
+     *
+     * @param evaluator The given {@link IncrementalEvaluator}.
+     */
+    public void updatePercentages(IncrementalEvaluator evaluator) {
+        resetValues();
+        for (int i = 0, size = formula.getNumberOfClauses(); i < size; i ++) {
+            if (evaluator.isSatisfied(i)) {
+                percentageBonus += PERCENTAGE_UNIT_AMOUNT * (1.0 - percentages[i]);
+                percentages[i] += (1.0 - percentages[i]) * PERCENTAGE_CONSTANT_UP;
+            } else {
+                percentageBonus -= PERCENTAGE_UNIT_AMOUNT * (1.0 - percentages[i]);
+                percentages[i] -= percentages[i] * PERCENTAGE_CONSTANT_DOWN;
+            }
+        }
+        numberOfSatisfied = evaluator.getNumberOfSatisfied();
+        satisfied = evaluator.isSatisfied();
+    }
+
     /**
      * Returns the number of satisfied clauses.
      *
@@ -113,6 +136,18 @@ public class SATFormulaStats {
         return percentages[index];
     }
 
+    /**
+     * Returns the correction weight of the clause specified by the given index,
+     * i.e. the amount it contributes to the percentage bonus when satisfied
+     * (or subtracts from it when not satisfied).
+     *
+     * @param index The given index.
+     * @return The corresponding clause correction weight.
+     */
+    public double getClauseWeight(int index) {
+        return PERCENTAGE_UNIT_AMOUNT * (1.0 - percentages[index]);
+    }
+
     /**
      * Resets all information which needs to be reset before applying a new
      * assignment vector to the {@link SATFormula}.
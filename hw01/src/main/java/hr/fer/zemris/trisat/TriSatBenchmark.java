@@ -0,0 +1,116 @@
+package hr.fer.zemris.trisat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * <p>Command line program which expects 1 or 2 arguments.</p>
+ * <p>The first argument is the path to the file containing the {@link SATFormula}
+ * definition.</p>
+ * <p>The second (optional) argument is the number of random flips to perform.</p>
+ * <p>The program measures the number of flips per second when every flip is
+ * followed by a full {@link SATFormulaStats} re-evaluation, and when it is
+ * handled by the {@link IncrementalEvaluator}, and writes both results to the
+ * standard output.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class TriSatBenchmark {
+
+    /** Default number of flips. */
+    private static final int DEFAULT_FLIPS = 1_000_000;
+
+    /** Seed used for both runs, so that they perform the same flips. */
+    private static final long SEED = 42L;
+
+    /**
+     * Main method which is called when the program starts.
+     *
+     * @param args Command line arguments - file path and number of flips.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Expected 1 or 2 arguments.");
+            return;
+        }
+
+        Path filePath = Paths.get(args[0]);
+        if (!Files.isRegularFile(filePath)) {
+            System.err.println(args[0] + " is not a valid file path.");
+            return;
+        }
+
+        int flips = DEFAULT_FLIPS;
+        if (args.length == 2) {
+            try {
+                flips = Integer.parseInt(args[1]);
+            } catch (NumberFormatException ex) {
+                System.err.println(args[1] + " is not a valid integer.");
+                return;
+            }
+        }
+
+        SATFormula formula;
+        try {
+            formula = new TriSatParser(filePath).parse();
+        } catch (IOException ex) {
+            System.err.println("I/O problem occurred while trying to read the file.");
+            return;
+        }
+
+        // Warm-up runs.
+        runFullEvaluation(formula, flips / 10 + 1);
+        runIncrementalEvaluation(formula, flips / 10 + 1);
+
+        System.out.printf("Full evaluation:        %.0f flips/s%n",
+                flips / (runFullEvaluation(formula, flips) / 1e9));
+        System.out.printf("Incremental evaluation: %.0f flips/s%n",
+                flips / (runIncrementalEvaluation(formula, flips) / 1e9));
+    }
+
+    /**
+     * Performs the given number of random flips, re-evaluating the whole
+     * formula after each one.
+     *
+     * @param formula The given formula.
+     * @param flips The given number of flips.
+     * @return The time spent flipping (in nanoseconds).
+     */
+    private static long runFullEvaluation(SATFormula formula, int flips) {
+        Random random = new Random(SEED);
+        int size = formula.getNumberOfVariables();
+        MutableBitVector vector = new BitVector(random, size).copy();
+        SATFormulaStats stats = new SATFormulaStats(formula);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < flips; i ++) {
+            vector.flip(random.nextInt(size));
+            stats.setAssignment(vector, false);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Performs the given number of random flips using the
+     * {@link IncrementalEvaluator}.
+     *
+     * @param formula The given formula.
+     * @param flips The given number of flips.
+     * @return The time spent flipping (in nanoseconds).
+     */
+    private static long runIncrementalEvaluation(SATFormula formula, int flips) {
+        Random random = new Random(SEED);
+        int size = formula.getNumberOfVariables();
+        IncrementalEvaluator evaluator = new IncrementalEvaluator(formula);
+        evaluator.setAssignment(new BitVector(random, size));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < flips; i ++) {
+            evaluator.flip(random.nextInt(size));
+        }
+        return System.nanoTime() - start;
+    }
+}
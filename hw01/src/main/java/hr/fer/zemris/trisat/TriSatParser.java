@@ -1,29 +1,56 @@
 package hr.fer.zemris.trisat;
 
-import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
 
 /**
  * <p>Provides functionality for parsing a file to a {@link SATFormula}.</p>
- * <p>The format of the file is defined in the homework PDF.</p>
+ * <p>The format of the file is the standard DIMACS CNF format (as defined in
+ * the homework PDF), with the following relaxations:</p>
+ * <ul>
+ *     <li>the {@code %} terminator line is optional,</li>
+ *     <li>clauses may be of any width and may span multiple lines,</li>
+ *     <li>the file may be gzip-compressed.</li>
+ * </ul>
+ * <p>Uncompressed files are memory-mapped and their digits are scanned
+ * directly into a single flat literal array, without creating a
+ * {@code String} or an array for each line.</p>
  *
  * @author Mate Gašparini
  */
 public class TriSatParser {
 
     /** Marks the start of a comment line. */
-    private static final String COMMENT_START = "c";
+    private static final byte COMMENT_START = 'c';
+
+    /** Marks the start of the problem line. */
+    private static final byte PROBLEM_START = 'p';
 
     /** Marks the end of formula definition. */
-    private static final String DEFINITION_END = "%";
+    private static final byte DEFINITION_END = '%';
+
+    /** Format name expected in the problem line. */
+    private static final String FORMAT = "cnf";
+
+    /** First two bytes of every gzip file. */
+    private static final int GZIP_MAGIC = 0x1f8b;
+
+    /** Maximum size of a single memory-mapped region. */
+    private static final long MAPPING_SIZE = 1L << 30;
 
-    /** Regex used for clause splitting. */
-    private static final String CLAUSE_REGEX = "\\s+";
+    /** Size of the buffer used for compressed input. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Value returned by the scanner at the end of input. */
+    private static final int EOF = -1;
 
     /** Specified path to the file containing the formula definition. */
     private Path filePath;
@@ -42,38 +69,260 @@ public class TriSatParser {
      * Tries to parse the specified file to a {@link SATFormula} representation.
      *
      * @return The corresponding {@link SATFormula}.
-     * @throws IOException If an I/O error occurs.
+     * @throws IOException If an I/O error occurs, or if the file does not
+     *         contain a valid problem line.
+     * @throws NumberFormatException If the file contains an invalid integer.
      */
     public SATFormula parse() throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(Files.newInputStream(filePath)))) {
-            Clause[] clauses = null;
-            int numberOfVariables = 0;
+        try (Scanner scanner = new Scanner(FileChannel.open(filePath, StandardOpenOption.READ))) {
+            int numberOfVariables = -1;
+            int[] clauseStart = null;
+            int[] literals = null;
             int clauseCounter = 0;
-            boolean firstLineRead = false;
+            int literalCounter = 0;
 
             while (true) {
-                String line = reader.readLine();
-                if (line.startsWith(DEFINITION_END)) {
+                int c = scanner.skipWhitespace();
+                if (c == EOF || c == DEFINITION_END) {
                     break;
-                } else if (!line.startsWith(COMMENT_START)) {
-                    String[] parts = line.trim().split(CLAUSE_REGEX);
-                    if (firstLineRead) {
-                        int size = parts.length - 1; // Without the trailing 0.
-                        int[] indexes = new int[size];
-                        for (int i = 0; i < size; i ++) {
-                            indexes[i] = Integer.parseInt(parts[i]);
+                } else if (c == COMMENT_START) {
+                    scanner.skipLine();
+                } else if (c == PROBLEM_START) {
+                    if (numberOfVariables >= 0) {
+                        throw new IOException("Duplicate problem line.");
+                    }
+                    scanner.next();
+                    if (!FORMAT.equals(scanner.nextWord())) {
+                        throw new IOException("Only the '" + FORMAT + "' format is supported.");
+                    }
+                    numberOfVariables = scanner.nextInt();
+                    int numberOfClauses = scanner.nextInt();
+                    if (numberOfVariables <= 0 || numberOfClauses < 0) {
+                        throw new IOException("Invalid problem line.");
+                    }
+                    clauseStart = new int[numberOfClauses + 1];
+                    literals = new int[Math.max(3 * numberOfClauses, 16)];
+                } else {
+                    if (numberOfVariables < 0) {
+                        throw new IOException("Clause found before the problem line.");
+                    }
+                    int literal = scanner.nextInt();
+                    if (literal == 0) {
+                        if (clauseCounter + 1 == clauseStart.length) {
+                            clauseStart = Arrays.copyOf(clauseStart, grow(clauseStart.length));
                         }
-                        clauses[clauseCounter ++] = new Clause(indexes);
+                        clauseStart[++ clauseCounter] = literalCounter;
                     } else {
-                        firstLineRead = true;
-                        numberOfVariables = Integer.parseInt(parts[2]);
-                        clauses = new Clause[Integer.parseInt(parts[3])];
+                        if (literal > numberOfVariables || literal < -numberOfVariables) {
+                            throw new IOException("Literal " + literal + " out of range.");
+                        }
+                        if (literalCounter == literals.length) {
+                            literals = Arrays.copyOf(literals, grow(literals.length));
+                        }
+                        literals[literalCounter ++] = literal;
                     }
                 }
             }
 
-            return new SATFormula(numberOfVariables, clauses);
+            if (numberOfVariables < 0) {
+                throw new IOException("Missing problem line.");
+            }
+            if (literalCounter != clauseStart[clauseCounter]) {
+                // The last clause is not terminated by a zero.
+                if (clauseCounter + 1 == clauseStart.length) {
+                    clauseStart = Arrays.copyOf(clauseStart, clauseStart.length + 1);
+                }
+                clauseStart[++ clauseCounter] = literalCounter;
+            }
+
+            return new SATFormula(
+                    numberOfVariables,
+                    literals.length == literalCounter
+                            ? literals : Arrays.copyOf(literals, literalCounter),
+                    clauseStart.length == clauseCounter + 1
+                            ? clauseStart : Arrays.copyOf(clauseStart, clauseCounter + 1)
+            );
+        }
+    }
+
+    /**
+     * Returns the new capacity of an array which needs to grow.
+     *
+     * @param capacity The current capacity.
+     * @return The new capacity.
+     */
+    private static int grow(int capacity) {
+        return capacity + (capacity >> 1) + 1;
+    }
+
+    /**
+     * <p>Byte scanner over a memory-mapped file or, if the file is
+     * gzip-compressed, over its decompressed content.</p>
+     * <p>The scanner always holds the current byte, which is the first byte
+     * every method looks at.</p>
+     */
+    private static class Scanner implements Closeable {
+
+        /** The opened file channel. */
+        private FileChannel channel;
+
+        /** Decompressing stream ({@code null} for uncompressed files). */
+        private InputStream stream;
+
+        /** Current buffer (mapped region or decompressed chunk). */
+        private ByteBuffer buffer;
+
+        /** Backing array of the buffer for compressed input. */
+        private byte[] array;
+
+        /** File position of the next region to map. */
+        private long position;
+
+        /** The current byte, or {@code EOF}. */
+        private int current;
+
+        /**
+         * Constructor specifying the opened file channel.
+         *
+         * @param channel The specified file channel.
+         * @throws IOException If an I/O error occurs.
+         */
+        Scanner(FileChannel channel) throws IOException {
+            this.channel = channel;
+            try {
+                ByteBuffer header = ByteBuffer.allocate(2);
+                channel.read(header, 0);
+                if (!header.hasRemaining() && (header.getShort(0) & 0xffff) == GZIP_MAGIC) {
+                    stream = new GZIPInputStream(Channels.newInputStream(channel.position(0)), BUFFER_SIZE);
+                    array = new byte[BUFFER_SIZE];
+                }
+                buffer = ByteBuffer.allocate(0);
+                next();
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        /**
+         * Moves to the next byte and returns it.
+         *
+         * @return The next byte, or {@code EOF}.
+         * @throws IOException If an I/O error occurs.
+         */
+        int next() throws IOException {
+            if (!buffer.hasRemaining() && !refill()) {
+                return current = EOF;
+            }
+            return current = buffer.get() & 0xff;
+        }
+
+        /**
+         * Skips all whitespace bytes and returns the first other byte.
+         *
+         * @return The first non-whitespace byte, or {@code EOF}.
+         * @throws IOException If an I/O error occurs.
+         */
+        int skipWhitespace() throws IOException {
+            int c = current;
+            while (c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f') {
+                c = next();
+            }
+            return c;
+        }
+
+        /**
+         * Skips all bytes up to and including the next line break.
+         *
+         * @throws IOException If an I/O error occurs.
+         */
+        void skipLine() throws IOException {
+            int c = current;
+            while (c != '\n' && c != EOF) {
+                c = next();
+            }
+            next();
+        }
+
+        /**
+         * Skips whitespace and reads the following word.
+         *
+         * @return The read word.
+         * @throws IOException If an I/O error occurs.
+         */
+        String nextWord() throws IOException {
+            StringBuilder builder = new StringBuilder();
+            int c = skipWhitespace();
+            while (c > ' ') {
+                builder.append((char) c);
+                c = next();
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Skips whitespace and reads the following (optionally signed) integer
+         * directly from its digits.
+         *
+         * @return The read integer.
+         * @throws IOException If an I/O error occurs.
+         * @throws NumberFormatException If there is no valid integer at the
+         *         current position.
+         */
+        int nextInt() throws IOException {
+            int c = skipWhitespace();
+            boolean negative = c == '-';
+            if (negative || c == '+') {
+                c = next();
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Expected a digit, found: "
+                        + (c == EOF ? "end of file" : "'" + (char) c + "'"));
+            }
+
+            long value = 0;
+            while (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Integer out of range.");
+                }
+                c = next();
+            }
+            if (c > ' ') {
+                throw new NumberFormatException("Unexpected character: '" + (char) c + "'");
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        /**
+         * Loads the next mapped region or decompressed chunk.
+         *
+         * @return {@code true} if some bytes were loaded, or {@code false} at
+         *         the end of input.
+         * @throws IOException If an I/O error occurs.
+         */
+        private boolean refill() throws IOException {
+            if (stream != null) {
+                int read = stream.read(array);
+                if (read <= 0) return false;
+                buffer = ByteBuffer.wrap(array, 0, read);
+                return true;
+            }
+
+            long remaining = channel.size() - position;
+            if (remaining <= 0) return false;
+            long length = Math.min(remaining, MAPPING_SIZE);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            }
+            channel.close();
         }
     }
 }
@@ -10,11 +10,14 @@ import java.util.Arrays;
 import java.util.List;
 
 /**
- * <p>Command line program which expects 2 arguments.</p>
+ * <p>Command line program which expects 2 or 3 arguments.</p>
  * <p>The first argument is the index of the chosen algorithm (as specified in
  * {@code ALGORITHMS}, but starting at index 1).</p>
  * <p>The second argument is the path to the file containing the {@link SATFormula}
  * definition.</p>
+ * <p>The third (optional) argument is the number of threads used by the
+ * {@link PortfolioAlgorithm} (by default, the number of available
+ * processors).</p>
  * <p>The program tries to solve the defined problem using the chosen algorithm
  * and, if a solution was found, it is written to the standard output.</p>
  *
@@ -29,17 +32,19 @@ public class TriSatSolver {
             new SmartHillClimbingAlgorithm(),
             new GSATAlgorithm(),
             new RandomWalkSATAlgorithm(),
-            new IteratedLocalSearchAlgorithm()
+            new IteratedLocalSearchAlgorithm(),
+            new PortfolioAlgorithm(Runtime.getRuntime().availableProcessors(), System.out)
     );
 
     /**
      * Main method which is called when the program starts.
      *
-     * @param args Command line arguments - algorithm index and file path.
+     * @param args Command line arguments - algorithm index, file path and
+     *             (optionally) number of portfolio threads.
      */
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.err.println("Expected 2 arguments.");
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Expected 2 or 3 arguments.");
             return;
         }
 
@@ -55,6 +60,20 @@ public class TriSatSolver {
             return;
         }
 
+        int numberOfThreads = 0;
+        if (args.length == 3) {
+            try {
+                numberOfThreads = Integer.parseInt(args[2]);
+            } catch (NumberFormatException ex) {
+                System.err.println(args[2] + " is not a valid integer.");
+                return;
+            }
+            if (numberOfThreads < 1) {
+                System.err.println("Number of threads must be positive.");
+                return;
+            }
+        }
+
         Path filePath = Paths.get(args[1]);
         if (!Files.isRegularFile(filePath)) {
             System.err.println(args[1] + " is not a valid file path.");
@@ -64,6 +83,15 @@ public class TriSatSolver {
         try {
             SATFormula formula = new TriSatParser(filePath).parse();
             Algorithm algorithm = ALGORITHMS.get(algorithmIndex - 1);
+            if (numberOfThreads > 0 && algorithm instanceof PortfolioAlgorithm) {
+                algorithm = new PortfolioAlgorithm(numberOfThreads, System.out);
+            }
+            if (algorithm instanceof BruteForceAlgorithm
+                    && formula.getNumberOfVariables() > ModelEnumerator.MAX_VARIABLES) {
+                System.err.println("Brute force supports at most "
+                        + ModelEnumerator.MAX_VARIABLES + " variables.");
+                return;
+            }
 
             BitVector solution = algorithm.solve(formula);
             if (solution == null) {
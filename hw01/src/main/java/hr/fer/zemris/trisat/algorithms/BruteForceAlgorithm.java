@@ -1,15 +1,20 @@
 package hr.fer.zemris.trisat.algorithms;
 
 import hr.fer.zemris.trisat.BitVector;
-import hr.fer.zemris.trisat.MutableBitVector;
+import hr.fer.zemris.trisat.ModelEnumerator;
 import hr.fer.zemris.trisat.SATFormula;
 
 import java.io.PrintStream;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * <p>Algorithm 1 from the homework.</p>
  * <p>It performs good for easy problems, and really bad for hard problems.</p>
  * <p>Its weakness is that it tests every single possibility.</p>
+ * <p>The possibilities are tested by a {@link ModelEnumerator} (in Gray-code
+ * order and in parallel), which makes it usable for up to 30-40 variables.</p>
  *
  * @author Mate Gašparini
  */
@@ -18,35 +23,57 @@ public class BruteForceAlgorithm implements Algorithm {
     /** The specified output stream. */
     private PrintStream printStream;
 
+    /** The specified {@link ForkJoinPool}. */
+    private ForkJoinPool pool;
+
     /**
      * Constructs the algorithm with the specified {@link PrintStream} for
-     * writing all found solutions.
+     * writing all found solutions, using the common {@link ForkJoinPool}.
      *
      * @param printStream The specified {@link PrintStream}.
      */
     public BruteForceAlgorithm(PrintStream printStream) {
+        this(printStream, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs the algorithm with the specified {@link PrintStream} for
+     * writing all found solutions and the specified {@link ForkJoinPool}.
+     *
+     * @param printStream The specified {@link PrintStream}.
+     * @param pool The specified {@link ForkJoinPool}.
+     * @throws NullPointerException If the specified pool is {@code null}.
+     */
+    public BruteForceAlgorithm(PrintStream printStream, ForkJoinPool pool) {
         this.printStream = printStream;
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null.");
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>All found solutions are written to the specified {@link PrintStream}
+     * (in no particular order).</p>
+     *
+     * @throws IllegalArgumentException If the formula has more than
+     *         {@link ModelEnumerator#MAX_VARIABLES} variables.
+     */
     @Override
     public BitVector solve(SATFormula formula) {
-        int length = formula.getNumberOfVariables();
-        BitVector solution = null;
-        MutableBitVector assignment = new MutableBitVector(length);
-
-        for (long counter = 0L; counter < 1L << length; counter ++) {
-            for (int i = 0; i < length; i ++) {
-                boolean value = assignment.get(i);
-                assignment.set(i, !value);
-                if (!value) break;
-            }
-
-            if (formula.isSatisfied(assignment)) {
-                printStream.println(assignment);
-                solution = assignment;
-            }
-        }
-
-        return solution;
+        AtomicReference<BitVector> solution = new AtomicReference<>();
+        new ModelEnumerator(formula, pool).enumerate(model -> {
+            printStream.println(model);
+            solution.set(model);
+        });
+        return solution.get();
+    }
+
+    /**
+     * Returns the number of all solutions of the given {@link SATFormula}.
+     *
+     * @param formula The given {@link SATFormula}.
+     * @return The number of solutions.
+     */
+    public long countSolutions(SATFormula formula) {
+        return new ModelEnumerator(formula, pool).countModels();
     }
 }
@@ -1,10 +1,17 @@
 package hr.fer.zemris.trisat.algorithms;
 
+import hr.fer.zemris.trisat.IncrementalEvaluator;
+import hr.fer.zemris.trisat.SATFormula;
+
+import java.util.Objects;
 import java.util.Random;
 
 /**
- * Helper superclass which contains some resources that are shared between all
- * of its subclasses.
+ * <p>Helper superclass which contains some resources that are shared between all
+ * of its subclasses.</p>
+ * <p>Each instance has its own {@link Random} instance, so that different
+ * instances can safely run in parallel (e.g. in a {@link PortfolioAlgorithm}).
+ * A running instance can be cooperatively stopped from another thread.</p>
  *
  * @author Mate Gašparini
  */
@@ -13,6 +20,99 @@ public abstract class EvolutionaryAlgorithm implements Algorithm {
     /** The maximum number of iterations (tries) of the algorithm. */
     protected static final int MAX_ITERATION = 100_000;
 
-    /** The single {@link Random} instance used for random number generation. */
-    protected static Random random = new Random();
+    /** The {@link Random} instance used for random number generation. */
+    protected Random random;
+
+    /** The evaluator used by the last {@code solve} call. */
+    private IncrementalEvaluator evaluator;
+
+    /** Set when the algorithm is requested to stop. */
+    private volatile boolean stopped;
+
+    /**
+     * Default constructor which uses a new {@link Random} instance.
+     */
+    protected EvolutionaryAlgorithm() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     * @throws NullPointerException If the specified {@link Random} instance is
+     *         {@code null}.
+     */
+    protected EvolutionaryAlgorithm(Random random) {
+        this.random = Objects.requireNonNull(random, "Random instance cannot be null.");
+    }
+
+    /**
+     * <p>Requests the algorithm to stop as soon as possible.</p>
+     * <p>A stopped algorithm returns {@code null} from the running (and every
+     * later) {@code solve} call.</p>
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the number of flips performed by the last {@code solve} call.
+     * It should only be read after the call is finished.
+     *
+     * @return The number of performed flips.
+     */
+    public long getNumberOfFlips() {
+        return evaluator == null ? 0L : evaluator.getNumberOfFlips();
+    }
+
+    /**
+     * Returns {@code true} if the algorithm was requested to stop.
+     *
+     * @return {@code true} if the algorithm should stop, or {@code false}
+     *         otherwise.
+     */
+    protected boolean isStopped() {
+        return stopped;
+    }
+
+    /**
+     * Creates the {@link IncrementalEvaluator} for the given formula, which is
+     * also used for counting flips.
+     *
+     * @param formula The given formula.
+     * @return The created evaluator.
+     */
+    protected IncrementalEvaluator createEvaluator(SATFormula formula) {
+        evaluator = new IncrementalEvaluator(formula);
+        return evaluator;
+    }
+
+    /**
+     * Fills the given array with all variables whose flip results in the
+     * highest score, considering only scores of at least the given minimum.
+     *
+     * @param evaluator The evaluator of the current assignment.
+     * @param minimumScore The given minimum score.
+     * @param bestNeighbors The array to fill (of at least the number of
+     *                      variables in size).
+     * @return The number of stored variables ({@code 0} if no variable has the
+     *         minimum score).
+     */
+    protected static int selectBest(IncrementalEvaluator evaluator, int minimumScore,
+                                    int[] bestNeighbors) {
+        int bestScore = minimumScore;
+        int count = 0;
+        for (int variable = 0, size = evaluator.getNumberOfVariables(); variable < size; variable ++) {
+            int score = evaluator.getScore(variable);
+            if (score > bestScore) {
+                bestScore = score;
+                count = 0;
+                bestNeighbors[count ++] = variable;
+            } else if (score == bestScore) {
+                bestNeighbors[count ++] = variable;
+            }
+        }
+        return count;
+    }
 }
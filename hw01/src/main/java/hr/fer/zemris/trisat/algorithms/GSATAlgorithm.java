@@ -1,12 +1,10 @@
 package hr.fer.zemris.trisat.algorithms;
 
 import hr.fer.zemris.trisat.BitVector;
-import hr.fer.zemris.trisat.BitVectorNGenerator;
+import hr.fer.zemris.trisat.IncrementalEvaluator;
 import hr.fer.zemris.trisat.SATFormula;
-import hr.fer.zemris.trisat.SATFormulaStats;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 /**
  * <p>Algorithm 4 from the homework.</p>
@@ -21,39 +19,46 @@ public class GSATAlgorithm extends EvolutionaryAlgorithm {
     /** Max number of flips before resetting to a new randomized solution. */
     private static final int MAX_FLIPS = 100;
 
+    /**
+     * Default constructor which uses a new {@link Random} instance.
+     */
+    public GSATAlgorithm() {
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     * @throws NullPointerException If the specified {@link Random} instance is
+     *         {@code null}.
+     */
+    public GSATAlgorithm(Random random) {
+        super(random);
+    }
+
     @Override
     public BitVector solve(SATFormula formula) {
-        SATFormulaStats stats = new SATFormulaStats(formula);
+        IncrementalEvaluator evaluator = createEvaluator(formula);
+        int size = formula.getNumberOfVariables();
 
-        List<BitVector> bestNeighbors = new ArrayList<>();
+        int[] bestNeighbors = new int[size];
 
         for (int i = 0; i < MAX_ITERATION; i ++) {
-            BitVector vector = new BitVector(random, formula.getNumberOfVariables());
-            stats.setAssignment(vector, false);
-            if (stats.isSatisfied()) {
-                return vector;
+            evaluator.setAssignment(new BitVector(random, size));
+            if (evaluator.isSatisfied()) {
+                return evaluator.getAssignment();
             }
 
             for (int flip = 0; flip < MAX_FLIPS; flip ++) {
-                int bestFitness = 0;
-                for (BitVector neighbor : new BitVectorNGenerator(vector)) {
-                    stats.setAssignment(neighbor, false);
-                    if (stats.isSatisfied()) {
-                        return neighbor;
-                    }
-
-                    int fitness = stats.getNumberOfSatisfied();
-                    if (fitness > bestFitness) {
-                        bestFitness = fitness;
-                        bestNeighbors.clear();
-                        bestNeighbors.add(neighbor);
-                    } else if (fitness == bestFitness) {
-                        bestNeighbors.add(neighbor);
-                    }
+                if (isStopped()) {
+                    return null;
                 }
 
-                vector = bestNeighbors.get(random.nextInt(bestNeighbors.size()));
-                bestNeighbors.clear();
+                int count = selectBest(evaluator, -formula.getNumberOfClauses(), bestNeighbors);
+                evaluator.flip(bestNeighbors[random.nextInt(count)]);
+                if (evaluator.isSatisfied()) {
+                    return evaluator.getAssignment();
+                }
             }
         }
 
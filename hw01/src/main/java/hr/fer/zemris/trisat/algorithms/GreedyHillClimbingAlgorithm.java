@@ -1,12 +1,10 @@
 package hr.fer.zemris.trisat.algorithms;
 
 import hr.fer.zemris.trisat.BitVector;
-import hr.fer.zemris.trisat.BitVectorNGenerator;
+import hr.fer.zemris.trisat.IncrementalEvaluator;
 import hr.fer.zemris.trisat.SATFormula;
-import hr.fer.zemris.trisat.SATFormulaStats;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 /**
  * <p>Algorithm 2 from the homework.</p>
@@ -17,44 +15,50 @@ import java.util.List;
  */
 public class GreedyHillClimbingAlgorithm extends EvolutionaryAlgorithm {
 
+    /**
+     * Default constructor which uses a new {@link Random} instance.
+     */
+    public GreedyHillClimbingAlgorithm() {
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     * @throws NullPointerException If the specified {@link Random} instance is
+     *         {@code null}.
+     */
+    public GreedyHillClimbingAlgorithm(Random random) {
+        super(random);
+    }
+
     @Override
     public BitVector solve(SATFormula formula) {
-        SATFormulaStats stats = new SATFormulaStats(formula);
+        IncrementalEvaluator evaluator = createEvaluator(formula);
+        int size = formula.getNumberOfVariables();
 
-        BitVector vector = new BitVector(random, formula.getNumberOfVariables());
-        stats.setAssignment(vector, false);
-        if (stats.isSatisfied()) {
-            return vector;
+        evaluator.setAssignment(new BitVector(random, size));
+        if (evaluator.isSatisfied()) {
+            return evaluator.getAssignment();
         }
 
-        int bestFitness = stats.getNumberOfSatisfied();
-        List<BitVector> bestNeighbors = new ArrayList<>();
+        int[] bestNeighbors = new int[size];
 
         for (int i = 0; i < MAX_ITERATION; i ++) {
-            BitVectorNGenerator generator = new BitVectorNGenerator(vector);
-            for (BitVector neighbor : generator) {
-                stats.setAssignment(neighbor, false);
-                if (stats.isSatisfied()) {
-                    return neighbor;
-                }
-
-                int fitness = stats.getNumberOfSatisfied();
-                if (fitness > bestFitness) {
-                    bestFitness = fitness;
-                    bestNeighbors.clear();
-                    bestNeighbors.add(neighbor);
-                } else if (fitness == bestFitness) {
-                    if (!bestNeighbors.isEmpty()) {
-                        bestNeighbors.add(neighbor);
-                    }
-                }
+            if (isStopped()) {
+                return null;
             }
 
-            if (bestNeighbors.isEmpty()) break;
-            vector = bestNeighbors.get(random.nextInt(bestNeighbors.size()));
-            bestNeighbors.clear();
+            int count = selectBest(evaluator, 1, bestNeighbors);
+            if (count == 0) break;
+
+            evaluator.flip(bestNeighbors[random.nextInt(count)]);
+            if (evaluator.isSatisfied()) {
+                return evaluator.getAssignment();
+            }
         }
 
         return null;
     }
+
 }
@@ -17,44 +17,53 @@ public class IteratedLocalSearchAlgorithm extends EvolutionaryAlgorithm {
     /** Part of the vector to perturb when stuck in a local optimum. */
     private static final double MUTATION_CONSTANT = 0.4;
 
+    /**
+     * Default constructor which uses a new {@link Random} instance.
+     */
+    public IteratedLocalSearchAlgorithm() {
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     * @throws NullPointerException If the specified {@link Random} instance is
+     *         {@code null}.
+     */
+    public IteratedLocalSearchAlgorithm(Random random) {
+        super(random);
+    }
+
     @Override
     public BitVector solve(SATFormula formula) {
-        SATFormulaStats stats = new SATFormulaStats(formula);
+        IncrementalEvaluator evaluator = createEvaluator(formula);
+        int size = formula.getNumberOfVariables();
 
-        BitVector vector = new BitVector(random, formula.getNumberOfVariables());
-        stats.setAssignment(vector, false);
-        if (stats.isSatisfied()) {
-            return vector;
+        evaluator.setAssignment(new BitVector(random, size));
+        if (evaluator.isSatisfied()) {
+            return evaluator.getAssignment();
         }
 
-        int bestFitness = stats.getNumberOfSatisfied();
-        List<BitVector> bestNeighbors = new ArrayList<>();
+        int bestFitness = evaluator.getNumberOfSatisfied();
+        int[] bestNeighbors = new int[size];
 
         for (int i = 0; i < MAX_ITERATION; i ++) {
-            BitVectorNGenerator generator = new BitVectorNGenerator(vector);
-            for (BitVector neighbor : generator) {
-                stats.setAssignment(neighbor, false);
-                if (stats.isSatisfied()) {
-                    return neighbor;
-                }
-
-                int fitness = stats.getNumberOfSatisfied();
-                if (fitness > bestFitness) {
-                    bestFitness = fitness;
-                    bestNeighbors.clear();
-                    bestNeighbors.add(neighbor);
-                } else if (fitness == bestFitness) {
-                    if (!bestNeighbors.isEmpty()) {
-                        bestNeighbors.add(neighbor);
-                    }
-                }
+            if (isStopped()) {
+                return null;
             }
 
-            if (bestNeighbors.isEmpty()) {
-                vector = perturb(vector);
+            int minimumScore = bestFitness - evaluator.getNumberOfSatisfied() + 1;
+            int count = selectBest(evaluator, minimumScore, bestNeighbors);
+
+            if (count == 0) {
+                perturb(evaluator);
             } else {
-                vector = bestNeighbors.get(random.nextInt(bestNeighbors.size()));
-                bestNeighbors.clear();
+                evaluator.flip(bestNeighbors[random.nextInt(count)]);
+                bestFitness = evaluator.getNumberOfSatisfied();
+            }
+
+            if (evaluator.isSatisfied()) {
+                return evaluator.getAssignment();
             }
         }
 
@@ -62,14 +71,13 @@ public class IteratedLocalSearchAlgorithm extends EvolutionaryAlgorithm {
     }
 
     /**
-     * Flips a part ({@code MUTATION_CONSTANT}) of the given vector's variables.
+     * Flips a part ({@code MUTATION_CONSTANT}) of the current assignment's
+     * variables.
      *
-     * @param vector The given vector.
-     * @return The perturbed vector.
+     * @param evaluator The evaluator of the current assignment.
      */
-    private BitVector perturb(BitVector vector) {
-        MutableBitVector perturbed = vector.copy();
-        int size = vector.getSize();
+    private void perturb(IncrementalEvaluator evaluator) {
+        int size = evaluator.getNumberOfVariables();
         int mutationCount = (int) (MUTATION_CONSTANT * size);
 
         Set<Integer> indexes = new HashSet<>();
@@ -82,9 +90,7 @@ public class IteratedLocalSearchAlgorithm extends EvolutionaryAlgorithm {
         }
 
         for (int index : indexes) {
-            perturbed.set(index, !perturbed.get(index));
+            evaluator.flip(index);
         }
-
-        return perturbed;
     }
 }
@@ -0,0 +1,218 @@
+package hr.fer.zemris.trisat.algorithms;
+
+import hr.fer.zemris.trisat.BitVector;
+import hr.fer.zemris.trisat.SATFormula;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * <p>Portfolio of local search algorithms which are run concurrently (with
+ * different seeds) on a thread pool over the same read-only
+ * {@link SATFormula}.</p>
+ * <p>As soon as one of the workers finds a satisfying assignment, all other
+ * workers are cooperatively stopped.</p>
+ * <p>After solving, a report (the winning algorithm, the time it took and the
+ * flips per second of every worker) is written to the specified
+ * {@link PrintStream}.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class PortfolioAlgorithm implements Algorithm {
+
+    /** Factories of all algorithms which are a part of the portfolio. */
+    private static final List<Function<Random, EvolutionaryAlgorithm>> FACTORIES = Arrays.asList(
+            GSATAlgorithm::new,
+            RandomWalkSATAlgorithm::new,
+            IteratedLocalSearchAlgorithm::new,
+            GreedyHillClimbingAlgorithm::new,
+            SmartHillClimbingAlgorithm::new
+    );
+
+    /** Number of worker threads (raised to the number of algorithms). */
+    private int numberOfThreads;
+
+    /** Generator of worker seeds. */
+    private Random seedGenerator;
+
+    /** The specified output stream. */
+    private PrintStream printStream;
+
+    /**
+     * Constructor specifying the number of worker threads, the master seed
+     * (from which all worker seeds are generated) and the {@link PrintStream}
+     * for writing the report.
+     *
+     * @param numberOfThreads The specified number of worker threads.
+     * @param seed The specified master seed.
+     * @param printStream The specified {@link PrintStream}.
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public PortfolioAlgorithm(int numberOfThreads, long seed, PrintStream printStream) {
+        this(numberOfThreads, new Random(seed), printStream);
+    }
+
+    /**
+     * Constructor specifying the number of worker threads and the
+     * {@link PrintStream} for writing the report (worker seeds are random).
+     *
+     * @param numberOfThreads The specified number of worker threads.
+     * @param printStream The specified {@link PrintStream}.
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public PortfolioAlgorithm(int numberOfThreads, PrintStream printStream) {
+        this(numberOfThreads, new Random(), printStream);
+    }
+
+    /**
+     * Helper constructor specifying the seed generator.
+     *
+     * @param numberOfThreads The specified number of worker threads.
+     * @param seedGenerator The specified seed generator.
+     * @param printStream The specified {@link PrintStream}.
+     */
+    private PortfolioAlgorithm(int numberOfThreads, Random seedGenerator, PrintStream printStream) {
+        if (numberOfThreads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        this.numberOfThreads = numberOfThreads;
+        this.seedGenerator = seedGenerator;
+        this.printStream = Objects.requireNonNull(printStream, "Print stream cannot be null.");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Every algorithm of the portfolio gets at least one worker, and each
+     * worker runs on its own thread (so there are more threads than specified
+     * if there are fewer threads than algorithms). If there are more threads
+     * than algorithms, the remaining workers run additional instances (with
+     * different seeds) in the same order.</p>
+     */
+    @Override
+    public BitVector solve(SATFormula formula) {
+        int numberOfWorkers = Math.max(numberOfThreads, FACTORIES.size());
+        List<Worker> workers = new ArrayList<>(numberOfWorkers);
+        for (int i = 0; i < numberOfWorkers; i ++) {
+            Random random = new Random(seedGenerator.nextLong());
+            workers.add(new Worker(FACTORIES.get(i % FACTORIES.size()).apply(random), formula));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(numberOfWorkers, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletionService<Worker> completionService = new ExecutorCompletionService<>(pool);
+        long start = System.nanoTime();
+        for (Worker worker : workers) {
+            completionService.submit(worker);
+        }
+
+        Worker winner = null;
+        try {
+            for (int i = 0; i < numberOfWorkers && winner == null; i ++) {
+                Worker finished = completionService.take().get();
+                if (finished.solution != null) {
+                    winner = finished;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Portfolio worker failed.", ex.getCause());
+        } finally {
+            for (Worker worker : workers) {
+                worker.algorithm.stop();
+            }
+            pool.shutdown();
+            try {
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        report(workers, winner, elapsed);
+        return winner == null ? null : winner.solution;
+    }
+
+    /**
+     * Writes the report about the finished run to the specified
+     * {@link PrintStream}.
+     *
+     * @param workers All workers.
+     * @param winner The worker which found a solution, or {@code null}.
+     * @param elapsed The total elapsed time (in nanoseconds).
+     */
+    private void report(List<Worker> workers, Worker winner, long elapsed) {
+        if (winner == null) {
+            printStream.printf("No worker found a solution in %.3f s.%n", elapsed / 1e9);
+        } else {
+            printStream.printf("Worker %d (%s) found a solution in %.3f s.%n",
+                    workers.indexOf(winner), winner.getName(), elapsed / 1e9);
+        }
+        for (int i = 0, size = workers.size(); i < size; i ++) {
+            Worker worker = workers.get(i);
+            long flips = worker.algorithm.getNumberOfFlips();
+            double seconds = worker.elapsed / 1e9;
+            printStream.printf("  Worker %d (%s): %d flips, %.0f flips/s%n",
+                    i, worker.getName(), flips, seconds > 0 ? flips / seconds : 0.0);
+        }
+    }
+
+    /**
+     * Single worker of the portfolio, which runs one algorithm and remembers
+     * its result and running time.
+     */
+    private static class Worker implements Callable<Worker> {
+
+        /** The algorithm to run. */
+        private EvolutionaryAlgorithm algorithm;
+
+        /** The shared formula. */
+        private SATFormula formula;
+
+        /** The found solution, or {@code null}. */
+        private BitVector solution;
+
+        /** Running time (in nanoseconds). */
+        private long elapsed;
+
+        /**
+         * Constructor specifying the algorithm and the formula.
+         *
+         * @param algorithm The specified algorithm.
+         * @param formula The specified formula.
+         */
+        Worker(EvolutionaryAlgorithm algorithm, SATFormula formula) {
+            this.algorithm = algorithm;
+            this.formula = formula;
+        }
+
+        @Override
+        public Worker call() {
+            long start = System.nanoTime();
+            solution = algorithm.solve(formula);
+            elapsed = System.nanoTime() - start;
+            return this;
+        }
+
+        /**
+         * Returns the name of the algorithm.
+         *
+         * @return The name of the algorithm.
+         */
+        String getName() {
+            return algorithm.getClass().getSimpleName();
+        }
+    }
+}
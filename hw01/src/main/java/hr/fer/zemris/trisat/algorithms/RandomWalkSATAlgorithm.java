@@ -2,8 +2,7 @@ package hr.fer.zemris.trisat.algorithms;
 
 import hr.fer.zemris.trisat.*;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Random;
 
 /**
  * <p>Algorithm 5 from the homework.</p>
@@ -20,33 +19,50 @@ public class RandomWalkSATAlgorithm extends EvolutionaryAlgorithm {
     /** Probability of mutation (constant p, explained in the homework). */
     private static final double MUTATION_CONSTANT = 0.4;
 
+    /**
+     * Default constructor which uses a new {@link Random} instance.
+     */
+    public RandomWalkSATAlgorithm() {
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     * @throws NullPointerException If the specified {@link Random} instance is
+     *         {@code null}.
+     */
+    public RandomWalkSATAlgorithm(Random random) {
+        super(random);
+    }
+
     @Override
     public BitVector solve(SATFormula formula) {
-        List<Clause> unsatisfied = new ArrayList<>();
+        if (formula.hasEmptyClause()) {
+            return null; // No variable of an empty clause can be flipped.
+        }
+        IncrementalEvaluator evaluator = createEvaluator(formula);
 
         for (int i = 0; i < MAX_ITERATION; i ++) {
-            MutableBitVector vector =
-                    new BitVector(random, formula.getNumberOfVariables()).copy();
+            evaluator.setAssignment(new BitVector(random, formula.getNumberOfVariables()));
 
             for (int flip = 0; flip < MAX_FLIPS; flip ++) {
-                int numberOfClauses = formula.getNumberOfClauses();
-                int numberOfSatisfied = 0;
-                for (int clauseIndex = 0; clauseIndex < numberOfClauses; clauseIndex ++) {
-                    Clause clause = formula.getClause(clauseIndex);
-                    if (clause.isSatisfied(vector)) {
-                        numberOfSatisfied ++;
-                    } else {
-                        unsatisfied.add(clause);
-                    }
+                if (isStopped()) {
+                    return null;
                 }
 
-                if (numberOfSatisfied == numberOfClauses) {
-                    return vector;
+                if (evaluator.isSatisfied()) {
+                    return evaluator.getAssignment();
                 }
 
-                Clause clause = unsatisfied.get(random.nextInt(unsatisfied.size()));
-                alterVector(vector, clause, formula);
-                unsatisfied.clear();
+                int clauseIndex = evaluator.getUnsatisfied(
+                        random.nextInt(evaluator.getNumberOfUnsatisfied())
+                );
+                alterVector(evaluator, formula, clauseIndex);
+            }
+
+            if (evaluator.isSatisfied()) {
+                return evaluator.getAssignment();
             }
         }
 
@@ -54,40 +70,34 @@ public class RandomWalkSATAlgorithm extends EvolutionaryAlgorithm {
     }
 
     /**
-     * <p>Mutates the given assignment vector in two ways.</p>
+     * <p>Mutates the current assignment vector in one of two ways.</p>
      * <p>With the probability of {@code MUTATION_CONSTANT}, it flips some
-     * randomly chosen variable from the given clause in the given vector.</p>
+     * randomly chosen variable from the given clause.</p>
      * <p>With the probability of {@code 1-MUTATION_CONSTANT}, it flips the
-     * variable from the given clause in the given vector that results in the
-     * highest number of satisfied clauses in the given formula.</p>
+     * variable from the given clause that results in the highest number of
+     * satisfied clauses in the formula.</p>
      *
-     * @param vector The given vector.
-     * @param clause The given clause.
+     * @param evaluator The evaluator of the current assignment.
      * @param formula The given formula.
+     * @param clause The given clause index.
      */
-    private void alterVector(MutableBitVector vector, Clause clause, SATFormula formula) {
+    private void alterVector(IncrementalEvaluator evaluator, SATFormula formula, int clause) {
         if (random.nextDouble() < MUTATION_CONSTANT) {
-            int literalIndex = random.nextInt(clause.getSize());
-            int bitIndex = Math.abs(clause.getLiteral(literalIndex)) - 1;
-            vector.set(bitIndex, !vector.get(bitIndex));
+            int literalIndex = random.nextInt(formula.getClauseSize(clause));
+            evaluator.flip(Math.abs(formula.getLiteral(clause, literalIndex)) - 1);
+            return;
         }
 
-        if (random.nextDouble() < 1.0-MUTATION_CONSTANT) {
-            int bestIndex = 0;
-            int bestScore = -1;
-            SATFormulaStats stats = new SATFormulaStats(formula);
-            for (int i = 0, size = clause.getSize(); i < size; i ++) {
-                int bitIndex = Math.abs(clause.getLiteral(i)) - 1;
-                MutableBitVector candidate = vector.copy();
-                candidate.set(bitIndex, candidate.get(bitIndex));
-                stats.setAssignment(candidate, false);
-                int score = stats.getNumberOfSatisfied();
-                if (score > bestScore) {
-                    bestScore = score;
-                    bestIndex = bitIndex;
-                }
+        int bestIndex = Math.abs(formula.getLiteral(clause, 0)) - 1;
+        int bestScore = evaluator.getScore(bestIndex);
+        for (int i = 1, size = formula.getClauseSize(clause); i < size; i ++) {
+            int bitIndex = Math.abs(formula.getLiteral(clause, i)) - 1;
+            int score = evaluator.getScore(bitIndex);
+            if (score > bestScore) {
+                bestScore = score;
+                bestIndex = bitIndex;
             }
-            vector.set(bestIndex, !vector.get(bestIndex));
         }
+        evaluator.flip(bestIndex);
     }
 }
@@ -1,11 +1,12 @@
 package hr.fer.zemris.trisat.algorithms;
 
 import hr.fer.zemris.trisat.BitVector;
-import hr.fer.zemris.trisat.BitVectorNGenerator;
+import hr.fer.zemris.trisat.IncrementalEvaluator;
 import hr.fer.zemris.trisat.SATFormula;
 import hr.fer.zemris.trisat.SATFormulaStats;
 
-import java.util.*;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * <p>Algorithm 3 from the homework.</p>
@@ -21,59 +22,72 @@ public class SmartHillClimbingAlgorithm extends EvolutionaryAlgorithm {
     /** Number of assignments with best fitness from which the next one is chosen. */
     private static final int NUMBER_OF_BEST = 2;
 
+    /**
+     * Default constructor which uses a new {@link Random} instance.
+     */
+    public SmartHillClimbingAlgorithm() {
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     * @throws NullPointerException If the specified {@link Random} instance is
+     *         {@code null}.
+     */
+    public SmartHillClimbingAlgorithm(Random random) {
+        super(random);
+    }
+
     @Override
     public BitVector solve(SATFormula formula) {
         SATFormulaStats stats = new SATFormulaStats(formula);
-        BitVector vector = new BitVector(random, formula.getNumberOfVariables());
+        IncrementalEvaluator evaluator = createEvaluator(formula);
+        int size = formula.getNumberOfVariables();
+        evaluator.setAssignment(new BitVector(random, size));
 
-        List<AssignmentScore> scores = new ArrayList<>();
+        int[] best = new int[NUMBER_OF_BEST];
+        double[] bestScores = new double[NUMBER_OF_BEST];
+        IntToDoubleFunction clauseWeight = stats::getClauseWeight;
 
         for (int i = 0; i < MAX_ITERATION; i ++) {
-            stats.setAssignment(vector, true);
-
-            for (BitVector neighbor : new BitVectorNGenerator(vector)) {
-                stats.setAssignment(neighbor, false);
-                if (stats.isSatisfied()) {
-                    return neighbor;
-                }
-
-                double fitness = stats.getNumberOfSatisfied() + stats.getPercentageBonus();
-                scores.add(new AssignmentScore(neighbor, fitness));
+            if (isStopped()) {
+                return null;
             }
 
-            scores.sort(Collections.reverseOrder());
-            vector = scores.get(random.nextInt(NUMBER_OF_BEST)).assignment;
-            scores.clear();
-        }
+            stats.updatePercentages(evaluator);
 
-        return null;
-    }
-
-    /**
-     * Represents a pair of some assignment and its score (fitness value).
-     */
-    private static class AssignmentScore implements Comparable<AssignmentScore> {
+            int found = 0;
+            for (int variable = 0; variable < size; variable ++) {
+                int score = evaluator.getScore(variable);
+                if (score == evaluator.getNumberOfUnsatisfied()) {
+                    evaluator.flip(variable);
+                    return evaluator.getAssignment();
+                }
 
-        /** The specified assignment. */
-        private BitVector assignment;
+                // The percentage bonus changes by twice the weight of each
+                // clause which changes its satisfaction.
+                double fitness = score
+                        + 2.0 * evaluator.getWeightedScore(variable, clauseWeight);
 
-        /** The specified score (fitness). */
-        private double score;
+                int position = found;
+                while (position > 0 && bestScores[position - 1] < fitness) {
+                    position --;
+                }
+                if (position < NUMBER_OF_BEST) {
+                    for (int j = Math.min(found, NUMBER_OF_BEST - 1); j > position; j --) {
+                        best[j] = best[j - 1];
+                        bestScores[j] = bestScores[j - 1];
+                    }
+                    best[position] = variable;
+                    bestScores[position] = fitness;
+                    found = Math.min(found + 1, NUMBER_OF_BEST);
+                }
+            }
 
-        /**
-         * Constructor specifying the assignment and its score.
-         *
-         * @param assignment The specified assignment.
-         * @param score The specified score (fitness).
-         */
-        public AssignmentScore(BitVector assignment, double score) {
-            this.assignment = assignment;
-            this.score = score;
+            evaluator.flip(best[random.nextInt(found)]);
         }
 
-        @Override
-        public int compareTo(AssignmentScore other) {
-            return Double.compare(this.score, other.score);
-        }
+        return null;
     }
 }
@@ -3,8 +3,12 @@ package hr.fer.zemris.optjava.dz2;
 import Jama.Matrix;
 
 /**
- * Interface that models a scalar function whose domain is an n-dimensional
- * vector of real numbers.
+ * <p>Interface that models a scalar function whose domain is an n-dimensional
+ * vector of real numbers.</p>
+ * <p>Besides the {@link Matrix} based methods, it offers methods which work on
+ * plain {@code double[]} buffers supplied by the caller. Their default
+ * implementations delegate to the {@link Matrix} based ones, so implementations
+ * should override them to avoid allocating on every call.</p>
  *
  * @author Mate Gašparini
  */
@@ -32,4 +36,29 @@ public interface IFunction {
      * @return The gradient at the given point.
      */
     Matrix getGradient(Matrix point);
+
+    /**
+     * Returns the value of the function at the given point.
+     *
+     * @param point The given point.
+     * @return The value at the given point.
+     */
+    default double getValue(double[] point) {
+        return getValue(new Matrix(point, point.length));
+    }
+
+    /**
+     * Stores the gradient vector of the function at the given point into the
+     * given buffer.
+     *
+     * @param point The given point.
+     * @param gradient The buffer for the gradient (of the same size as the
+     *                 point).
+     */
+    default void getGradient(double[] point, double[] gradient) {
+        Matrix result = getGradient(new Matrix(point, point.length));
+        for (int i = 0; i < gradient.length; i ++) {
+            gradient[i] = result.get(i, 0);
+        }
+    }
 }
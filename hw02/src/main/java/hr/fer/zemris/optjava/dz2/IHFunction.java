@@ -17,4 +17,20 @@ public interface IHFunction extends IFunction {
      * @return The Hessian matrix at the given point.
      */
     Matrix getHessianMatrix(Matrix point);
+
+    /**
+     * Stores the Hessian matrix at the given point into the given buffer.
+     *
+     * @param point The given point.
+     * @param hessian The buffer for the Hessian matrix (square, of the same
+     *                size as the point).
+     */
+    default void getHessianMatrix(double[] point, double[][] hessian) {
+        Matrix result = getHessianMatrix(new Matrix(point, point.length));
+        for (int i = 0; i < hessian.length; i ++) {
+            for (int j = 0; j < hessian[i].length; j ++) {
+                hessian[i][j] = result.get(i, j);
+            }
+        }
+    }
 }
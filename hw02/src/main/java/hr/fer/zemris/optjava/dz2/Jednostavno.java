@@ -1,13 +1,13 @@
 package hr.fer.zemris.optjava.dz2;
 
-import Jama.Matrix;
 import hr.fer.zemris.optjava.dz2.functions.FirstFunction;
 import hr.fer.zemris.optjava.dz2.functions.SecondFunction;
+import hr.fer.zemris.optjava.dz2.listeners.IterationListener;
 import hr.fer.zemris.optjava.dz2.util.NumOptUtil;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Random;
-import java.util.function.BiFunction;
 
 /**
  * Program which solves some homework problem (by using gradient descent or
@@ -30,27 +30,29 @@ public class Jednostavno {
     private static final IHFunction SECOND_FUNCTION = new SecondFunction();
 
     /** Map of problems, indexed by the problem labels. */
-    private static final Map<String, BiFunction<Matrix, Integer, Matrix>> problems = Map.ofEntries(
-            Map.entry("1a", (p, m) -> NumOptAlgorithms.gradientDescent(FIRST_FUNCTION, m, p)),
-            Map.entry("1b", (p, m) -> NumOptAlgorithms.newtonsMethod(FIRST_FUNCTION, m, p)),
-            Map.entry("2a", (p, m) -> NumOptAlgorithms.gradientDescent(SECOND_FUNCTION, m, p)),
-            Map.entry("2b", (p, m) -> NumOptAlgorithms.newtonsMethod(SECOND_FUNCTION, m, p))
+    private static final Map<String, TriFunction<double[], Integer, IterationListener, double[]>>
+            problems = Map.ofEntries(
+                    Map.entry("1a", (p, m, l) -> NumOptAlgorithms.gradientDescent(FIRST_FUNCTION, m, p, l)),
+                    Map.entry("1b", (p, m, l) -> NumOptAlgorithms.newtonsMethod(FIRST_FUNCTION, m, p, l)),
+                    Map.entry("2a", (p, m, l) -> NumOptAlgorithms.gradientDescent(SECOND_FUNCTION, m, p, l)),
+                    Map.entry("2b", (p, m, l) -> NumOptAlgorithms.newtonsMethod(SECOND_FUNCTION, m, p, l))
     );
 
     /**
      * Main method which is called when the program starts.
      *
      * @param args Command line arguments (problem label, maximum iteration,
-     *        optional starting point coordinates).
+     *        optional starting point coordinates, optional iteration listener
+     *        description, {@code none} by default).
      */
     public static void main(String[] args) {
-        if (args.length != 2 && args.length != 4) {
-            System.err.println("Expected 2 or 4 arguments.");
+        if (args.length < 2 || args.length > 5) {
+            System.err.println("Expected 2 to 5 arguments.");
             return;
         }
 
         String problemLabel = args[0];
-        BiFunction<Matrix, Integer, Matrix> problem = problems.get(problemLabel);
+        var problem = problems.get(problemLabel);
         if (problem == null) {
             System.err.println("No problem found for '" + problemLabel + "'.");
             return;
@@ -66,7 +68,7 @@ public class Jednostavno {
 
         double x;
         double y;
-        if (args.length == 2) {
+        if (args.length < 4) {
             Random random = new Random();
             x = MIN + (MAX-MIN) * random.nextDouble();
             y = MIN + (MAX-MIN) * random.nextDouble();
@@ -79,9 +81,19 @@ public class Jednostavno {
                 return;
             }
         }
-        Matrix start = new Matrix(new double[][] {{x}, {y}});
+        double[] start = {x, y};
 
-        Matrix result = problem.apply(start, maxIteration);
+        String listenerDescription = args.length % 2 == 1 ? args[args.length - 1] : "none";
+        double[] result;
+        try (IterationListener listener = NumOptUtil.parseListener(listenerDescription)) {
+            result = problem.apply(start, maxIteration, listener);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            return;
+        } catch (IOException ex) {
+            System.err.println("Error opening the trajectory file.");
+            return;
+        }
         if (result == null) {
             System.out.println("Minimum not found.");
         } else {
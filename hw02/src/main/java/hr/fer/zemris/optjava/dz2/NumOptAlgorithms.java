@@ -1,13 +1,21 @@
 package hr.fer.zemris.optjava.dz2;
 
 import Jama.Matrix;
+import hr.fer.zemris.optjava.dz2.listeners.IterationListener;
+import hr.fer.zemris.optjava.dz2.util.LinearAlgebra;
 import hr.fer.zemris.optjava.dz2.util.NumOptUtil;
 
 import java.util.function.BiFunction;
 
 /**
- * Class containing static methods for finding the function minimum using line
- * search based algorithms.
+ * <p>Class containing static methods for finding the function minimum using line
+ * search based algorithms.</p>
+ * <p>Each algorithm is available for {@link Matrix} points and for plain
+ * {@code double[]} points. The latter works on buffers which are allocated
+ * once per run, and Newton's method solves the system with the Hessian matrix
+ * (using the Cholesky or LU decomposition) instead of inverting it.</p>
+ * <p>Every evaluated point is passed to an {@link IterationListener} (which
+ * ignores them by default).</p>
  *
  * @author Mate Gašparini
  */
@@ -29,7 +37,22 @@ public class NumOptAlgorithms {
      * @return The calculated function minimum (or {@code null} if not found).
      */
     public static Matrix gradientDescent(IFunction function, int maxIteration, Matrix point) {
-        return lineSearch(function, maxIteration, point, NumOptAlgorithms::dGradient);
+        return gradientDescent(function, maxIteration, point, IterationListener.NONE);
+    }
+
+    /**
+     * Returns the given function minimum using the gradient descent algorithm
+     * to calculate it.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of line search iterations.
+     * @param point The starting point.
+     * @param listener The listener notified in each iteration.
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    public static Matrix gradientDescent(IFunction function, int maxIteration, Matrix point,
+            IterationListener listener) {
+        return lineSearch(function, maxIteration, point, NumOptAlgorithms::dGradient, listener);
     }
 
     /**
@@ -42,7 +65,78 @@ public class NumOptAlgorithms {
      * @return The calculated function minimum (or {@code null} if not found).
      */
     public static Matrix newtonsMethod(IHFunction function, int maxIteration, Matrix point) {
-        return lineSearch(function, maxIteration, point, NumOptAlgorithms::dNewton);
+        return newtonsMethod(function, maxIteration, point, IterationListener.NONE);
+    }
+
+    /**
+     * Returns the given function minimum using the Newton's method algorithm
+     * to calculate it.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of line search iterations.
+     * @param point The starting point.
+     * @param listener The listener notified in each iteration.
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    public static Matrix newtonsMethod(IHFunction function, int maxIteration, Matrix point,
+            IterationListener listener) {
+        return lineSearch(function, maxIteration, point, NumOptAlgorithms::dNewton, listener);
+    }
+
+    /**
+     * Returns the given function minimum using the gradient descent algorithm
+     * to calculate it, without allocating in each iteration.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of line search iterations.
+     * @param point The starting point (updated in place).
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    public static double[] gradientDescent(IFunction function, int maxIteration, double[] point) {
+        return gradientDescent(function, maxIteration, point, IterationListener.NONE);
+    }
+
+    /**
+     * Returns the given function minimum using the gradient descent algorithm
+     * to calculate it, without allocating in each iteration.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of line search iterations.
+     * @param point The starting point (updated in place).
+     * @param listener The listener notified in each iteration.
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    public static double[] gradientDescent(IFunction function, int maxIteration, double[] point,
+            IterationListener listener) {
+        return lineSearch(function, maxIteration, point, NumOptAlgorithms::dGradient, listener);
+    }
+
+    /**
+     * Returns the given function minimum using the Newton's method algorithm
+     * to calculate it, without allocating in each iteration.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of line search iterations.
+     * @param point The starting point (updated in place).
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    public static double[] newtonsMethod(IHFunction function, int maxIteration, double[] point) {
+        return newtonsMethod(function, maxIteration, point, IterationListener.NONE);
+    }
+
+    /**
+     * Returns the given function minimum using the Newton's method algorithm
+     * to calculate it, without allocating in each iteration.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of line search iterations.
+     * @param point The starting point (updated in place).
+     * @param listener The listener notified in each iteration.
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    public static double[] newtonsMethod(IHFunction function, int maxIteration, double[] point,
+            IterationListener listener) {
+        return lineSearch(function, maxIteration, point, NumOptAlgorithms::dNewton, listener);
     }
 
     /**
@@ -54,14 +148,17 @@ public class NumOptAlgorithms {
      * @param point The given starting point.
      * @param direction The specified way of calculating the direction vector
      *        from the given function and the current point.
+     * @param listener The listener notified in each iteration.
      * @return The calculated function minimum (or {@code null} if not found).
      */
     private static Matrix lineSearch(IFunction function, int maxIteration,
-                Matrix point, BiFunction<IFunction, Matrix, Matrix> direction) {
+                Matrix point, BiFunction<IFunction, Matrix, Matrix> direction,
+                IterationListener listener) {
         for (int i = 0; i < maxIteration; i ++) {
-            NumOptUtil.printPoint(point, System.out);
             double value = function.getValue(point);
-            System.out.println(value);
+            if (listener != IterationListener.NONE) {
+                listener.iterationPerformed(i, point.getColumnPackedCopy(), value);
+            }
             if (value < NumOptUtil.EPSILON) {
                 return point;
             }
@@ -73,6 +170,37 @@ public class NumOptAlgorithms {
         return null;
     }
 
+    /**
+     * Returns the given function minimum using the specified way of calculating
+     * the direction vector, working on the buffers of a {@link Workspace}.
+     *
+     * @param function The given function.
+     * @param maxIteration Maximum number of iterations.
+     * @param point The given starting point (updated in place).
+     * @param direction The specified way of calculating the direction vector.
+     * @param listener The listener notified in each iteration.
+     * @return The calculated function minimum (or {@code null} if not found).
+     */
+    private static double[] lineSearch(IFunction function, int maxIteration,
+                                       double[] point, Direction direction,
+                                       IterationListener listener) {
+        Workspace workspace = new Workspace(point.length);
+        for (int i = 0; i < maxIteration; i ++) {
+            double value = function.getValue(point);
+            listener.iterationPerformed(i, point, value);
+            if (value < NumOptUtil.EPSILON) {
+                return point;
+            }
+
+            direction.calculate(function, point, workspace);
+            double lambda = NumOptUtil.getLambda(
+                    function, point, workspace.d, workspace.trial, workspace.gradient
+            );
+            LinearAlgebra.axpy(point, lambda, workspace.d, point);
+        }
+        return null;
+    }
+
     /**
      * Returns the direction vector for the gradient descent algorithm.
      *
@@ -97,4 +225,88 @@ public class NumOptAlgorithms {
         Matrix hessian = ((IHFunction) function).getHessianMatrix(point);
         return hessian.inverse().times(-1.0).times(gradient);
     }
+
+    /**
+     * Stores the direction vector for the gradient descent algorithm into the
+     * given workspace.
+     *
+     * @param function The given function.
+     * @param point The given point.
+     * @param workspace The given workspace.
+     */
+    private static void dGradient(IFunction function, double[] point, Workspace workspace) {
+        function.getGradient(point, workspace.d);
+        LinearAlgebra.scale(workspace.d, -1.0);
+    }
+
+    /**
+     * Stores the direction vector for the Newton's method algorithm into the
+     * given workspace, by solving {@code H*d = -g} (instead of inverting the
+     * Hessian matrix).
+     *
+     * @param function The given function.
+     * @param point The given point.
+     * @param workspace The given workspace.
+     */
+    private static void dNewton(IFunction function, double[] point, Workspace workspace) {
+        function.getGradient(point, workspace.d);
+        LinearAlgebra.scale(workspace.d, -1.0);
+        ((IHFunction) function).getHessianMatrix(point, workspace.hessian);
+        LinearAlgebra.solve(workspace.hessian, workspace.d, workspace.diagonal, workspace.pivots);
+    }
+
+    /**
+     * Way of calculating the direction vector into some {@link Workspace}.
+     */
+    @FunctionalInterface
+    private interface Direction {
+
+        /**
+         * Stores the direction vector for the given function and point into
+         * the given workspace.
+         *
+         * @param function The given function.
+         * @param point The given point.
+         * @param workspace The given workspace.
+         */
+        void calculate(IFunction function, double[] point, Workspace workspace);
+    }
+
+    /**
+     * Buffers which are allocated once per run and reused in each iteration.
+     */
+    private static class Workspace {
+
+        /** The direction vector. */
+        private double[] d;
+
+        /** Points at which the line search evaluates the gradient. */
+        private double[] trial;
+
+        /** Gradients calculated by the line search. */
+        private double[] gradient;
+
+        /** The Hessian matrix (overwritten by its decomposition). */
+        private double[][] hessian;
+
+        /** Diagonal of the Cholesky factor. */
+        private double[] diagonal;
+
+        /** Row interchanges of the LU decomposition. */
+        private int[] pivots;
+
+        /**
+         * Constructor specifying the number of variables.
+         *
+         * @param size The specified number of variables.
+         */
+        Workspace(int size) {
+            d = new double[size];
+            trial = new double[size];
+            gradient = new double[size];
+            hessian = new double[size][size];
+            diagonal = new double[size];
+            pivots = new int[size];
+        }
+    }
 }
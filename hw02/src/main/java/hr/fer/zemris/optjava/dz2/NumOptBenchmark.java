@@ -0,0 +1,184 @@
+package hr.fer.zemris.optjava.dz2;
+
+import Jama.Matrix;
+import hr.fer.zemris.optjava.dz2.functions.ThirdFunction;
+
+import java.util.Random;
+
+/**
+ * <p>Program which compares the number of line search iterations per second of
+ * the {@link Matrix} based algorithms and the in-place {@code double[]} based
+ * ones, on random (diagonally dominant) equation systems of various sizes.</p>
+ * <p>Both variants solve the same system from the same starting point,
+ * without an iteration listener. Each run is repeated (from the start)
+ * until the time budget is spent.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class NumOptBenchmark {
+
+    /** Default sizes of the equation system. */
+    private static final int[] DEFAULT_SIZES = {10, 100, 1000};
+
+    /** Time budget of each measurement (in nanoseconds). */
+    private static final long BUDGET = 2_000_000_000L;
+
+    /** Maximum number of iterations of a single gradient descent run. */
+    private static final int GRADIENT_ITERATIONS = 100;
+
+    /** Maximum number of iterations of a single Newton's method run. */
+    private static final int NEWTON_ITERATIONS = 10;
+
+    /** Seed used for generating the equation systems. */
+    private static final long SEED = 42;
+
+    /**
+     * Main method which is called when the program starts.
+     *
+     * @param args Command line arguments (optional sizes of the equation
+     *        system).
+     */
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            try {
+                for (int i = 0; i < args.length; i ++) {
+                    sizes[i] = Integer.parseInt(args[i]);
+                }
+            } catch (NumberFormatException ex) {
+                System.err.println("Sizes must be integers.");
+                return;
+            }
+        }
+
+        Random random = new Random(SEED);
+        System.out.printf("%-6s %-6s %16s %16s %9s%n", "size", "alg", "matrix it/s", "in-place it/s", "speedup");
+
+        for (int size : sizes) {
+            double[] start = new double[size];
+            CountingFunction function = new CountingFunction(randomSystem(size, random, start));
+
+            double gradientMatrix = measure(function, () ->
+                    NumOptAlgorithms.gradientDescent(function, GRADIENT_ITERATIONS, new Matrix(start, size)));
+            double gradientArray = measure(function, () ->
+                    NumOptAlgorithms.gradientDescent(function, GRADIENT_ITERATIONS, start.clone()));
+            double newtonMatrix = measure(function, () ->
+                    NumOptAlgorithms.newtonsMethod(function, NEWTON_ITERATIONS, new Matrix(start, size)));
+            double newtonArray = measure(function, () ->
+                    NumOptAlgorithms.newtonsMethod(function, NEWTON_ITERATIONS, start.clone()));
+
+            System.out.printf("%-6d %-6s %16.1f %16.1f %8.1fx%n",
+                    size, "grad", gradientMatrix, gradientArray, gradientArray / gradientMatrix);
+            System.out.printf("%-6d %-6s %16.1f %16.1f %8.1fx%n",
+                    size, "newt", newtonMatrix, newtonArray, newtonArray / newtonMatrix);
+        }
+    }
+
+    /**
+     * Returns the number of iterations per second of the given run, repeating
+     * it until the time budget is spent.
+     *
+     * @param function The function minimized by the run.
+     * @param run The given run.
+     * @return The measured number of iterations per second.
+     */
+    private static double measure(CountingFunction function, Runnable run) {
+        run.run(); // warm-up
+        function.iterations = 0;
+        long startTime = System.nanoTime();
+        long elapsed;
+        do {
+            run.run();
+            elapsed = System.nanoTime() - startTime;
+        } while (elapsed < BUDGET);
+        return function.iterations * 1e9 / elapsed;
+    }
+
+    /**
+     * Returns the error function of a random equation system {@code A*x = b}
+     * of the given size, with a known solution and a strictly diagonally
+     * dominant matrix whose elements are scaled by the size (so that both
+     * algorithms converge, and the bisection reaches the absolute derivative
+     * tolerance).
+     *
+     * @param size The given size.
+     * @param random The used random number generator.
+     * @param start Buffer for the random starting point.
+     * @return The error function of the system.
+     */
+    private static ThirdFunction randomSystem(int size, Random random, double[] start) {
+        double[][] coefficients = new double[size][size];
+        double[] solution = new double[size];
+        for (int i = 0; i < size; i ++) {
+            solution[i] = 10 * random.nextDouble() - 5;
+            start[i] = random.nextDouble();
+            for (int j = 0; j < size; j ++) {
+                coefficients[i][j] = (2 * random.nextDouble() - 1) / size;
+            }
+            coefficients[i][i] += 1.0;
+        }
+
+        Matrix a = new Matrix(coefficients);
+        return new ThirdFunction(a, a.times(new Matrix(solution, size)));
+    }
+
+    /**
+     * {@link IHFunction} which delegates to some other one and counts the
+     * number of line search iterations (that is, the number of evaluations).
+     */
+    private static class CountingFunction implements IHFunction {
+
+        /** The wrapped function. */
+        private IHFunction function;
+
+        /** Number of evaluations since the last reset. */
+        private long iterations;
+
+        /**
+         * Constructor specifying the wrapped function.
+         *
+         * @param function The specified function.
+         */
+        CountingFunction(IHFunction function) {
+            this.function = function;
+        }
+
+        @Override
+        public int getNumberOfVariables() {
+            return function.getNumberOfVariables();
+        }
+
+        @Override
+        public double getValue(Matrix point) {
+            iterations ++;
+            return function.getValue(point);
+        }
+
+        @Override
+        public Matrix getGradient(Matrix point) {
+            return function.getGradient(point);
+        }
+
+        @Override
+        public Matrix getHessianMatrix(Matrix point) {
+            return function.getHessianMatrix(point);
+        }
+
+        @Override
+        public double getValue(double[] point) {
+            iterations ++;
+            return function.getValue(point);
+        }
+
+        @Override
+        public void getGradient(double[] point, double[] gradient) {
+            function.getGradient(point, gradient);
+        }
+
+        @Override
+        public void getHessianMatrix(double[] point, double[][] hessian) {
+            function.getHessianMatrix(point, hessian);
+        }
+    }
+}
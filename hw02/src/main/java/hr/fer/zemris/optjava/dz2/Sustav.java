@@ -2,6 +2,7 @@ package hr.fer.zemris.optjava.dz2;
 
 import Jama.Matrix;
 import hr.fer.zemris.optjava.dz2.functions.ThirdFunction;
+import hr.fer.zemris.optjava.dz2.listeners.IterationListener;
 import hr.fer.zemris.optjava.dz2.util.NumOptUtil;
 
 import java.io.BufferedReader;
@@ -34,21 +35,21 @@ public class Sustav {
     private static final int VECTOR_SIZE = 10;
 
     /** Map containing algorithms, indexed by the algorithm label. */
-    private static final Map<String, TriFunction<IHFunction, Matrix, Integer, Matrix>>
-            algorithms = Map.ofEntries(
-                    Map.entry("grad", (f, p, m) -> NumOptAlgorithms.gradientDescent(f, m, p)),
-                    Map.entry("newt", (f, p, m) -> NumOptAlgorithms.newtonsMethod(f, m, p))
+    private static final Map<String, Algorithm> algorithms = Map.ofEntries(
+            Map.entry("grad", NumOptAlgorithms::gradientDescent),
+            Map.entry("newt", NumOptAlgorithms::newtonsMethod)
     );
 
     /**
      * Main method which is called when the program starts.
      *
      * @param args Command line arguments (algorithm label, max iteration, path
-     *        to the file containing equation system definition).
+     *        to the file containing equation system definition, optional
+     *        iteration listener description, {@code none} by default).
      */
     public static void main(String[] args) {
-        if (args.length != 3) {
-            System.err.println("Expected 3 arguments.");
+        if (args.length != 3 && args.length != 4) {
+            System.err.println("Expected 3 or 4 arguments.");
             return;
         }
 
@@ -82,13 +83,22 @@ public class Sustav {
         }
 
         Random random = new Random();
-        double[][] startArray = new double[10][1];
+        double[] start = new double[VECTOR_SIZE];
         for (int i = 0; i < VECTOR_SIZE; i ++) {
-            startArray[i][0] = random.nextDouble();
+            start[i] = random.nextDouble();
         }
-        Matrix start = new Matrix(startArray);
 
-        Matrix result = algorithm.apply(function, start, maxIteration);
+        double[] result;
+        try (IterationListener listener = NumOptUtil.parseListener(
+                args.length == 4 ? args[3] : "none")) {
+            result = algorithm.apply(function, maxIteration, start, listener);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            return;
+        } catch (IOException ex) {
+            System.err.println("Error opening the trajectory file.");
+            return;
+        }
         System.out.println("====================");
         if (result == null) {
             System.out.println("Solution not found.");
@@ -147,4 +157,23 @@ public class Sustav {
             return new ThirdFunction(coefficientMatrix, rightSideMatrix);
         }
     }
+
+    /**
+     * Line search based algorithm which solves the equation system.
+     */
+    @FunctionalInterface
+    private interface Algorithm {
+
+        /**
+         * Returns the minimum of the given function.
+         *
+         * @param function The given function.
+         * @param maxIteration Maximum number of iterations.
+         * @param start The starting point.
+         * @param listener The listener notified in each iteration.
+         * @return The calculated minimum (or {@code null} if not found).
+         */
+        double[] apply(IHFunction function, int maxIteration, double[] start,
+                       IterationListener listener);
+    }
 }
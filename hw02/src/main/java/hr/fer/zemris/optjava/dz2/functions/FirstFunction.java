@@ -31,4 +31,25 @@ public class FirstFunction extends TwoVariableFunction {
                 {0, 2}
         });
     }
+
+    @Override
+    public double getValue(double[] point) {
+        double first = point[0];
+        double second = point[1] - 1;
+        return first*first + second*second;
+    }
+
+    @Override
+    public void getGradient(double[] point, double[] gradient) {
+        gradient[0] = 2 * point[0];
+        gradient[1] = 2 * point[1] - 2;
+    }
+
+    @Override
+    public void getHessianMatrix(double[] point, double[][] hessian) {
+        hessian[0][0] = 2;
+        hessian[0][1] = 0;
+        hessian[1][0] = 0;
+        hessian[1][1] = 2;
+    }
 }
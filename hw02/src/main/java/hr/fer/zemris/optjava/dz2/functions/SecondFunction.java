@@ -32,4 +32,25 @@ public class SecondFunction extends TwoVariableFunction {
                 {0, 20}
         });
     }
+
+    @Override
+    public double getValue(double[] point) {
+        double first = point[0] - 1;
+        double second = point[1] - 2;
+        return first*first + 10*second*second;
+    }
+
+    @Override
+    public void getGradient(double[] point, double[] gradient) {
+        gradient[0] = 2 * point[0] - 2;
+        gradient[1] = 20 * point[1] - 40;
+    }
+
+    @Override
+    public void getHessianMatrix(double[] point, double[][] hessian) {
+        hessian[0][0] = 2;
+        hessian[0][1] = 0;
+        hessian[1][0] = 0;
+        hessian[1][1] = 20;
+    }
 }
@@ -3,8 +3,13 @@ package hr.fer.zemris.optjava.dz2.functions;
 import Jama.Matrix;
 import hr.fer.zemris.optjava.dz2.IHFunction;
 
+import java.util.Arrays;
+
 /**
- * Models some error function for some system of equations.
+ * <p>Models some error function for some system of equations.</p>
+ * <p>The {@code double[]} based methods work on flat copies of the
+ * coefficients and never allocate. Since the function is quadratic, its
+ * Hessian matrix is constant, so it is calculated only once.</p>
  *
  * @author Mate Gašparini
  */
@@ -16,6 +21,15 @@ public class ThirdFunction implements IHFunction {
     /** Vector of given right side (y) values. */
     private Matrix rightSide;
 
+    /** Row-major copy of the coefficients. */
+    private double[][] coefficientArray;
+
+    /** Copy of the right side values. */
+    private double[] rightSideArray;
+
+    /** The constant Hessian matrix (calculated on first use). */
+    private double[][] hessian;
+
     /**
      * Constructor specifying the coefficients matrix and the right side vector.
      *
@@ -25,6 +39,8 @@ public class ThirdFunction implements IHFunction {
     public ThirdFunction(Matrix coefficients, Matrix rightSide) {
         this.coefficients = coefficients;
         this.rightSide = rightSide;
+        this.coefficientArray = coefficients.getArrayCopy();
+        this.rightSideArray = rightSide.getColumnPackedCopy();
     }
 
     @Override
@@ -69,4 +85,73 @@ public class ThirdFunction implements IHFunction {
         }
         return new Matrix(gradientArray);
     }
+
+    @Override
+    public double getValue(double[] point) {
+        double value = 0.0;
+        for (int row = 0; row < coefficientArray.length; row ++) {
+            double mistake = mistake(row, point);
+            value += mistake*mistake;
+        }
+        return value;
+    }
+
+    @Override
+    public void getGradient(double[] point, double[] gradient) {
+        Arrays.fill(gradient, 0.0);
+        for (int row = 0; row < coefficientArray.length; row ++) {
+            double[] rowCoefficients = coefficientArray[row];
+            double factor = 2.0 * mistake(row, point);
+            for (int i = 0; i < gradient.length; i ++) {
+                gradient[i] += factor * rowCoefficients[i];
+            }
+        }
+    }
+
+    @Override
+    public void getHessianMatrix(double[] point, double[][] hessian) {
+        if (this.hessian == null) {
+            this.hessian = calculateHessian();
+        }
+        for (int i = 0; i < hessian.length; i ++) {
+            System.arraycopy(this.hessian[i], 0, hessian[i], 0, hessian[i].length);
+        }
+    }
+
+    /**
+     * Returns the mistake (left side minus right side) of the given equation
+     * for the given point.
+     *
+     * @param row The given equation index.
+     * @param point The given point.
+     * @return The corresponding mistake.
+     */
+    private double mistake(int row, double[] point) {
+        double[] rowCoefficients = coefficientArray[row];
+        double sum = -rightSideArray[row];
+        for (int i = 0; i < point.length; i ++) {
+            sum += rowCoefficients[i] * point[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Calculates the (constant) Hessian matrix {@code 2*A^T*A}.
+     *
+     * @return The calculated Hessian matrix.
+     */
+    private double[][] calculateHessian() {
+        int size = getNumberOfVariables();
+        double[][] result = new double[size][size];
+        for (double[] row : coefficientArray) {
+            for (int i = 0; i < size; i ++) {
+                double factor = 2.0 * row[i];
+                double[] resultRow = result[i];
+                for (int j = 0; j < size; j ++) {
+                    resultRow[j] += factor * row[j];
+                }
+            }
+        }
+        return result;
+    }
 }
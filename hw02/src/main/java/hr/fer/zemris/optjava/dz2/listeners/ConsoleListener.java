@@ -0,0 +1,32 @@
+package hr.fer.zemris.optjava.dz2.listeners;
+
+import hr.fer.zemris.optjava.dz2.util.NumOptUtil;
+
+import java.io.PrintStream;
+
+/**
+ * {@link IterationListener} which prints the current point and the function
+ * value at it in every iteration.
+ *
+ * @author Mate Gašparini
+ */
+public class ConsoleListener implements IterationListener {
+
+    /** The specified print stream. */
+    private PrintStream stream;
+
+    /**
+     * Constructor specifying the print stream.
+     *
+     * @param stream The specified print stream.
+     */
+    public ConsoleListener(PrintStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public void iterationPerformed(int iteration, double[] point, double value) {
+        NumOptUtil.printPoint(point, stream);
+        stream.println(value);
+    }
+}
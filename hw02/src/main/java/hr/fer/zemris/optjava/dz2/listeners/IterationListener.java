@@ -0,0 +1,34 @@
+package hr.fer.zemris.optjava.dz2.listeners;
+
+import java.io.Closeable;
+
+/**
+ * <p>Listener which is notified after each evaluation of the current point in
+ * a line search based algorithm.</p>
+ * <p>The given point is the algorithm's own buffer, so it must not be modified
+ * or stored (it is overwritten in the next iteration).</p>
+ *
+ * @author Mate Gašparini
+ */
+@FunctionalInterface
+public interface IterationListener extends Closeable {
+
+    /** Listener which ignores all iterations. */
+    IterationListener NONE = (iteration, point, value) -> {};
+
+    /**
+     * Called when the current point is evaluated.
+     *
+     * @param iteration The current (zero-based) iteration.
+     * @param point The current point.
+     * @param value The function value at the current point.
+     */
+    void iterationPerformed(int iteration, double[] point, double value);
+
+    /**
+     * Releases the resources used by this listener (does nothing by default).
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,136 @@
+package hr.fer.zemris.optjava.dz2.listeners;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * <p>{@link IterationListener} which records the trajectory of an algorithm
+ * (the iteration, the function value and the point coordinates) into a
+ * file, through a buffer.</p>
+ * <p>Only every k-th iteration is recorded (where k is the specified sampling
+ * period), starting with the first one. The file is written in one of the
+ * following formats:</p>
+ * <ul>
+ *     <li>{@link Format#CSV} - a header line ({@code iteration,value,x1,...,xn})
+ *     followed by one line per recorded iteration,</li>
+ *     <li>{@link Format#BINARY} - the number of coordinates ({@code int})
+ *     followed by one record per recorded iteration: the iteration
+ *     ({@code int}), the value ({@code double}) and the coordinates
+ *     ({@code double} each), all in big-endian byte order.</li>
+ * </ul>
+ *
+ * @author Mate Gašparini
+ */
+public class TrajectoryWriter implements IterationListener {
+
+    /** Size of the output buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Supported file formats. */
+    public enum Format {
+
+        /** Comma-separated text values. */
+        CSV,
+
+        /** Raw big-endian values. */
+        BINARY
+    }
+
+    /** The buffered output. */
+    private DataOutputStream output;
+
+    /** The specified file format. */
+    private Format format;
+
+    /** The specified sampling period. */
+    private int period;
+
+    /** Flag indicating whether the header is already written. */
+    private boolean headerWritten;
+
+    /**
+     * Constructor specifying the file, its format and the sampling period.
+     *
+     * @param filePath The specified file path (created or truncated).
+     * @param format The specified file format.
+     * @param period The specified sampling period (every k-th iteration is
+     *               recorded).
+     * @throws IOException If the file cannot be opened.
+     * @throws IllegalArgumentException If the sampling period is not positive.
+     */
+    public TrajectoryWriter(Path filePath, Format format, int period) throws IOException {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Sampling period must be positive.");
+        }
+        this.format = format;
+        this.period = period;
+        this.output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(filePath), BUFFER_SIZE)
+        );
+    }
+
+    @Override
+    public void iterationPerformed(int iteration, double[] point, double value) {
+        if (iteration % period != 0) return;
+        try {
+            if (!headerWritten) {
+                writeHeader(point.length);
+                headerWritten = true;
+            }
+            if (format == Format.CSV) {
+                output.writeBytes(Integer.toString(iteration));
+                output.write(',');
+                output.writeBytes(Double.toString(value));
+                for (double coordinate : point) {
+                    output.write(',');
+                    output.writeBytes(Double.toString(coordinate));
+                }
+                output.write('\n');
+            } else {
+                output.writeInt(iteration);
+                output.writeDouble(value);
+                for (double coordinate : point) {
+                    output.writeDouble(coordinate);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Writes the file header for points of the given dimension.
+     *
+     * @param dimension The given dimension.
+     * @throws IOException If an I/O error occurs.
+     */
+    private void writeHeader(int dimension) throws IOException {
+        if (format == Format.CSV) {
+            output.writeBytes("iteration,value");
+            for (int i = 1; i <= dimension; i ++) {
+                output.writeBytes(",x" + i);
+            }
+            output.write('\n');
+        } else {
+            output.writeInt(dimension);
+        }
+    }
+
+    /**
+     * Flushes the buffer and closes the file.
+     *
+     * @throws UncheckedIOException If an I/O error occurs.
+     */
+    @Override
+    public void close() {
+        try {
+            output.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package hr.fer.zemris.optjava.dz2.util;
+
+/**
+ * <p>Utility class containing allocation-free linear algebra kernels which
+ * operate in place on plain {@code double} arrays.</p>
+ * <p>Vectors are {@code double[]}, matrices are row-major
+ * {@code double[][]}.</p>
+ *
+ * @author Mate Gašparini
+ */
+public final class LinearAlgebra {
+
+    /**
+     * Private default constructor.
+     */
+    private LinearAlgebra() {
+    }
+
+    /**
+     * Returns the dot product of the given vectors.
+     *
+     * @param x The first given vector.
+     * @param y The second given vector.
+     * @return The calculated dot product.
+     */
+    public static double dot(double[] x, double[] y) {
+        double sum = 0.0;
+        for (int i = 0; i < x.length; i ++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Stores {@code x + alpha*y} into the given result vector (which may be
+     * the same array as {@code x}).
+     *
+     * @param x The first given vector.
+     * @param alpha The given factor.
+     * @param y The second given vector.
+     * @param result The result vector.
+     */
+    public static void axpy(double[] x, double alpha, double[] y, double[] result) {
+        for (int i = 0; i < x.length; i ++) {
+            result[i] = x[i] + alpha * y[i];
+        }
+    }
+
+    /**
+     * Multiplies every element of the given vector by the given factor.
+     *
+     * @param x The given vector.
+     * @param alpha The given factor.
+     */
+    public static void scale(double[] x, double alpha) {
+        for (int i = 0; i < x.length; i ++) {
+            x[i] *= alpha;
+        }
+    }
+
+    /**
+     * <p>Solves the system {@code A*x = b} in place.</p>
+     * <p>The Cholesky decomposition is tried first (for symmetric positive
+     * definite matrices, such as most Hessian matrices), and the LU
+     * decomposition with partial pivoting is used otherwise. The matrix is
+     * overwritten by its decomposition and the right side vector by the
+     * solution.</p>
+     *
+     * @param a The given square matrix (overwritten).
+     * @param b The given right side vector (overwritten by the solution).
+     * @param diagonal Buffer for the Cholesky factor diagonal (of the same
+     *                 size as {@code b}).
+     * @param pivots Buffer for row interchanges (of the same size as
+     *               {@code b}).
+     * @throws IllegalArgumentException If the matrix is singular.
+     */
+    public static void solve(double[][] a, double[] b, double[] diagonal, int[] pivots) {
+        if (isSymmetric(a) && choleskyDecompose(a, diagonal)) {
+            choleskySolve(a, diagonal, b);
+        } else {
+            luDecompose(a, pivots);
+            luSolve(a, pivots, b);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given square matrix is symmetric.
+     *
+     * @param a The given matrix.
+     * @return {@code true} if the matrix is symmetric, or {@code false}
+     *         otherwise.
+     */
+    private static boolean isSymmetric(double[][] a) {
+        for (int i = 0; i < a.length; i ++) {
+            for (int j = 0; j < i; j ++) {
+                if (a[i][j] != a[j][i]) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>Stores the Cholesky factor {@code L} (such that {@code A = L*L^T})
+     * into the strict lower triangle of the given matrix and the given
+     * diagonal buffer, in place.</p>
+     * <p>The diagonal and the upper triangle of the matrix are not modified,
+     * so if the matrix is not positive definite, the lower triangle is restored
+     * from the upper one.</p>
+     *
+     * @param a The given symmetric matrix.
+     * @param diagonal Buffer for the diagonal of the Cholesky factor.
+     * @return {@code true} if the decomposition succeeded, or {@code false}
+     *         if the matrix is not positive definite.
+     */
+    private static boolean choleskyDecompose(double[][] a, double[] diagonal) {
+        int n = a.length;
+        for (int j = 0; j < n; j ++) {
+            double[] rowJ = a[j];
+            double sum = rowJ[j];
+            for (int k = 0; k < j; k ++) {
+                sum -= rowJ[k] * rowJ[k];
+            }
+            if (!(sum > 0.0)) {
+                for (int i = 1; i < n; i ++) {
+                    for (int k = 0; k < i; k ++) {
+                        a[i][k] = a[k][i];
+                    }
+                }
+                return false;
+            }
+            double pivot = Math.sqrt(sum);
+            diagonal[j] = pivot;
+            for (int i = j + 1; i < n; i ++) {
+                double[] rowI = a[i];
+                double s = rowI[j];
+                for (int k = 0; k < j; k ++) {
+                    s -= rowI[k] * rowJ[k];
+                }
+                rowI[j] = s / pivot;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves {@code L*L^T*x = b} in place, using the Cholesky factor stored in
+     * the strict lower triangle of the given matrix and the given diagonal.
+     *
+     * @param l The given matrix containing the Cholesky factor.
+     * @param diagonal The diagonal of the Cholesky factor.
+     * @param b The right side vector (overwritten by the solution).
+     */
+    private static void choleskySolve(double[][] l, double[] diagonal, double[] b) {
+        int n = l.length;
+        for (int i = 0; i < n; i ++) {
+            double[] row = l[i];
+            double sum = b[i];
+            for (int k = 0; k < i; k ++) {
+                sum -= row[k] * b[k];
+            }
+            b[i] = sum / diagonal[i];
+        }
+        for (int i = n - 1; i >= 0; i --) {
+            double sum = b[i];
+            for (int k = i + 1; k < n; k ++) {
+                sum -= l[k][i] * b[k];
+            }
+            b[i] = sum / diagonal[i];
+        }
+    }
+
+    /**
+     * Stores the LU decomposition (with partial pivoting) of the given square
+     * matrix into the matrix itself, in place.
+     *
+     * @param a The given matrix.
+     * @param pivots Buffer for the row interchanges (the row interchanged
+     *               with row {@code k} in step {@code k}).
+     * @throws IllegalArgumentException If the matrix is singular.
+     */
+    private static void luDecompose(double[][] a, int[] pivots) {
+        int n = a.length;
+        for (int k = 0; k < n; k ++) {
+            int pivot = k;
+            for (int i = k + 1; i < n; i ++) {
+                if (Math.abs(a[i][k]) > Math.abs(a[pivot][k])) {
+                    pivot = i;
+                }
+            }
+            if (a[pivot][k] == 0.0) {
+                throw new IllegalArgumentException("Matrix is singular.");
+            }
+            pivots[k] = pivot;
+            if (pivot != k) {
+                double[] row = a[pivot];
+                a[pivot] = a[k];
+                a[k] = row;
+            }
+            double[] rowK = a[k];
+            for (int i = k + 1; i < n; i ++) {
+                double[] rowI = a[i];
+                double factor = rowI[k] /= rowK[k];
+                for (int j = k + 1; j < n; j ++) {
+                    rowI[j] -= factor * rowK[j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves {@code A*x = b} in place, using the LU decomposition stored in the
+     * given matrix.
+     *
+     * @param lu The given matrix containing the LU decomposition.
+     * @param pivots The row interchanges.
+     * @param b The right side vector (overwritten by the solution).
+     */
+    private static void luSolve(double[][] lu, int[] pivots, double[] b) {
+        int n = lu.length;
+        for (int k = 0; k < n; k ++) {
+            double temp = b[k];
+            b[k] = b[pivots[k]];
+            b[pivots[k]] = temp;
+        }
+        for (int i = 0; i < n; i ++) {
+            double[] row = lu[i];
+            double sum = b[i];
+            for (int k = 0; k < i; k ++) {
+                sum -= row[k] * b[k];
+            }
+            b[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i --) {
+            double[] row = lu[i];
+            double sum = b[i];
+            for (int k = i + 1; k < n; k ++) {
+                sum -= row[k] * b[k];
+            }
+            b[i] = sum / row[i];
+        }
+    }
+}
@@ -2,8 +2,13 @@ package hr.fer.zemris.optjava.dz2.util;
 
 import Jama.Matrix;
 import hr.fer.zemris.optjava.dz2.IFunction;
+import hr.fer.zemris.optjava.dz2.listeners.ConsoleListener;
+import hr.fer.zemris.optjava.dz2.listeners.IterationListener;
+import hr.fer.zemris.optjava.dz2.listeners.TrajectoryWriter;
 
+import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Paths;
 
 /**
  * Utility class containing methods used in numeric optimization algorithms and
@@ -44,6 +49,74 @@ public final class NumOptUtil {
         stream.println(builder.toString());
     }
 
+    /**
+     * Prints the given point to the given stream.
+     *
+     * @param point The given point.
+     * @param stream The given stream.
+     */
+    public static void printPoint(double[] point, PrintStream stream) {
+        StringBuilder builder = new StringBuilder();
+        builder.append('(');
+        for (int i = 0; i < point.length; i ++) {
+            if (i != 0) {
+                builder.append(',').append(' ');
+            }
+            builder.append(point[i]);
+        }
+        builder.append(')');
+        stream.println(builder.toString());
+    }
+
+    /**
+     * <p>Returns the {@link IterationListener} described by the given
+     * string, which is one of the following:</p>
+     * <ul>
+     *     <li>{@code none} - iterations are ignored,</li>
+     *     <li>{@code console} - every iteration is printed to the standard
+     *     output,</li>
+     *     <li>{@code csv:<file>[:k]} or {@code bin:<file>[:k]} - every k-th
+     *     iteration (every one by default) is recorded by a
+     *     {@link TrajectoryWriter}.</li>
+     * </ul>
+     *
+     * @param description The given description.
+     * @return The described listener.
+     * @throws IOException If the trajectory file cannot be opened.
+     * @throws IllegalArgumentException If the description is invalid.
+     */
+    public static IterationListener parseListener(String description) throws IOException {
+        if (description.equals("none")) return IterationListener.NONE;
+        if (description.equals("console")) return new ConsoleListener(System.out);
+
+        int colon = description.indexOf(':');
+        String type = colon < 0 ? description : description.substring(0, colon);
+        TrajectoryWriter.Format format;
+        if (type.equals("csv")) {
+            format = TrajectoryWriter.Format.CSV;
+        } else if (type.equals("bin")) {
+            format = TrajectoryWriter.Format.BINARY;
+        } else {
+            throw new IllegalArgumentException("Unknown listener: '" + description + "'.");
+        }
+        String file = description.substring(colon + 1);
+        if (colon < 0 || file.isEmpty()) {
+            throw new IllegalArgumentException("Trajectory file not specified.");
+        }
+
+        int period = 1;
+        int last = file.lastIndexOf(':');
+        if (last >= 0) {
+            try {
+                period = Integer.parseInt(file.substring(last + 1));
+                file = file.substring(0, last);
+            } catch (NumberFormatException ignorable) {
+                // The colon is part of the file path.
+            }
+        }
+        return new TrajectoryWriter(Paths.get(file), format, period);
+    }
+
     /**
      * Calculates the lambda factor using the bisection method and returns its
      * value.
@@ -71,6 +144,39 @@ public final class NumOptUtil {
         return bisection;
     }
 
+    /**
+     * Calculates the lambda factor using the bisection method and returns its
+     * value, without allocating (the given buffers are used instead).
+     *
+     * @param function The given function.
+     * @param x The given point.
+     * @param d The given direction vector.
+     * @param trial Buffer for the points at which the derivative is calculated.
+     * @param gradient Buffer for the gradients at those points.
+     * @return The corresponding lambda factor.
+     */
+    public static double getLambda(IFunction function, double[] x, double[] d,
+                                   double[] trial, double[] gradient) {
+        double lower = 0.0;
+        double upper = 1.0;
+        while (deriveTheta(function, x, upper, d, trial, gradient) <= 0.0) {
+            upper *= 2.0;
+        }
+        double bisection;
+        while (true) {
+            bisection = bisection(lower, upper);
+            double derivative = deriveTheta(function, x, bisection, d, trial, gradient);
+            if (Math.abs(derivative) < EPSILON) {
+                break;
+            } else if (derivative > 0.0) {
+                upper = bisection;
+            } else {
+                lower = bisection;
+            }
+        }
+        return bisection;
+    }
+
     /**
      * <p>Returns the first lambda for which the derivative of the theta function
      * has a positive value.</p>
@@ -117,4 +223,22 @@ public final class NumOptUtil {
         Matrix gradient = function.getGradient(point);
         return gradient.transpose().times(d).get(0, 0);
     }
+
+    /**
+     * Returns the derivative value of the theta function, without allocating.
+     *
+     * @param function The given function.
+     * @param x The given point.
+     * @param lambda The given lambda factor.
+     * @param d The given direction.
+     * @param trial Buffer for the point at which the derivative is calculated.
+     * @param gradient Buffer for the gradient at that point.
+     * @return The calculated derivative.
+     */
+    private static double deriveTheta(IFunction function, double[] x, double lambda,
+                                      double[] d, double[] trial, double[] gradient) {
+        LinearAlgebra.axpy(x, lambda, d, trial);
+        function.getGradient(trial, gradient);
+        return LinearAlgebra.dot(gradient, d);
+    }
 }
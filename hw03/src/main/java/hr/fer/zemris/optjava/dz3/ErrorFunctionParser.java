@@ -1,6 +1,5 @@
 package hr.fer.zemris.optjava.dz3;
 
-import Jama.Matrix;
 import hr.fer.zemris.optjava.dz3.function.ErrorFunction;
 
 import java.io.BufferedReader;
@@ -9,6 +8,7 @@ import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -75,16 +75,14 @@ public class ErrorFunctionParser {
                 values.add(equation);
             }
 
-            Matrix coefficients = new Matrix(values.size(), ErrorFunction.COEFFICIENT_COUNT);
-            Matrix rightSide = new Matrix(values.size(), 1);
+            double[][] coefficients = new double[values.size()][];
+            double[] rightSide = new double[values.size()];
 
             for (int row = 0; row < values.size(); row ++) {
                 double[] rowValues = values.get(row);
                 int last = ErrorFunction.COEFFICIENT_COUNT;
-                for (int col = 0; col < last; col ++) {
-                    coefficients.set(row, col, rowValues[col]);
-                }
-                rightSide.set(row, 0, rowValues[last]);
+                coefficients[row] = Arrays.copyOf(rowValues, last);
+                rightSide[row] = rowValues[last];
             }
 
             return new ErrorFunction(coefficients, rightSide);
@@ -0,0 +1,186 @@
+package hr.fer.zemris.optjava.dz3;
+
+import hr.fer.zemris.optjava.dz3.solution.SingleObjectiveSolution;
+import hr.fer.zemris.optjava.dz3.tempschedule.ITempSchedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * <p>Parallel tempering (replica exchange) variant of the
+ * {@link SimulatedAnnealing} algorithm.</p>
+ * <p>It runs multiple replicas (Markov chains) of the simulated annealing
+ * algorithm in parallel, each at its own fixed temperature taken from the
+ * temperature ladder. After every exchange interval, the replicas wait for
+ * each other and neighboring replicas swap their current solutions with the
+ * Metropolis probability, so that good solutions found at high temperatures
+ * descend to the lowest one.</p>
+ * <p>Every replica uses its own {@link Random} instance (seeded from the
+ * specified master seed), so the result does not depend on thread
+ * scheduling.</p>
+ *
+ * @param <T> The type of the solution.
+ * @author Mate Gašparini
+ */
+public class ParallelTempering<T extends SingleObjectiveSolution>
+        implements IOptAlgorithm<T> {
+
+    /** The replicas, ordered from the hottest to the coldest one. */
+    private List<SimulatedAnnealing<T>> replicas;
+
+    /** Temperature of each replica. */
+    private double[] temperatures;
+
+    /** Number of moves performed by each replica. */
+    private long moves;
+
+    /** Number of moves between two exchange attempts. */
+    private int exchangeInterval;
+
+    /** {@link Random} instance used for exchange decisions. */
+    private Random random;
+
+    /**
+     * <p>Constructor specifying the attributes.</p>
+     * <p>The temperature ladder is sampled evenly from the temperatures of the
+     * given schedule (which is consumed), and each replica performs as many
+     * moves as the schedule defines in total.</p>
+     *
+     * @param replicaFactory Function which creates a replica (with its own
+     *                       starting solution and neighborhood), given the
+     *                       {@link Random} instance it should use.
+     * @param tempSchedule The specified temperature schedule.
+     * @param numberOfReplicas The specified number of replicas.
+     * @param exchangeInterval The specified number of moves between two
+     *                         exchange attempts.
+     * @param seed The specified master seed.
+     * @throws IllegalArgumentException If the number of replicas or the
+     *         exchange interval is not positive.
+     */
+    public ParallelTempering(Function<Random, SimulatedAnnealing<T>> replicaFactory,
+            ITempSchedule tempSchedule, int numberOfReplicas, int exchangeInterval, long seed) {
+        if (numberOfReplicas <= 0) {
+            throw new IllegalArgumentException("Number of replicas must be positive.");
+        }
+        if (exchangeInterval <= 0) {
+            throw new IllegalArgumentException("Exchange interval must be positive.");
+        }
+
+        this.exchangeInterval = exchangeInterval;
+        this.random = new Random(seed);
+        this.moves = (long) tempSchedule.getOuterLoopCounter() * tempSchedule.getInnerLoopCounter();
+        this.temperatures = createLadder(tempSchedule, numberOfReplicas);
+        this.replicas = new ArrayList<>(numberOfReplicas);
+        for (int i = 0; i < numberOfReplicas; i ++) {
+            replicas.add(replicaFactory.apply(new Random(random.nextLong())));
+        }
+    }
+
+    @Override
+    public T run() {
+        int size = replicas.size();
+        List<T> solutions = new ArrayList<>(size);
+        for (SimulatedAnnealing<T> replica : replicas) {
+            solutions.add(replica.start());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Callable<T>> tasks = new ArrayList<>(size);
+            for (long done = 0; done < moves; done += exchangeInterval) {
+                int step = (int) Math.min(exchangeInterval, moves - done);
+                tasks.clear();
+                for (int i = 0; i < size; i ++) {
+                    SimulatedAnnealing<T> replica = replicas.get(i);
+                    T solution = solutions.get(i);
+                    double temperature = temperatures[i];
+                    tasks.add(() -> replica.anneal(solution, temperature, step));
+                }
+
+                List<Future<T>> results = pool.invokeAll(tasks);
+                for (int i = 0; i < size; i ++) {
+                    solutions.set(i, results.get(i).get());
+                }
+                exchange(solutions, (int) (done / exchangeInterval) % 2);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Replica failed.", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        T best = null;
+        for (SimulatedAnnealing<T> replica : replicas) {
+            T candidate = replica.getBest();
+            if (best == null || candidate.compareTo(best) > 0) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the temperature of each replica.
+     *
+     * @return The temperature ladder (from the hottest to the coldest one).
+     */
+    public double[] getTemperatures() {
+        return temperatures.clone();
+    }
+
+    /**
+     * Attempts to swap the solutions of each pair of neighboring replicas,
+     * starting with the pair at the given offset (even and odd pairs are
+     * alternated between rounds, so that all attempts are independent).
+     *
+     * @param solutions The current solution of each replica.
+     * @param offset The given offset (0 or 1).
+     */
+    private void exchange(List<T> solutions, int offset) {
+        for (int i = offset; i + 1 < solutions.size(); i += 2) {
+            T hot = solutions.get(i);
+            T cold = solutions.get(i + 1);
+            double exponent = (cold.value - hot.value)
+                    * (1.0 / temperatures[i + 1] - 1.0 / temperatures[i]);
+            if (exponent >= 0.0 || random.nextDouble() < Math.exp(exponent)) {
+                solutions.set(i, cold);
+                solutions.set(i + 1, hot);
+            }
+        }
+    }
+
+    /**
+     * Returns the given number of temperatures, sampled evenly from all
+     * temperatures of the given schedule.
+     *
+     * @param tempSchedule The given temperature schedule.
+     * @param count The given number of temperatures.
+     * @return The sampled temperatures.
+     */
+    private static double[] createLadder(ITempSchedule tempSchedule, int count) {
+        int outer = Math.max(tempSchedule.getOuterLoopCounter(), 1);
+        double[] all = new double[outer];
+        for (int i = 0; i < outer; i ++) {
+            all[i] = tempSchedule.getNextTemperature();
+        }
+
+        double[] ladder = new double[count];
+        for (int i = 0; i < count; i ++) {
+            ladder[i] = count == 1 ? all[outer - 1] : all[(int) ((long) i * (outer - 1) / (count - 1))];
+        }
+        return ladder;
+    }
+}
@@ -8,6 +8,7 @@ import hr.fer.zemris.optjava.dz3.neighborhood.BitVectorNeighborhood;
 import hr.fer.zemris.optjava.dz3.neighborhood.DoubleArrayNormNeighborhood;
 import hr.fer.zemris.optjava.dz3.solution.BitVectorSolution;
 import hr.fer.zemris.optjava.dz3.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz3.solution.SingleObjectiveSolution;
 import hr.fer.zemris.optjava.dz3.tempschedule.GeometricTempSchedule;
 
 import java.io.IOException;
@@ -15,15 +16,19 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Random;
+import java.util.function.Function;
 
 /**
- * <p>Command line program which expects two arguments and tries to solve the
- * specified problem (system of equations) by using some {@link IOptAlgorithm}
- * (specifically, the {@link SimulatedAnnealing} algorithm).</p>
+ * <p>Command line program which expects two or three arguments and tries to
+ * solve the specified problem (system of equations) by using some
+ * {@link IOptAlgorithm} (specifically, the {@link SimulatedAnnealing}
+ * algorithm).</p>
  * <p>The first argument is the path to the file containing the definition of
  * the problem.</p>
  * <p>The second argument specifies the representation of the solution inside
  * the algorithm (decimal or binary).</p>
+ * <p>The optional third argument specifies the number of replicas, in which
+ * case the {@link ParallelTempering} variant is used instead.</p>
  *
  * @author Mate Gašparini
  */
@@ -41,14 +46,18 @@ public class RegresijaSustava {
     /** Maximum bits per variable. */
     private static final int MAX_BINARY = 30;
 
+    /** Number of moves between two replica exchange attempts. */
+    private static final int EXCHANGE_INTERVAL = 100;
+
     /**
      * Main method which is called when the program starts.
      *
-     * @param args Command line arguments (file path and algorithm options).
+     * @param args Command line arguments (file path, algorithm options and the
+     *        optional number of replicas).
      */
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.err.println("Expected 2 arguments.");
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Expected 2 or 3 arguments.");
             return;
         }
 
@@ -58,9 +67,24 @@ public class RegresijaSustava {
             return;
         }
 
+        int replicas = 0;
+        if (args.length == 3) {
+            try {
+                replicas = Integer.parseInt(args[2]);
+            } catch (NumberFormatException ex) {
+                System.err.println("Number of replicas '" + args[2]
+                        + "' not parsable as an integer.");
+                return;
+            }
+            if (replicas <= 0) {
+                System.err.println("Number of replicas must be positive.");
+                return;
+            }
+        }
+
         String method = args[1];
         if (method.equals(DECIMAL)) {
-            DoubleArraySolution solution = doubleArraySolve(filePath);
+            DoubleArraySolution solution = doubleArraySolve(filePath, replicas);
             if (solution == null) {
                 System.out.println("Solution not found.");
                 return;
@@ -83,7 +107,7 @@ public class RegresijaSustava {
                 return;
             }
 
-            BitVectorSolution solution = bitVectorSolve(filePath, bitsPerVariable);
+            BitVectorSolution solution = bitVectorSolve(filePath, bitsPerVariable, replicas);
             if (solution == null) {
                 System.out.println("Solution not found.");
                 return;
@@ -103,29 +127,34 @@ public class RegresijaSustava {
      * representation.
      *
      * @param filePath The path to the problem definition.
+     * @param replicas The number of parallel tempering replicas (or 0 for the
+     *                 plain simulated annealing).
      * @return The last calculated solution.
      */
-    private static DoubleArraySolution doubleArraySolve(Path filePath) {
+    private static DoubleArraySolution doubleArraySolve(Path filePath, int replicas) {
         ErrorFunction function = parseErrorFunction(filePath);
         if (function == null) return null;
 
-        DoubleArraySolution start = new DoubleArraySolution(6);
-        start.randomize(new Random(),
-                new double[] {-5, -5, -5, -5, -5, -5},
-                new double[] {5, 5, 5, 5, 5, 5}
-        );
-
-        IOptAlgorithm<DoubleArraySolution> algorithm = new SimulatedAnnealing<>(
-                new PassThroughDecoder(),
-                new DoubleArrayNormNeighborhood(
-                        new double[] {0.2, 0.2, 0.2, 0.2, 0.2, 0.2}
-                ),
-                start,
-                function,
-                new GeometricTempSchedule(4_000, 0, 1_000, 2_000),
-                true
-        );
-        return algorithm.run();
+        Function<Random, SimulatedAnnealing<DoubleArraySolution>> factory = random -> {
+            DoubleArraySolution start = new DoubleArraySolution(6);
+            start.randomize(random,
+                    new double[] {-5, -5, -5, -5, -5, -5},
+                    new double[] {5, 5, 5, 5, 5, 5}
+            );
+
+            return new SimulatedAnnealing<>(
+                    new PassThroughDecoder(),
+                    new DoubleArrayNormNeighborhood(
+                            new double[] {0.2, 0.2, 0.2, 0.2, 0.2, 0.2}, random
+                    ),
+                    start,
+                    function,
+                    new GeometricTempSchedule(4_000, 0, 1_000, 2_000),
+                    true,
+                    random
+            );
+        };
+        return createAlgorithm(factory, replicas).run();
     }
 
     /**
@@ -135,24 +164,55 @@ public class RegresijaSustava {
      * @param filePath The path to the problem definition.
      * @param bitsPerVariable The specified number of bits used to represent
      *                        each variable.
+     * @param replicas The number of parallel tempering replicas (or 0 for the
+     *                 plain simulated annealing).
      * @return The last calculated solution.
      */
-    private static BitVectorSolution bitVectorSolve(Path filePath, int bitsPerVariable) {
+    private static BitVectorSolution bitVectorSolve(Path filePath, int bitsPerVariable,
+                                                    int replicas) {
         ErrorFunction function = parseErrorFunction(filePath);
         if (function == null) return null;
 
-        BitVectorSolution start = new BitVectorSolution(6*bitsPerVariable);
-        start.randomize(new Random());
+        Function<Random, SimulatedAnnealing<BitVectorSolution>> factory = random -> {
+            BitVectorSolution start = new BitVectorSolution(6*bitsPerVariable);
+            start.randomize(random);
+
+            return new SimulatedAnnealing<>(
+                    new GrayBinaryDecoder(-5, 10, bitsPerVariable, 6),
+                    new BitVectorNeighborhood(random),
+                    start,
+                    function,
+                    new GeometricTempSchedule(4_000, 0, 1_000, 2_000),
+                    true,
+                    random
+            );
+        };
+        return createAlgorithm(factory, replicas).run();
+    }
 
-        IOptAlgorithm<BitVectorSolution> algorithm = new SimulatedAnnealing<>(
-                new GrayBinaryDecoder(-5, 10, bitsPerVariable, 6),
-                new BitVectorNeighborhood(),
-                start,
-                function,
+    /**
+     * Returns the plain {@link SimulatedAnnealing} algorithm, or its
+     * {@link ParallelTempering} variant if the given number of replicas is
+     * positive.
+     *
+     * @param factory Function which creates a simulated annealing algorithm
+     *                which uses the given {@link Random} instance.
+     * @param replicas The given number of replicas.
+     * @param <T> The type of the solution.
+     * @return The created algorithm.
+     */
+    private static <T extends SingleObjectiveSolution> IOptAlgorithm<T> createAlgorithm(
+            Function<Random, SimulatedAnnealing<T>> factory, int replicas) {
+        if (replicas == 0) {
+            return factory.apply(new Random());
+        }
+        return new ParallelTempering<>(
+                factory,
                 new GeometricTempSchedule(4_000, 0, 1_000, 2_000),
-                true
+                replicas,
+                EXCHANGE_INTERVAL,
+                new Random().nextLong()
         );
-        return algorithm.run();
     }
 
     /**
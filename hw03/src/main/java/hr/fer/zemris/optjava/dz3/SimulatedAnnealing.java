@@ -9,9 +9,12 @@ import hr.fer.zemris.optjava.dz3.tempschedule.ITempSchedule;
 import java.util.Random;
 
 /**
- * When running, has a chance (depending on the current temperature) to accept
+ * <p>When running, has a chance (depending on the current temperature) to accept
  * worse neighbors than the current solutions. Performs better than the greedy
- * algorithm, but requires careful parameter tweaking.
+ * algorithm, but requires careful parameter tweaking.</p>
+ * <p>A single instance can also be used as one replica (Markov chain) of the
+ * {@link ParallelTempering} algorithm, which anneals it at a fixed
+ * temperature.</p>
  *
  * @param <T> The type of the solution.
  * @author Mate Gašparini
@@ -38,7 +41,19 @@ public class SimulatedAnnealing<T extends SingleObjectiveSolution>
     private boolean minimize;
 
     /** The internal {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
+
+    /** The best solution visited so far. */
+    private T best;
+
+    /** The solution whose decoded values are stored in {@code currentValues}. */
+    private T current;
+
+    /** Decoded values of the current solution. */
+    private double[] currentValues;
+
+    /** Buffer for decoded values of a neighbor. */
+    private double[] neighborValues;
 
     /**
      * Constructor specifying the attributes.
@@ -53,6 +68,26 @@ public class SimulatedAnnealing<T extends SingleObjectiveSolution>
      */
     public SimulatedAnnealing(IDecoder<T> decoder, INeighborhood<T> neighborhood,
             T startWith, IFunction function, ITempSchedule tempSchedule, boolean minimize) {
+        this(decoder, neighborhood, startWith, function, tempSchedule, minimize, new Random());
+    }
+
+    /**
+     * Constructor specifying the attributes and the {@link Random} instance
+     * used for accepting worse neighbors.
+     *
+     * @param decoder The specified solution decoder.
+     * @param neighborhood The specified solution neighbor generator.
+     * @param startWith The specified starting solution.
+     * @param function The problem function.
+     * @param tempSchedule The specified temperature schedule.
+     * @param minimize The specified proportionality between solution value and
+     *                 fitness.
+     * @param random The specified {@link Random} instance.
+     */
+    public SimulatedAnnealing(IDecoder<T> decoder, INeighborhood<T> neighborhood,
+            T startWith, IFunction function, ITempSchedule tempSchedule, boolean minimize,
+            Random random) {
+        this.random = random;
         this.decoder = decoder;
         this.neighborhood = neighborhood;
         this.startWith = startWith;
@@ -63,46 +98,87 @@ public class SimulatedAnnealing<T extends SingleObjectiveSolution>
 
     @Override
     public T run() {
-        T solution = startWith;
-        solution.value = value(solution);
-        solution.fitness = fitness(solution);
-
+        T solution = start();
         for (int i = 0; i < tempSchedule.getOuterLoopCounter(); i ++) {
             double temperature = tempSchedule.getNextTemperature();
-            for (int j = 0; j < tempSchedule.getInnerLoopCounter(); j ++) {
-                T neighbor = neighborhood.randomNeighbor(solution);
-                neighbor.value = value(neighbor);
-                neighbor.fitness = fitness(neighbor);
-
-                double deltaValue = neighbor.value - solution.value;
-                if (deltaValue <= 0.0
-                        || random.nextDouble() < Math.exp(-deltaValue/temperature)) {
-                    solution = neighbor;
-                    System.out.println("Current solution value: " + solution.value);
+            solution = anneal(solution, temperature, tempSchedule.getInnerLoopCounter());
+            System.out.println("Current solution value: " + solution.value);
+        }
+
+        return solution;
+    }
+
+    /**
+     * Evaluates the starting solution and returns it.
+     *
+     * @return The evaluated starting solution.
+     */
+    T start() {
+        currentValues = decoder.decode(startWith);
+        neighborValues = new double[currentValues.length];
+        current = startWith;
+        startWith.value = function.valueAt(currentValues);
+        startWith.fitness = fitness(startWith);
+        best = startWith;
+        return startWith;
+    }
+
+    /**
+     * Performs the given number of moves (Metropolis steps) from the given
+     * solution at the given (fixed) temperature, and returns the current
+     * solution after the last move.
+     *
+     * @param solution The given (evaluated) solution.
+     * @param temperature The given temperature.
+     * @param moves The given number of moves.
+     * @return The resulting current solution.
+     */
+    T anneal(T solution, double temperature, int moves) {
+        if (solution != current) {
+            // The solution was exchanged with another replica.
+            decoder.decode(solution, currentValues);
+            current = solution;
+        }
+
+        for (int j = 0; j < moves; j ++) {
+            T neighbor = neighborhood.randomNeighbor(solution);
+            System.arraycopy(currentValues, 0, neighborValues, 0, currentValues.length);
+            decoder.decodeNeighbor(neighbor, neighborValues);
+            neighbor.value = function.valueAt(neighborValues);
+            neighbor.fitness = fitness(neighbor);
+
+            double deltaValue = neighbor.value - solution.value;
+            if (deltaValue <= 0.0
+                    || random.nextDouble() < Math.exp(-deltaValue/temperature)) {
+                solution = neighbor;
+                current = neighbor;
+                double[] values = currentValues;
+                currentValues = neighborValues;
+                neighborValues = values;
+                if (solution.compareTo(best) > 0) {
+                    best = solution;
                 }
             }
         }
-
         return solution;
     }
 
     /**
-     * Calculates the given solution's fitness.
+     * Returns the best solution visited since the last {@link #start()}.
      *
-     * @param solution The given solution.
-     * @return The calculated fitness.
+     * @return The best visited solution.
      */
-    private double fitness(T solution) {
-        return minimize ? 1.0/solution.value : solution.value;
+    T getBest() {
+        return best;
     }
 
     /**
-     * Calculates the given solution's value.
+     * Calculates the given solution's fitness.
      *
      * @param solution The given solution.
-     * @return The calculated function value.
+     * @return The calculated fitness.
      */
-    private double value(T solution) {
-        return function.valueAt(decoder.decode(solution));
+    private double fitness(T solution) {
+        return minimize ? 1.0/solution.value : solution.value;
     }
 }
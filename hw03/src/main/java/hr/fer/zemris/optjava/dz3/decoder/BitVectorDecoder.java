@@ -2,8 +2,16 @@ package hr.fer.zemris.optjava.dz3.decoder;
 
 import hr.fer.zemris.optjava.dz3.solution.BitVectorSolution;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
 /**
- * {@link IDecoder} which decodes a {@link BitVectorSolution}.
+ * <p>{@link IDecoder} which decodes a {@link BitVectorSolution}.</p>
+ * <p>The bit field of each variable is read from a single 64-bit word of the
+ * {@code byte} array (with shifts and masks), and the start offset, the scale
+ * and the owning variable of each bit are stored in tables calculated once.
+ * Subclasses only define how a bit field is converted to an integer.</p>
  *
  * @author Mate Gašparini
  */
@@ -24,6 +32,19 @@ public abstract class BitVectorDecoder implements IDecoder<BitVectorSolution> {
     /** Number of bits used to represent the solution. */
     protected int totalBits;
 
+    /** View of a {@code byte} array as little-endian {@code long} values. */
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** Index of the first bit of each variable. */
+    private int[] starts;
+
+    /** Value of a single integer step of each variable. */
+    private double[] scales;
+
+    /** Index of the variable which owns each bit. */
+    private int[] owners;
+
     /**
      * Constructor specifying the attributes.
      *
@@ -41,6 +62,7 @@ public abstract class BitVectorDecoder implements IDecoder<BitVectorSolution> {
         fillWithValue(this.bits, bits);
         this.n = n;
         this.totalBits = n*bits;
+        createTables();
     }
 
     /**
@@ -57,6 +79,7 @@ public abstract class BitVectorDecoder implements IDecoder<BitVectorSolution> {
         this.bits = bits;
         this.n = bits.length;
         this.totalBits = totalBits;
+        createTables();
     }
 
     /**
@@ -78,10 +101,99 @@ public abstract class BitVectorDecoder implements IDecoder<BitVectorSolution> {
     }
 
     @Override
-    public abstract double[] decode(BitVectorSolution solution);
+    public double[] decode(BitVectorSolution solution) {
+        double[] values = new double[n];
+        decode(solution, values);
+        return values;
+    }
 
     @Override
-    public abstract void decode(BitVectorSolution solution, double[] values);
+    public void decode(BitVectorSolution solution, double[] values) {
+        for (int i = 0; i < n; i ++) {
+            values[i] = decodeVariable(solution.bits, i);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Only the variable owning the bit flipped by the
+     * {@link hr.fer.zemris.optjava.dz3.neighborhood.BitVectorNeighborhood}
+     * is decoded (if that bit is known).</p>
+     */
+    @Override
+    public void decodeNeighbor(BitVectorSolution neighbor, double[] values) {
+        int bit = neighbor.flippedBit;
+        if (bit < 0) {
+            decode(neighbor, values);
+        } else if (bit < owners.length) {
+            int variable = owners[bit];
+            values[variable] = decodeVariable(neighbor.bits, variable);
+        }
+    }
+
+    /**
+     * Returns the decoded value of the given variable.
+     *
+     * @param bytes The bits of the solution.
+     * @param variable The given variable index.
+     * @return The decoded value.
+     */
+    protected double decodeVariable(byte[] bytes, int variable) {
+        long k = convert(readField(bytes, starts[variable], bits[variable]));
+        return mins[variable] + k * scales[variable];
+    }
+
+    /**
+     * Converts the given bit field (read with its first bit as the most
+     * significant one) to the integer it represents.
+     *
+     * @param field The given bit field.
+     * @return The represented integer.
+     */
+    protected abstract long convert(long field);
+
+    /**
+     * Returns the bit field of the given length starting at the given bit,
+     * with the first bit as the most significant one.
+     *
+     * @param bytes The bits of the solution (the bit {@code i} is stored in
+     *              the byte {@code i/8} at the position {@code i%8}).
+     * @param start The index of the first bit.
+     * @param length The given length (at most 57).
+     * @return The read bit field.
+     */
+    private static long readField(byte[] bytes, int start, int length) {
+        int index = start >>> 3;
+        long word;
+        if (index + Long.BYTES <= bytes.length) {
+            word = (long) LONG_VIEW.get(bytes, index);
+        } else {
+            word = 0;
+            for (int i = index; i < bytes.length; i ++) {
+                word |= (bytes[i] & 0xFFL) << ((i - index) << 3);
+            }
+        }
+        long field = word >>> (start & 7) & ((1L << length) - 1);
+        return Long.reverse(field) >>> (Long.SIZE - length);
+    }
+
+    /**
+     * Calculates the start, scale and owner tables.
+     */
+    private void createTables() {
+        starts = new int[n];
+        scales = new double[n];
+        owners = new int[totalBits];
+        int start = 0;
+        for (int i = 0; i < n; i ++) {
+            starts[i] = start;
+            scales[i] = (maxs[i] - mins[i]) / (1 << bits[i] - 1);
+            for (int j = start; j < Math.min(start + bits[i], totalBits); j ++) {
+                owners[j] = i;
+            }
+            start += bits[i];
+        }
+    }
 
     /**
      * Helper method used to initialize the given array with the given value.
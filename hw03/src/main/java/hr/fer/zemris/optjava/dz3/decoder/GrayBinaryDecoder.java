@@ -34,47 +34,21 @@ public class GrayBinaryDecoder extends BitVectorDecoder {
         super(mins, maxs, bits, totalBits);
     }
 
-    @Override
-    public double[] decode(BitVectorSolution solution) {
-        double[] values = new double[n];
-        decode(solution, values);
-        return values;
-    }
-
-    @Override
-    public void decode(BitVectorSolution solution, double[] values) {
-        int readPart = 0;
-        int currentVariable = 0;
-        int k = 0;
-        for (int i = 0; i < totalBits; i ++) {
-            k <<= 1;
-            int byteIndex = i / 8;
-            int bitIndex = i % 8;
-            k += (solution.bits[byteIndex] >> bitIndex) & 0x01;
-            readPart ++;
-            if (readPart == bits[currentVariable]) {
-                k = grayToBinary(k);
-                values[currentVariable] = mins[currentVariable]
-                        + (double) k / (1 << bits[currentVariable] - 1)
-                        * (maxs[currentVariable] - mins[currentVariable]);
-                readPart = 0;
-                k = 0;
-                currentVariable ++;
-            }
-        }
-    }
-
     /**
-     * Converts the given Gray-coded number to the actual value.
+     * Converts the given Gray-coded number to the actual value, by XOR-ing
+     * it with all of its right shifts (in logarithmic number of steps).
      *
-     * @param number The given number.
+     * @param field The given number.
      * @return The converted (binary) value.
      */
-    private int grayToBinary(int number) {
-        int mask;
-        for (mask = number >> 1; mask != 0; mask = mask >> 1) {
-            number ^= mask;
-        }
-        return number;
+    @Override
+    protected long convert(long field) {
+        field ^= field >>> 1;
+        field ^= field >>> 2;
+        field ^= field >>> 4;
+        field ^= field >>> 8;
+        field ^= field >>> 16;
+        field ^= field >>> 32;
+        return field;
     }
 }
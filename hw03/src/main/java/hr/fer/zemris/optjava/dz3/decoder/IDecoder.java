@@ -27,4 +27,17 @@ public interface IDecoder<T extends SingleObjectiveSolution> {
      * @param values The given array.
      */
     void decode(T solution, double[] values);
+
+    /**
+     * Fills the given {@code double} array with decoded values of the given
+     * neighbor, assuming that the array already contains the decoded values of
+     * the solution the neighbor was generated from (so that only the changed
+     * values need to be decoded). By default, the whole neighbor is decoded.
+     *
+     * @param neighbor The given neighbor.
+     * @param values The given array.
+     */
+    default void decodeNeighbor(T neighbor, double[] values) {
+        decode(neighbor, values);
+    }
 }
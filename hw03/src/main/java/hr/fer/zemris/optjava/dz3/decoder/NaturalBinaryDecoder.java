@@ -35,31 +35,7 @@ public class NaturalBinaryDecoder extends BitVectorDecoder {
     }
 
     @Override
-    public double[] decode(BitVectorSolution solution) {
-        double[] values = new double[n];
-        decode(solution, values);
-        return values;
-    }
-
-    @Override
-    public void decode(BitVectorSolution solution, double[] values) {
-        int readPart = 0;
-        int currentVariable = 0;
-        int k = 0;
-        for (int i = 0; i < totalBits; i ++) {
-            k <<= 1;
-            int byteIndex = i / 8;
-            int bitIndex = i % 8;
-            k += (solution.bits[byteIndex] >> bitIndex) & 0x01;
-            readPart ++;
-            if (readPart == bits[currentVariable]) {
-                values[currentVariable] = mins[currentVariable]
-                        + (double) k / (1 << bits[currentVariable] - 1)
-                        * (maxs[currentVariable] - mins[currentVariable]);
-                readPart = 0;
-                k = 0;
-                currentVariable ++;
-            }
-        }
+    protected long convert(long field) {
+        return field;
     }
 }
@@ -2,10 +2,19 @@ package hr.fer.zemris.optjava.dz3.function;
 
 import Jama.Matrix;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 /**
  * <p>Error function for some equation system whose left side can be represented
  * as:</p>
  * {@code a*x1 + b*x1^3*x2 + c*e^(d*x3)*(1 + cos(e*x4)) + f*x4*x5^2}.
+ * <p>The terms which depend only on the data ({@code x1^3*x2} and
+ * {@code x4*x5^2}) are calculated once, and all values are stored in flat
+ * column arrays, so evaluating a point does not allocate. Large systems are
+ * evaluated in parallel, by splitting the rows between the
+ * {@link ForkJoinPool#commonPool()} threads.</p>
  * @author Mate Gašparini
  */
 public class ErrorFunction implements IFunction {
@@ -16,11 +25,32 @@ public class ErrorFunction implements IFunction {
     /** Number of coefficients (x1-x5). */
     public static final int COEFFICIENT_COUNT = 5;
 
-    /** Specified system coefficients matrix. */
-    private Matrix coefficients;
+    /** Minimum number of rows for which evaluation is split between threads. */
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /** Number of rows evaluated for all points of a batch at once. */
+    private static final int BATCH_BLOCK = 1 << 10;
+
+    /** Number of rows. */
+    private int rows;
+
+    /** Values of {@code x1}. */
+    private double[] x1;
+
+    /** Values of {@code x1^3*x2}. */
+    private double[] x1CubedX2;
+
+    /** Values of {@code x3}. */
+    private double[] x3;
+
+    /** Values of {@code x4}. */
+    private double[] x4;
 
-    /** Specified system right side vector. */
-    private Matrix rightSide;
+    /** Values of {@code x4*x5^2}. */
+    private double[] x4X5Squared;
+
+    /** Right side values. */
+    private double[] y;
 
     /**
      * Constructor specifying the coefficients and the right side.
@@ -30,51 +60,168 @@ public class ErrorFunction implements IFunction {
      * @throws IllegalArgumentException If the dimensions are invalid.
      */
     public ErrorFunction(Matrix coefficients, Matrix rightSide) {
-        if (coefficients.getColumnDimension() != COEFFICIENT_COUNT) {
-            throw new IllegalArgumentException("Coefficient size must be "
-                    + COEFFICIENT_COUNT + ".");
-        }
+        this(coefficients.getArray(), rightSide.getColumnPackedCopy());
+    }
 
-        if (coefficients.getRowDimension() != rightSide.getRowDimension()) {
+    /**
+     * Constructor specifying the coefficients (one row per equation) and the
+     * right side values.
+     *
+     * @param coefficients The specified system coefficients.
+     * @param rightSide The specified system right side values.
+     * @throws IllegalArgumentException If the dimensions are invalid.
+     */
+    public ErrorFunction(double[][] coefficients, double[] rightSide) {
+        if (coefficients.length != rightSide.length) {
             throw new IllegalArgumentException("Number of lines must be consistent.");
         }
 
-        this.coefficients = coefficients;
-        this.rightSide = rightSide;
+        rows = rightSide.length;
+        x1 = new double[rows];
+        x1CubedX2 = new double[rows];
+        x3 = new double[rows];
+        x4 = new double[rows];
+        x4X5Squared = new double[rows];
+        y = rightSide.clone();
+        for (int row = 0; row < rows; row ++) {
+            double[] x = coefficients[row];
+            if (x.length != COEFFICIENT_COUNT) {
+                throw new IllegalArgumentException("Coefficient size must be "
+                        + COEFFICIENT_COUNT + ".");
+            }
+            x1[row] = x[0];
+            x1CubedX2[row] = x[0] * x[0] * x[0] * x[1];
+            x3[row] = x[2];
+            x4[row] = x[3];
+            x4X5Squared[row] = x[3] * x[4] * x[4];
+        }
     }
 
     @Override
     public double valueAt(double[] point) {
-        if (point.length != VARIABLE_COUNT) {
-            throw new IllegalArgumentException("Point size must be " + VARIABLE_COUNT + ".");
+        checkPoint(point);
+        if (rows < PARALLEL_THRESHOLD) {
+            return valueAt(point, 0, rows);
         }
+        return ForkJoinPool.commonPool().invoke(new EvaluationTask(point, 0, rows));
+    }
+
+    /**
+     * Returns the sum of squared errors of the rows in the given range, at the
+     * given point.
+     *
+     * @param point The given point.
+     * @param from The first row (inclusive).
+     * @param to The last row (exclusive).
+     * @return The calculated partial value.
+     * @throws IllegalArgumentException If the point size is invalid.
+     */
+    public double valueAt(double[] point, int from, int to) {
+        checkPoint(point);
+        double a = point[0];
+        double b = point[1];
+        double c = point[2];
+        double d = point[3];
+        double e = point[4];
+        double f = point[5];
 
         double value = 0.0;
-        for (int row = 0; row < rightSide.getRowDimension(); row ++) {
-            double calculated = calculateValue(point, row);
-            double error = rightSide.get(row, 0) - calculated;
+        for (int row = from; row < to; row ++) {
+            double calculated = a * x1[row]
+                    + b * x1CubedX2[row]
+                    + c * Math.exp(d * x3[row]) * (1 + Math.cos(e * x4[row]))
+                    + f * x4X5Squared[row];
+            double error = y[row] - calculated;
             value += error*error;
         }
         return value;
     }
 
     /**
-     * Calculates the value of the left side of the equation at the given row
-     * using the given point.
+     * Stores the value at each of the given points into the given array, by
+     * visiting the data in a single pass (block by block, with every point
+     * evaluated on each block while it is in cache).
+     *
+     * @param points The given points.
+     * @param values The array for the calculated values.
+     * @throws IllegalArgumentException If any point size is invalid.
+     */
+    @Override
+    public void valuesAt(double[][] points, double[] values) {
+        for (double[] point : points) {
+            checkPoint(point);
+        }
+        Arrays.fill(values, 0, points.length, 0.0);
+        for (int from = 0; from < rows; from += BATCH_BLOCK) {
+            int to = Math.min(from + BATCH_BLOCK, rows);
+            for (int i = 0; i < points.length; i ++) {
+                values[i] += valueAt(points[i], from, to);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows (equations).
+     *
+     * @return The number of rows.
+     */
+    public int getNumberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Checks the size of the given point.
      *
      * @param point The given point.
-     * @param row The given row.
-     * @return The calculated value.
+     * @throws IllegalArgumentException If the point size is invalid.
+     */
+    private static void checkPoint(double[] point) {
+        if (point.length != VARIABLE_COUNT) {
+            throw new IllegalArgumentException("Point size must be " + VARIABLE_COUNT + ".");
+        }
+    }
+
+    /**
+     * Task which calculates the partial value of a range of rows, splitting it
+     * into halves while it is too large.
      */
-    private double calculateValue(double[] point, int row) {
-        double[] x = new double[COEFFICIENT_COUNT];
-        for (int i = 0; i < COEFFICIENT_COUNT; i ++) {
-            x[i] = coefficients.get(row, i);
+    private class EvaluationTask extends RecursiveTask<Double> {
+
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The evaluated point. */
+        private double[] point;
+
+        /** The first row (inclusive). */
+        private int from;
+
+        /** The last row (exclusive). */
+        private int to;
+
+        /**
+         * Constructor specifying the point and the range of rows.
+         *
+         * @param point The evaluated point.
+         * @param from The first row (inclusive).
+         * @param to The last row (exclusive).
+         */
+        EvaluationTask(double[] point, int from, int to) {
+            this.point = point;
+            this.from = from;
+            this.to = to;
         }
 
-        return point[0] * x[0]
-                + point[1] * Math.pow(x[0], 3) * x[1]
-                + point[2] * Math.exp(point[3] * x[2]) * (1 + Math.cos(point[4] * x[3]))
-                + point[5] * x[3] * x[4] * x[4];
+        @Override
+        protected Double compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                return valueAt(point, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            EvaluationTask left = new EvaluationTask(point, from, middle);
+            left.fork();
+            double right = new EvaluationTask(point, middle, to).compute();
+            return left.join() + right;
+        }
     }
 }
@@ -15,4 +15,17 @@ public interface IFunction {
      * @return The value at the given point.
      */
     double valueAt(double[] point);
+
+    /**
+     * Stores the value at each of the given points into the given array.
+     *
+     * @param points The given points.
+     * @param values The array for the calculated values (at least as long as
+     *               the array of points).
+     */
+    default void valuesAt(double[][] points, double[] values) {
+        for (int i = 0; i < points.length; i ++) {
+            values[i] = valueAt(points[i]);
+        }
+    }
 }
@@ -13,15 +13,32 @@ import java.util.Random;
 public class BitVectorNeighborhood implements INeighborhood<BitVectorSolution> {
 
     /** Internal {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
+
+    /**
+     * Default constructor.
+     */
+    public BitVectorNeighborhood() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     */
+    public BitVectorNeighborhood(Random random) {
+        this.random = random;
+    }
 
     @Override
     public BitVectorSolution randomNeighbor(BitVectorSolution point) {
         BitVectorSolution neighbor = point.duplicate();
         byte[] bits = neighbor.bits;
         int octet = random.nextInt(bits.length);
-        byte mask = (byte) (1 << random.nextInt(8));
-        bits[octet] ^= mask;
+        int bit = random.nextInt(8);
+        bits[octet] ^= (byte) (1 << bit);
+        neighbor.flippedBit = octet * 8 + bit;
         return neighbor;
     }
 }
@@ -16,7 +16,7 @@ public class DoubleArrayNormNeighborhood implements INeighborhood<DoubleArraySol
     private double[] deltas;
 
     /** Internal {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
 
     /**
      * Constructor specifying the standard deviations for random changes.
@@ -24,7 +24,19 @@ public class DoubleArrayNormNeighborhood implements INeighborhood<DoubleArraySol
      * @param deltas The specified array of standard deviations for random changes.
      */
     public DoubleArrayNormNeighborhood(double[] deltas) {
+        this(deltas, new Random());
+    }
+
+    /**
+     * Constructor specifying the standard deviations for random changes and the {@link Random}
+     * instance.
+     *
+     * @param deltas The specified array of standard deviations for random changes.
+     * @param random The specified {@link Random} instance.
+     */
+    public DoubleArrayNormNeighborhood(double[] deltas, Random random) {
         this.deltas = deltas;
+        this.random = random;
     }
 
     @Override
@@ -16,7 +16,7 @@ public class DoubleArrayUnifNeighborhood implements INeighborhood<DoubleArraySol
     private double[] deltas;
 
     /** Internal {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
 
     /**
      * Constructor specifying the maximum random changes.
@@ -24,7 +24,19 @@ public class DoubleArrayUnifNeighborhood implements INeighborhood<DoubleArraySol
      * @param deltas The specified array of maximum random changes.
      */
     public DoubleArrayUnifNeighborhood(double[] deltas) {
+        this(deltas, new Random());
+    }
+
+    /**
+     * Constructor specifying the maximum random changes and the {@link Random}
+     * instance.
+     *
+     * @param deltas The specified array of maximum random changes.
+     * @param random The specified {@link Random} instance.
+     */
+    public DoubleArrayUnifNeighborhood(double[] deltas, Random random) {
         this.deltas = deltas;
+        this.random = random;
     }
 
     @Override
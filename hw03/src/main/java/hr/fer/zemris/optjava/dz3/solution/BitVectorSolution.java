@@ -14,6 +14,12 @@ public class BitVectorSolution extends SingleObjectiveSolution {
     /** Array of solution values. */
     public byte[] bits;
 
+    /**
+     * Index of the single bit in which this solution differs from the one it
+     * was generated from, or -1 if unknown.
+     */
+    public int flippedBit = -1;
+
     /**
      * Constructor specifying the size of the solution.
      *
@@ -1,14 +1,22 @@
 package hr.fer.zemris.optjava.dz4.part1;
 
+import hr.fer.zemris.optjava.dz4.part1.evaluator.ExecutorEvaluator;
+import hr.fer.zemris.optjava.dz4.part1.evaluator.ForkJoinEvaluator;
+import hr.fer.zemris.optjava.dz4.part1.evaluator.IPopulationEvaluator;
+import hr.fer.zemris.optjava.dz4.part1.evaluator.SerialEvaluator;
 import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
 import hr.fer.zemris.optjava.dz4.part1.parser.ErrorFunctionParser;
-import hr.fer.zemris.optjava.dz4.part1.selection.ISelection;
+import hr.fer.zemris.optjava.dz4.part1.selection.AliasSelection;
+import hr.fer.zemris.optjava.dz4.part1.selection.IRowSelection;
 import hr.fer.zemris.optjava.dz4.part1.selection.NTournamentSelection;
 import hr.fer.zemris.optjava.dz4.part1.selection.RouletteWheelSelection;
+import hr.fer.zemris.optjava.dz4.part1.selection.StochasticUniversalSelection;
 import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * <p>Program which accepts multiple command line arguments and attempts to solve
@@ -18,6 +26,15 @@ import java.nio.file.Paths;
  *     <li>500 20 20000 rouletteWheel 0.5</li>
  *     <li>500 20 5000 tournament:100 0.5</li>
  * </ul>
+ * <p>Selection type is one of {@code rouletteWheel}, {@code alias} (roulette
+ * wheel by Walker's alias method), {@code sus} (stochastic universal
+ * sampling) or {@code tournament:n}.</p>
+ * <p>An optional sixth argument selects the population evaluator:
+ * {@code serial} (default), {@code forkjoin} or {@code executor[:chunks]}
+ * (by default, one chunk per available processor), or {@code steadyState},
+ * which runs the {@link SteadyStateGeneticAlgorithmEngine} (with one worker
+ * thread per available processor) for as many evaluations as the
+ * generational algorithm would perform.</p>
  *
  * @author Mate Gašparini
  */
@@ -26,9 +43,27 @@ public class GeneticAlgorithm {
     /** Number of command line arguments needed to run the algorithm. */
     private static final int ARGS_LENGTH = 5;
 
+    /** Serial evaluator token. */
+    private static final String SERIAL = "serial";
+
+    /** Fork/join evaluator token. */
+    private static final String FORK_JOIN = "forkjoin";
+
+    /** Steady-state mode token. */
+    private static final String STEADY_STATE = "steadyState";
+
+    /** Executor evaluator token. */
+    private static final String EXECUTOR = "executor";
+
     /** Roulette wheel selection type token. */
     private static final String ROULETTE_WHEEL = "rouletteWheel";
 
+    /** Alias method roulette wheel selection type token. */
+    private static final String ALIAS = "alias";
+
+    /** Stochastic universal sampling selection type token. */
+    private static final String UNIVERSAL_SAMPLING = "sus";
+
     /** Tournament selection type token. */
     private static final String TOURNAMENT = "tournament:";
 
@@ -39,11 +74,13 @@ public class GeneticAlgorithm {
      * Main method which is called when the program launches.
      *
      * @param args Command line arguments (population size, minimum error,
-     *             maximum generation, selection type, sigma).
+     *             maximum generation, selection type, sigma and optional
+     *             evaluator).
      */
     public static void main(String[] args) {
-        if (args.length != ARGS_LENGTH) {
-            System.err.println("Expected " + ARGS_LENGTH + " arguments.");
+        if (args.length != ARGS_LENGTH && args.length != ARGS_LENGTH + 1) {
+            System.err.println("Expected " + ARGS_LENGTH + " or "
+                    + (ARGS_LENGTH + 1) + " arguments.");
             return;
         }
 
@@ -71,9 +108,13 @@ public class GeneticAlgorithm {
             return;
         }
 
-        ISelection<DoubleArraySolution> selection;
+        IRowSelection selection;
         if (args[3].equals(ROULETTE_WHEEL)) {
             selection = new RouletteWheelSelection();
+        } else if (args[3].equals(ALIAS)) {
+            selection = new AliasSelection();
+        } else if (args[3].equals(UNIVERSAL_SAMPLING)) {
+            selection = new StochasticUniversalSelection();
         } else if (args[3].startsWith(TOURNAMENT)) {
             String tournamentSize = args[3].substring(TOURNAMENT.length());
             try {
@@ -101,19 +142,77 @@ public class GeneticAlgorithm {
             return;
         }
 
+        String evaluatorType = args.length > ARGS_LENGTH ? args[ARGS_LENGTH] : SERIAL;
+        int processors = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = null;
+        boolean steadyState = evaluatorType.equals(STEADY_STATE);
+        IPopulationEvaluator evaluator = null; // The steady-state engine uses its own threads.
+        if (evaluatorType.equals(SERIAL)) {
+            evaluator = new SerialEvaluator();
+        } else if (evaluatorType.equals(FORK_JOIN)) {
+            evaluator = new ForkJoinEvaluator();
+        } else if (evaluatorType.equals(EXECUTOR)
+                || evaluatorType.startsWith(EXECUTOR + ":")) {
+            int chunks = processors;
+            if (evaluatorType.length() > EXECUTOR.length()) {
+                String chunkCount = evaluatorType.substring(EXECUTOR.length() + 1);
+                try {
+                    chunks = Integer.parseInt(chunkCount);
+                } catch (NumberFormatException ex) {
+                    System.err.println("Invalid number of chunks: " + chunkCount);
+                    return;
+                }
+                if (chunks <= 0) {
+                    System.err.println("Number of chunks must be positive.");
+                    return;
+                }
+            }
+            executor = Executors.newFixedThreadPool(processors, runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+            evaluator = new ExecutorEvaluator(executor, chunks);
+        } else if (!steadyState) {
+            System.err.println("Invalid evaluator type: " + evaluatorType);
+            return;
+        }
+
         try {
             IFunction function = new ErrorFunctionParser().parse(Paths.get(FUNCTION_PATH));
-            DoubleArraySolution solution = new GeneticAlgorithmEngine(
-                    function, populationSize, minError,
-                    maxGeneration, selection, sigma
-            ).run();
+            IGenerationListener listener = (generation, best) -> {
+                System.out.println(best);
+                System.out.println("Generation: " + generation + ", Error: " + best.value);
+            };
+            DoubleArraySolution solution;
+            if (steadyState) {
+                solution = new SteadyStateGeneticAlgorithmEngine(
+                        function, populationSize, minError,
+                        (long) maxGeneration * populationSize, selection, sigma,
+                        processors, listener
+                ).run();
+            } else {
+                solution = new GeneticAlgorithmEngine(
+                        function, populationSize, minError,
+                        maxGeneration, selection, sigma, evaluator, listener
+                ).run();
+            }
 
+            if (solution.value <= minError) {
+                System.out.println("Stopping after reaching minimum error...");
+            } else {
+                System.out.println("Stopping after reaching " + maxGeneration + "th generation...");
+            }
             System.out.println("====================");
             System.out.println("Best solution found:");
             System.out.println(solution);
             System.out.println("Error value: " + solution.value);
         } catch (IOException ex) {
             System.err.println("An IO error occurred while reading: " + FUNCTION_PATH);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
         }
     }
 }
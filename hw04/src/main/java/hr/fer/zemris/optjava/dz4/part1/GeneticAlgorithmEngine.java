@@ -1,17 +1,21 @@
 package hr.fer.zemris.optjava.dz4.part1;
 
 import hr.fer.zemris.optjava.dz4.part1.crossover.BlxAlphaCrossover;
-import hr.fer.zemris.optjava.dz4.part1.crossover.ICrossover;
+import hr.fer.zemris.optjava.dz4.part1.evaluator.IPopulationEvaluator;
+import hr.fer.zemris.optjava.dz4.part1.evaluator.SerialEvaluator;
 import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
-import hr.fer.zemris.optjava.dz4.part1.mutator.IMutator;
 import hr.fer.zemris.optjava.dz4.part1.mutator.NormalRandomMutator;
-import hr.fer.zemris.optjava.dz4.part1.selection.ISelection;
+import hr.fer.zemris.optjava.dz4.part1.selection.IRowSelection;
 import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
 
-import java.util.*;
+import java.util.Random;
 
 /**
- * Simple elitist generational genetic algorithm.
+ * <p>Simple elitist generational genetic algorithm.</p>
+ * <p>The parent and child generations are stored in two
+ * {@link DoublePopulation}s which swap roles after each generation, and all
+ * operators work on row indices, so a generation does not allocate.</p>
  *
  * @author Mate Gašparini
  */
@@ -39,19 +43,41 @@ public class GeneticAlgorithmEngine {
     private int maxGeneration;
 
     /** The specified selection type (used to select parents for crossover). */
-    private ISelection<DoubleArraySolution> selection;
+    private IRowSelection selection;
 
     /** The current solution population. */
-    private List<DoubleArraySolution> population;
+    private DoublePopulation population;
+
+    /** The population into which the next generation is stored. */
+    private DoublePopulation nextPopulation;
+
+    /** Rows of the parents selected for the next generation (two per child). */
+    private int[] parents;
+
+    /** Row of the best solution of the current population. */
+    private int bestRow;
+
+    /** Row of the second best solution of the current population. */
+    private int secondRow;
+
+    /** Copy of the best solution of the current population. */
+    private DoubleArraySolution best;
 
     /** The specified crossover operator. */
-    private ICrossover<DoubleArraySolution> crossover = new BlxAlphaCrossover();
+    private BlxAlphaCrossover crossover = new BlxAlphaCrossover();
 
     /** The mutator used for mutation of generated children. */
-    private IMutator<DoubleArraySolution> mutator;
+    private NormalRandomMutator mutator;
+
+    /** The specified population evaluator. */
+    private IPopulationEvaluator evaluator;
+
+    /** The specified listener (notified after each generation). */
+    private IGenerationListener listener;
 
     /**
-     * Constructor specifying the algorithm parameters.
+     * Constructor specifying the algorithm parameters. The population is
+     * evaluated serially and generations are not reported.
      *
      * @param function The specified function to minimize.
      * @param populationSize The specified population size.
@@ -62,14 +88,39 @@ public class GeneticAlgorithmEngine {
      */
     public GeneticAlgorithmEngine(IFunction function, int populationSize,
                                   double minError, int maxGeneration,
-                                  ISelection<DoubleArraySolution> selection,
+                                  IRowSelection selection,
                                   double sigma) {
+        this(function, populationSize, minError, maxGeneration, selection,
+                sigma, new SerialEvaluator(), IGenerationListener.NONE);
+    }
+
+    /**
+     * Constructor specifying the algorithm parameters, the population
+     * evaluator and the generation listener.
+     *
+     * @param function The specified function to minimize (which must be safe
+     *                 to call concurrently if the evaluator is parallel).
+     * @param populationSize The specified population size.
+     * @param minError The specified minimum error value.
+     * @param maxGeneration The specified maximum generation.
+     * @param selection The specified parent selection strategy.
+     * @param sigma The specified standard deviation used for mutations.
+     * @param evaluator The specified population evaluator.
+     * @param listener The specified generation listener.
+     */
+    public GeneticAlgorithmEngine(IFunction function, int populationSize,
+                                  double minError, int maxGeneration,
+                                  IRowSelection selection,
+                                  double sigma, IPopulationEvaluator evaluator,
+                                  IGenerationListener listener) {
         this.function = function;
         this.populationSize = populationSize;
         this.minError = minError;
         this.maxGeneration = maxGeneration;
         this.selection = selection;
         this.mutator = new NormalRandomMutator(sigma);
+        this.evaluator = evaluator;
+        this.listener = listener;
     }
 
     /**
@@ -77,86 +128,94 @@ public class GeneticAlgorithmEngine {
      * reached and returns the best found solution.
      *
      * @return The best found solution.
+     * @throws IllegalArgumentException If the population size is less than 2.
      */
     public DoubleArraySolution run() {
         initRandomPopulation();
         for (int generation = 0; generation < maxGeneration; generation ++) {
-            System.out.println(population.get(0));
-            System.out.println("Generation: " + generation
-                    + ", Error: " + population.get(0).value);
-            if (population.get(0).value <= minError) {
-                System.out.println("Stopping after reaching minimum error...");
-                return population.get(0);
+            population.copyTo(bestRow, best);
+            listener.generationEvaluated(generation, best);
+            if (best.value <= minError) {
+                return best;
             }
 
-            List<DoubleArraySolution> newPopulation = new ArrayList<>(populationSize);
-            newPopulation.add(population.get(0));
-            newPopulation.add(population.get(1));
-
-            while (newPopulation.size() < populationSize) {
-                DoubleArraySolution firstParent = selection.getSolution(population);
-                DoubleArraySolution secondParent = selection.getSolution(population);
+            population.copyRow(bestRow, nextPopulation, 0);
+            population.copyRow(secondRow, nextPopulation, 1);
 
-                DoubleArraySolution child = crossover.cross(firstParent, secondParent);
-                mutator.mutate(child);
-                newPopulation.add(child);
+            int childCount = populationSize - 2;
+            selection.prepare(population);
+            selection.getRows(population, 2 * childCount, parents);
+            for (int i = 0; i < childCount; i ++) {
+                int child = i + 2;
+                crossover.cross(population, parents[2 * i], parents[2 * i + 1], nextPopulation, child);
+                mutator.mutate(nextPopulation, child);
             }
 
-            population = newPopulation;
+            DoublePopulation oldPopulation = population;
+            population = nextPopulation;
+            nextPopulation = oldPopulation;
             evaluatePopulationFitness();
         }
 
-        System.out.println("Stopping after reaching " + maxGeneration + "th generation...");
-        return population.get(0);
+        population.copyTo(bestRow, best);
+        return best;
     }
 
     /**
-     * Initializes the starting population with solutions with random values.
+     * Initializes the starting population with solutions with random values
+     * (and the buffers used in later generations).
+     *
+     * @throws IllegalArgumentException If the population size is less than 2.
      */
     private void initRandomPopulation() {
-        population = new ArrayList<>(populationSize);
-        for (int i = 0; i < populationSize; i ++) {
-            DoubleArraySolution solution = new DoubleArraySolution(function.getSolutionSize());
-            solution.randomize(random, STARTING_SOLUTION_LOWER, STARTING_SOLUTION_UPPER);
-            population.add(solution);
+        if (populationSize < 2) {
+            throw new IllegalArgumentException("Population size must be at least 2.");
         }
+        int dimension = function.getSolutionSize();
+        population = new DoublePopulation(populationSize, dimension);
+        nextPopulation = new DoublePopulation(populationSize, dimension);
+        parents = new int[2 * (populationSize - 2)];
+        best = new DoubleArraySolution(dimension);
+        population.randomize(random, STARTING_SOLUTION_LOWER, STARTING_SOLUTION_UPPER);
         evaluatePopulationFitness();
     }
 
     /**
-     * Evaluates the fitness of each solution in the current population and
-     * sorts the population according to the fitness values.
+     * Evaluates the fitness of each solution in the current population (the
+     * function values are calculated by the evaluator), scales it by the
+     * worst fitness and finds the two best solutions.
      */
     private void evaluatePopulationFitness() {
-        for (DoubleArraySolution solution : population) {
-            solution.value = value(solution);
-            solution.fitness = fitness(solution);
+        evaluator.evaluate(population, function);
+        double[] fitness = population.fitness;
+        double worstFitness = Double.POSITIVE_INFINITY;
+        for (int row = 0; row < populationSize; row ++) {
+            fitness[row] = fitness(population.values[row]);
+            worstFitness = Math.min(worstFitness, fitness[row]);
         }
 
-        population.sort(Comparator.reverseOrder());
-        double worstFitness = population.get(population.size()-1).fitness;
-        for (DoubleArraySolution solution : population) {
-            solution.fitness -= worstFitness;
+        bestRow = fitness[1] > fitness[0] ? 1 : 0;
+        secondRow = 1 - bestRow;
+        for (int row = 0; row < populationSize; row ++) {
+            fitness[row] -= worstFitness;
+            if (row < 2) continue;
+            if (fitness[row] > fitness[bestRow]) {
+                secondRow = bestRow;
+                bestRow = row;
+            } else if (fitness[row] > fitness[secondRow]) {
+                secondRow = row;
+            }
         }
+        population.changed();
     }
 
     /**
-     * Returns the calculated value of the function for the given solution.
-     *
-     * @param solution The given solution.
-     * @return The calculated function value.
-     */
-    private double value(DoubleArraySolution solution) {
-        return function.valueAt(solution.values);
-    }
-
-    /**
-     * Returns the fitness of the given solution.
+     * Returns the fitness of a solution with the given function value.
      *
-     * @param solution The given solution.
+     * @param value The given function value.
      * @return The calculated fitness value.
      */
-    private double fitness(DoubleArraySolution solution) {
-        return 1.0/solution.value;
+    private double fitness(double value) {
+        return 1.0/value;
     }
 }
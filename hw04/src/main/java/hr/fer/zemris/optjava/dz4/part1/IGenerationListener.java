@@ -0,0 +1,24 @@
+package hr.fer.zemris.optjava.dz4.part1;
+
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+
+/**
+ * Models a listener which is notified by the {@link GeneticAlgorithmEngine}
+ * after each generation is evaluated.
+ *
+ * @author Mate Gašparini
+ */
+@FunctionalInterface
+public interface IGenerationListener {
+
+    /** Listener which ignores all generations. */
+    IGenerationListener NONE = (generation, best) -> {};
+
+    /**
+     * Called when the given generation is evaluated.
+     *
+     * @param generation The given generation.
+     * @param best The best solution of the generation.
+     */
+    void generationEvaluated(int generation, DoubleArraySolution best);
+}
@@ -0,0 +1,291 @@
+package hr.fer.zemris.optjava.dz4.part1;
+
+import hr.fer.zemris.optjava.dz4.part1.crossover.BlxAlphaCrossover;
+import hr.fer.zemris.optjava.dz4.part1.evaluator.ExecutorEvaluator;
+import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
+import hr.fer.zemris.optjava.dz4.part1.mutator.NormalRandomMutator;
+import hr.fer.zemris.optjava.dz4.part1.selection.IRowSelection;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>Steady-state variant of the {@link GeneticAlgorithmEngine}.</p>
+ * <p>Instead of replacing the whole population at once, each evaluated child
+ * replaces the worst solution of the population (if it is better). The worst
+ * solution is found using a binary max-heap of the population rows (ordered
+ * by the function value), so a replacement takes {@code O(log n)} time.</p>
+ * <p>Children are evaluated asynchronously on a pool of worker threads:
+ * a fixed number of children is always being evaluated, and whenever any of
+ * them is done, it is inserted and a new child is submitted. Slow evaluations
+ * therefore never hold up the fast ones. Children are created (and the
+ * population is modified) only by the calling thread, and each worker reads
+ * only the genome of its own child.</p>
+ * <p>The fitness of a solution is the reciprocal of its value. Each
+ * inserted child changes the population version, so fitness-proportional
+ * selections rebuild their tables (in linear time) before the next
+ * selection, and never select using the fitness of a replaced solution.
+ * Each {@code populationSize} evaluations are reported as one generation to
+ * the listener.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class SteadyStateGeneticAlgorithmEngine {
+
+    /** Lower bound used for generation of the starting solution. */
+    private static final double STARTING_SOLUTION_LOWER = -2.0;
+
+    /** Upper bound used for generation of the starting solution. */
+    private static final double STARTING_SOLUTION_UPPER = 2.0;
+
+    /** Number of children being evaluated per worker thread. */
+    private static final int CHILDREN_PER_THREAD = 2;
+
+    /** Single {@link Random} instance. */
+    private Random random = new Random();
+
+    /** Function which needs to be minimized. */
+    private IFunction function;
+
+    /** Size of the solution population. */
+    private int populationSize;
+
+    /** Minimum error value (when reached, the algorithm stops). */
+    private double minError;
+
+    /** Maximum number of child evaluations (when reached, the algorithm stops). */
+    private long maxEvaluations;
+
+    /** Number of worker threads. */
+    private int threads;
+
+    /** The specified selection type (used to select parents for crossover). */
+    private IRowSelection selection;
+
+    /** The specified crossover operator. */
+    private BlxAlphaCrossover crossover = new BlxAlphaCrossover();
+
+    /** The mutator used for mutation of generated children. */
+    private NormalRandomMutator mutator;
+
+    /** The specified listener. */
+    private IGenerationListener listener;
+
+    /** The current solution population. */
+    private DoublePopulation population;
+
+    /** Children which are being evaluated (one per row). */
+    private DoublePopulation children;
+
+    /** Max-heap of the population rows, ordered by their values. */
+    private int[] heap;
+
+    /** Row of the best solution of the population. */
+    private int bestRow;
+
+    /**
+     * Constructor specifying the algorithm parameters.
+     *
+     * @param function The specified function to minimize (which must be safe
+     *                 to call concurrently).
+     * @param populationSize The specified population size.
+     * @param minError The specified minimum error value.
+     * @param maxEvaluations The specified maximum number of child
+     *                       evaluations.
+     * @param selection The specified parent selection strategy.
+     * @param sigma The specified standard deviation used for mutations.
+     * @param threads The specified number of worker threads.
+     * @param listener The specified listener (notified after each
+     *                 {@code populationSize} evaluations).
+     * @throws IllegalArgumentException If the population size or the number
+     *         of threads is not positive.
+     */
+    public SteadyStateGeneticAlgorithmEngine(IFunction function, int populationSize,
+                                             double minError, long maxEvaluations,
+                                             IRowSelection selection, double sigma,
+                                             int threads, IGenerationListener listener) {
+        if (populationSize <= 0) {
+            throw new IllegalArgumentException("Population size must be positive.");
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        this.function = function;
+        this.populationSize = populationSize;
+        this.minError = minError;
+        this.maxEvaluations = maxEvaluations;
+        this.selection = selection;
+        this.mutator = new NormalRandomMutator(sigma);
+        this.threads = threads;
+        this.listener = listener;
+    }
+
+    /**
+     * Runs the algorithm until the maximum number of evaluations or minimum
+     * error is reached and returns the best found solution.
+     *
+     * @return The best found solution.
+     * @throws IllegalStateException If an evaluation fails or the algorithm
+     *         is interrupted.
+     */
+    public DoubleArraySolution run() {
+        int dimension = function.getSolutionSize();
+        int capacity = threads * CHILDREN_PER_THREAD;
+        population = new DoublePopulation(populationSize, dimension);
+        children = new DoublePopulation(capacity, dimension);
+        DoubleArraySolution best = new DoubleArraySolution(dimension);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            population.randomize(random, STARTING_SOLUTION_LOWER, STARTING_SOLUTION_UPPER);
+            new ExecutorEvaluator(pool, threads).evaluate(population, function);
+            initHeap();
+
+            CompletionService<Integer> evaluations = new ExecutorCompletionService<>(pool);
+            long submitted = 0;
+            long evaluated = 0;
+            for (int slot = 0; slot < capacity && submitted < maxEvaluations; slot ++, submitted ++) {
+                submitChild(evaluations, slot);
+            }
+
+            while (population.values[bestRow] > minError && evaluated < submitted) {
+                int slot = evaluations.take().get();
+                evaluated ++;
+                insertChild(slot);
+
+                if (evaluated % populationSize == 0) {
+                    population.copyTo(bestRow, best);
+                    listener.generationEvaluated((int) (evaluated / populationSize), best);
+                }
+                if (submitted < maxEvaluations) {
+                    submitChild(evaluations, slot);
+                    submitted ++;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evaluation interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Evaluation failed.", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        population.copyTo(bestRow, best);
+        return best;
+    }
+
+    /**
+     * Creates a child into the given slot of the children population and
+     * submits its evaluation.
+     *
+     * @param evaluations The used completion service.
+     * @param slot The given slot.
+     */
+    private void submitChild(CompletionService<Integer> evaluations, int slot) {
+        int firstParent = selection.getRow(population);
+        int secondParent = selection.getRow(population);
+        crossover.cross(population, firstParent, secondParent, children, slot);
+        mutator.mutate(children, slot);
+
+        int offset = children.offset(slot);
+        evaluations.submit(() -> {
+            children.values[slot] = function.valueAt(children.genomes, offset);
+            return slot;
+        });
+    }
+
+    /**
+     * Replaces the worst solution of the population with the evaluated child
+     * in the given slot, if the child is better.
+     *
+     * @param slot The given slot.
+     */
+    private void insertChild(int slot) {
+        int worst = heap[0];
+        if (Double.compare(children.values[slot], population.values[worst]) >= 0) return;
+
+        children.fitness[slot] = fitness(children.values[slot]);
+        children.copyRow(slot, population, worst);
+        siftDown(0);
+        if (population.values[worst] < population.values[bestRow]) {
+            bestRow = worst;
+        }
+    }
+
+    /**
+     * Calculates the fitness of each solution, finds the best one and builds
+     * the heap of the population rows.
+     */
+    private void initHeap() {
+        heap = new int[populationSize];
+        bestRow = 0;
+        for (int row = 0; row < populationSize; row ++) {
+            population.fitness[row] = fitness(population.values[row]);
+            heap[row] = row;
+            if (population.values[row] < population.values[bestRow]) {
+                bestRow = row;
+            }
+        }
+        for (int i = populationSize / 2 - 1; i >= 0; i --) {
+            siftDown(i);
+        }
+        population.changed();
+        selection.prepare(population);
+    }
+
+    /**
+     * Moves the row at the given heap index down until the heap is valid.
+     *
+     * @param index The given heap index.
+     */
+    private void siftDown(int index) {
+        double[] values = population.values;
+        int row = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= populationSize) break;
+            if (child + 1 < populationSize && worse(heap[child + 1], heap[child], values)) {
+                child ++;
+            }
+            if (!worse(heap[child], row, values)) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    /**
+     * Returns {@code true} if the solution at the first given row is worse
+     * (has a greater value) than the one at the second given row. Solutions
+     * with an undefined value are the worst ones.
+     *
+     * @param first The first given row.
+     * @param second The second given row.
+     * @param values Values of the population.
+     * @return {@code true} if the first solution is worse.
+     */
+    private static boolean worse(int first, int second, double[] values) {
+        return Double.compare(values[first], values[second]) > 0;
+    }
+
+    /**
+     * Returns the fitness of a solution with the given function value.
+     *
+     * @param value The given function value.
+     * @return The calculated fitness value.
+     */
+    private double fitness(double value) {
+        return 1.0/value;
+    }
+}
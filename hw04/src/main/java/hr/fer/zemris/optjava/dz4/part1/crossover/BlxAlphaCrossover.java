@@ -1,6 +1,7 @@
 package hr.fer.zemris.optjava.dz4.part1.crossover;
 
 import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
 
 import java.util.Random;
 
@@ -43,6 +44,39 @@ public class BlxAlphaCrossover implements ICrossover<DoubleArraySolution> {
         return child;
     }
 
+    /**
+     * Crosses the solutions at the given rows of the given parent population
+     * and stores the resulting child into the given row of the given child
+     * population (without allocating).
+     *
+     * @param parents The given parent population.
+     * @param firstParent The row of the first parent.
+     * @param secondParent The row of the second parent.
+     * @param children The given child population.
+     * @param child The row of the child.
+     */
+    public void cross(DoublePopulation parents, int firstParent, int secondParent,
+                      DoublePopulation children, int child) {
+        double[] genomes = parents.genomes;
+        int first = parents.offset(firstParent);
+        int second = parents.offset(secondParent);
+        int target = children.offset(child);
+
+        for (int i = 0; i < parents.dimension; i ++) {
+            double lower = genomes[first + i];
+            double upper = genomes[second + i];
+
+            if (lower > upper) {
+                double lowerCopy = lower;
+                lower = upper;
+                upper = lowerCopy;
+            }
+
+            double extension = (upper - lower) * ALPHA;
+            children.genomes[target + i] = randomBetween(lower - extension, upper + extension);
+        }
+    }
+
     /**
      * Returns a pseudo-randomly generated value from the specified interval.
      *
@@ -0,0 +1,110 @@
+package hr.fer.zemris.optjava.dz4.part1.evaluator;
+
+import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * {@link IPopulationEvaluator} which splits the population into a fixed
+ * number of contiguous chunks and evaluates them on an
+ * {@link ExecutorService} (which is not shut down by this class).
+ *
+ * @author Mate Gašparini
+ */
+public class ExecutorEvaluator implements IPopulationEvaluator {
+
+    /** The specified {@link ExecutorService}. */
+    private ExecutorService executor;
+
+    /** Number of chunks. */
+    private int chunks;
+
+    /**
+     * Constructor specifying the {@link ExecutorService} and the number of
+     * chunks.
+     *
+     * @param executor The specified {@link ExecutorService}.
+     * @param chunks The specified number of chunks.
+     * @throws IllegalArgumentException If the number of chunks is not
+     *         positive.
+     */
+    public ExecutorEvaluator(ExecutorService executor, int chunks) {
+        if (chunks <= 0) {
+            throw new IllegalArgumentException("Number of chunks must be positive.");
+        }
+        this.executor = executor;
+        this.chunks = chunks;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException If the evaluation fails or is
+     *         interrupted.
+     */
+    @Override
+    public void evaluate(List<DoubleArraySolution> population, IFunction function) {
+        evaluate(population.size(), (from, to) -> {
+            for (int i = from; i < to; i ++) {
+                DoubleArraySolution solution = population.get(i);
+                solution.value = function.valueAt(solution.values);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException If the evaluation fails or is
+     *         interrupted.
+     */
+    @Override
+    public void evaluate(DoublePopulation population, IFunction function) {
+        evaluate(population.size, (from, to) -> {
+            for (int row = from; row < to; row ++) {
+                population.values[row] = function.valueAt(population.genomes, population.offset(row));
+            }
+        });
+        population.changed();
+    }
+
+    /**
+     * Splits the given number of solutions into chunks and evaluates them
+     * using the given evaluation, waiting for all of them to finish.
+     *
+     * @param size The given number of solutions.
+     * @param evaluation The given evaluation of a range of solutions.
+     * @throws IllegalStateException If the evaluation fails or is
+     *         interrupted.
+     */
+    private void evaluate(int size, RangeEvaluation evaluation) {
+        int count = Math.min(chunks, size);
+        List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i ++) {
+            int from = (int) ((long) size * i / count);
+            int to = (int) ((long) size * (i + 1) / count);
+            tasks.add(() -> {
+                evaluation.evaluate(from, to);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evaluation interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Evaluation failed.", ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package hr.fer.zemris.optjava.dz4.part1.evaluator;
+
+import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * {@link IPopulationEvaluator} which recursively splits the population into
+ * halves and evaluates them on a {@link ForkJoinPool}, so that idle threads
+ * steal the remaining work.
+ *
+ * @author Mate Gašparini
+ */
+public class ForkJoinEvaluator implements IPopulationEvaluator {
+
+    /** The specified {@link ForkJoinPool}. */
+    private ForkJoinPool pool;
+
+    /** Maximum number of solutions evaluated by a single task. */
+    private int threshold;
+
+    /**
+     * Constructor which uses the common {@link ForkJoinPool} and evaluates
+     * each solution as a separate task.
+     */
+    public ForkJoinEvaluator() {
+        this(ForkJoinPool.commonPool(), 1);
+    }
+
+    /**
+     * Constructor specifying the {@link ForkJoinPool} and the maximum number
+     * of solutions evaluated by a single task.
+     *
+     * @param pool The specified {@link ForkJoinPool}.
+     * @param threshold The specified maximum number of solutions per task.
+     * @throws IllegalArgumentException If the threshold is not positive.
+     */
+    public ForkJoinEvaluator(ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive.");
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void evaluate(List<DoubleArraySolution> population, IFunction function) {
+        pool.invoke(new EvaluationTask((from, to) -> {
+            for (int i = from; i < to; i ++) {
+                DoubleArraySolution solution = population.get(i);
+                solution.value = function.valueAt(solution.values);
+            }
+        }, 0, population.size()));
+    }
+
+    @Override
+    public void evaluate(DoublePopulation population, IFunction function) {
+        pool.invoke(new EvaluationTask((from, to) -> {
+            for (int row = from; row < to; row ++) {
+                population.values[row] = function.valueAt(population.genomes, population.offset(row));
+            }
+        }, 0, population.size));
+        population.changed();
+    }
+
+    /**
+     * Task which evaluates a range of some population.
+     */
+    private class EvaluationTask extends RecursiveAction {
+
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** Evaluation of a range of the population. */
+        private RangeEvaluation evaluation;
+
+        /** First index of the range (inclusive). */
+        private int from;
+
+        /** Last index of the range (exclusive). */
+        private int to;
+
+        /**
+         * Constructor specifying the evaluation and the range.
+         *
+         * @param evaluation Evaluation of a range of the population.
+         * @param from First index of the range (inclusive).
+         * @param to Last index of the range (exclusive).
+         */
+        EvaluationTask(RangeEvaluation evaluation, int from, int to) {
+            this.evaluation = evaluation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                evaluation.evaluate(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new EvaluationTask(evaluation, from, middle),
+                    new EvaluationTask(evaluation, middle, to)
+            );
+        }
+    }
+}
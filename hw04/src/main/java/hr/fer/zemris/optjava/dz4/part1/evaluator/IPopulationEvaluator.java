@@ -0,0 +1,34 @@
+package hr.fer.zemris.optjava.dz4.part1.evaluator;
+
+import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.List;
+
+/**
+ * Models a strategy of evaluating a whole population of
+ * {@link DoubleArraySolution}s (or a {@link DoublePopulation}).
+ *
+ * @author Mate Gašparini
+ */
+public interface IPopulationEvaluator {
+
+    /**
+     * Stores the value of the given function for each solution of the given
+     * population into its {@code value} field (other fields are not modified).
+     *
+     * @param population The given population.
+     * @param function The given function (which may be called concurrently).
+     */
+    void evaluate(List<DoubleArraySolution> population, IFunction function);
+
+    /**
+     * Stores the value of the given function for each solution of the given
+     * population into its values array (other arrays are not modified).
+     *
+     * @param population The given population.
+     * @param function The given function (which may be called concurrently).
+     */
+    void evaluate(DoublePopulation population, IFunction function);
+}
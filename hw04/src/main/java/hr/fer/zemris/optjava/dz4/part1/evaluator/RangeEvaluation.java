@@ -0,0 +1,19 @@
+package hr.fer.zemris.optjava.dz4.part1.evaluator;
+
+/**
+ * Evaluation of a range of solutions of some population, used by the parallel
+ * {@link IPopulationEvaluator}s to split the work.
+ *
+ * @author Mate Gašparini
+ */
+@FunctionalInterface
+interface RangeEvaluation {
+
+    /**
+     * Evaluates the solutions in the given range.
+     *
+     * @param from First index of the range (inclusive).
+     * @param to Last index of the range (exclusive).
+     */
+    void evaluate(int from, int to);
+}
@@ -0,0 +1,31 @@
+package hr.fer.zemris.optjava.dz4.part1.evaluator;
+
+import hr.fer.zemris.optjava.dz4.part1.function.IFunction;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.List;
+
+/**
+ * {@link IPopulationEvaluator} which evaluates the solutions one after another
+ * in the calling thread.
+ *
+ * @author Mate Gašparini
+ */
+public class SerialEvaluator implements IPopulationEvaluator {
+
+    @Override
+    public void evaluate(List<DoubleArraySolution> population, IFunction function) {
+        for (DoubleArraySolution solution : population) {
+            solution.value = function.valueAt(solution.values);
+        }
+    }
+
+    @Override
+    public void evaluate(DoublePopulation population, IFunction function) {
+        for (int row = 0; row < population.size; row ++) {
+            population.values[row] = function.valueAt(population.genomes, population.offset(row));
+        }
+        population.changed();
+    }
+}
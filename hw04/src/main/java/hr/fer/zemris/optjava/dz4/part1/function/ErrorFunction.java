@@ -55,9 +55,14 @@ public class ErrorFunction implements IFunction {
             throw new IllegalArgumentException("Point size must be " + VARIABLE_COUNT + ".");
         }
 
+        return valueAt(point, 0);
+    }
+
+    @Override
+    public double valueAt(double[] points, int offset) {
         double value = 0.0;
         for (int row = 0; row < rightSide.getRowDimension(); row ++) {
-            double calculated = calculateValue(point, row);
+            double calculated = calculateValue(points, offset, row);
             double error = rightSide.get(row, 0) - calculated;
             value += error*error;
         }
@@ -66,21 +71,22 @@ public class ErrorFunction implements IFunction {
 
     /**
      * Calculates the value of the left side of the equation at the given row
-     * using the given point.
+     * using the point stored in the given array at the given offset.
      *
-     * @param point The given point.
+     * @param point The given array.
+     * @param offset Index of the first value of the point.
      * @param row The given row.
      * @return The calculated value.
      */
-    private double calculateValue(double[] point, int row) {
-        double[] x = new double[COEFFICIENT_COUNT];
-        for (int i = 0; i < COEFFICIENT_COUNT; i ++) {
-            x[i] = coefficients.get(row, i);
-        }
+    private double calculateValue(double[] point, int offset, int row) {
+        double x0 = coefficients.get(row, 0);
+        double x3 = coefficients.get(row, 3);
+        double x4 = coefficients.get(row, 4);
 
-        return point[0] * x[0]
-                + point[1] * Math.pow(x[0], 3) * x[1]
-                + point[2] * Math.exp(point[3] * x[2]) * (1 + Math.cos(point[4] * x[3]))
-                + point[5] * x[3] * x[4] * x[4];
+        return point[offset] * x0
+                + point[offset + 1] * Math.pow(x0, 3) * coefficients.get(row, 1)
+                + point[offset + 2] * Math.exp(point[offset + 3] * coefficients.get(row, 2))
+                        * (1 + Math.cos(point[offset + 4] * x3))
+                + point[offset + 5] * x3 * x4 * x4;
     }
 }
@@ -1,5 +1,7 @@
 package hr.fer.zemris.optjava.dz4.part1.function;
 
+import java.util.Arrays;
+
 /**
  * Models a mathematical function which returns a scalar and is defined on an
  * n-dimensional real number space.
@@ -22,4 +24,20 @@ public interface IFunction {
      * @return The value at the given point.
      */
     double valueAt(double[] point);
+
+    /**
+     * <p>Returns the value at the point stored in the given array, starting
+     * at the given offset (as in the genomes array of a
+     * {@link hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation}).</p>
+     * <p>By default, the point is copied and {@link #valueAt(double[])} is
+     * called, so functions should override this method to avoid
+     * allocation.</p>
+     *
+     * @param points The given array.
+     * @param offset Index of the first value of the point.
+     * @return The value at the given point.
+     */
+    default double valueAt(double[] points, int offset) {
+        return valueAt(Arrays.copyOfRange(points, offset, offset + getSolutionSize()));
+    }
 }
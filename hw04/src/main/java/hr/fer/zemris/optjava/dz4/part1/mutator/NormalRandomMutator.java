@@ -1,6 +1,7 @@
 package hr.fer.zemris.optjava.dz4.part1.mutator;
 
 import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
 
 import java.util.Random;
 
@@ -33,4 +34,18 @@ public class NormalRandomMutator implements IMutator<DoubleArraySolution> {
             solution.values[i] += random.nextGaussian() * sigma;
         }
     }
+
+    /**
+     * Mutates the solution at the given row of the given population.
+     *
+     * @param population The given population.
+     * @param row The given row.
+     */
+    public void mutate(DoublePopulation population, int row) {
+        double[] genomes = population.genomes;
+        int end = population.offset(row) + population.dimension;
+        for (int i = population.offset(row); i < end; i ++) {
+            genomes[i] += random.nextGaussian() * sigma;
+        }
+    }
 }
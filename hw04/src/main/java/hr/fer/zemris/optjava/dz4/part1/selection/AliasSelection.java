@@ -0,0 +1,156 @@
+package hr.fer.zemris.optjava.dz4.part1.selection;
+
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>{@link ISelection} (and {@link IRowSelection}) in which a solution is
+ * selected using fitness-based proportional selection, by Walker's alias
+ * method.</p>
+ * <p>The alias table is built once per population (see
+ * {@link #prepare(List)}) in {@code O(n)} time, after which each solution
+ * is selected in constant time. A {@link DoublePopulation} is prepared again
+ * whenever its version changes. A {@code List} population which is not
+ * explicitly prepared is prepared for each selection.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class AliasSelection implements ISelection<DoubleArraySolution>, IRowSelection {
+
+    /** Single {@link Random} instance. */
+    private Random random = new Random();
+
+    /** The population for which the alias table is built. */
+    private Object prepared;
+
+    /** Version of the prepared {@link DoublePopulation}. */
+    private int preparedVersion;
+
+    /** Number of solutions of the prepared population. */
+    private int size;
+
+    /** Fitness values copied from a {@code List} population. */
+    private double[] weights = new double[0];
+
+    /** Probability of keeping the chosen column (instead of its alias). */
+    private double[] probabilities = new double[0];
+
+    /** Alias of each column. */
+    private int[] aliases = new int[0];
+
+    /** Work list of columns with less than the average probability. */
+    private int[] small = new int[0];
+
+    /** Work list of columns with at least the average probability. */
+    private int[] large = new int[0];
+
+    @Override
+    public DoubleArraySolution getSolution(List<DoubleArraySolution> population) {
+        boolean lazy = prepared != population;
+        if (lazy) {
+            prepare(population);
+        }
+        DoubleArraySolution solution = population.get(nextIndex());
+        if (lazy) {
+            prepared = null; // The list may change before the next selection.
+        }
+        return solution;
+    }
+
+    @Override
+    public int getRow(DoublePopulation population) {
+        if (prepared != population || preparedVersion != population.getVersion()) {
+            prepare(population);
+        }
+        return nextIndex();
+    }
+
+    @Override
+    public void prepare(List<DoubleArraySolution> population) {
+        int size = population.size();
+        if (weights.length < size) {
+            weights = new double[size];
+        }
+        for (int i = 0; i < size; i ++) {
+            weights[i] = population.get(i).fitness;
+        }
+        build(size, weights);
+        prepared = population;
+    }
+
+    @Override
+    public void prepare(DoublePopulation population) {
+        build(population.size, population.fitness);
+        prepared = population;
+        preparedVersion = population.getVersion();
+    }
+
+    /**
+     * Returns the index of a solution of the prepared population, chosen
+     * proportionally to its fitness.
+     *
+     * @return The chosen index.
+     */
+    private int nextIndex() {
+        int column = random.nextInt(size);
+        return random.nextDouble() < probabilities[column] ? column : aliases[column];
+    }
+
+    /**
+     * Builds the alias table for the given fitness values (using Vose's
+     * algorithm).
+     *
+     * @param size The given number of solutions.
+     * @param fitness The given fitness values.
+     */
+    private void build(int size, double[] fitness) {
+        if (probabilities.length < size) {
+            probabilities = new double[size];
+            aliases = new int[size];
+            small = new int[size];
+            large = new int[size];
+        }
+        this.size = size;
+
+        double fitnessSum = 0.0;
+        for (int i = 0; i < size; i ++) {
+            fitnessSum += fitness[i];
+        }
+
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < size; i ++) {
+            double scaled = fitnessSum > 0.0 ? fitness[i] * size / fitnessSum : 1.0;
+            probabilities[i] = scaled;
+            aliases[i] = i;
+            if (scaled < 1.0) {
+                small[smallCount ++] = i;
+            } else {
+                large[largeCount ++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[-- smallCount];
+            int more = large[-- largeCount];
+            aliases[less] = more;
+            probabilities[more] += probabilities[less] - 1.0;
+            if (probabilities[more] < 1.0) {
+                small[smallCount ++] = more;
+            } else {
+                large[largeCount ++] = more;
+            }
+        }
+
+        // Remaining columns are full (up to rounding errors).
+        while (smallCount > 0) {
+            probabilities[small[-- smallCount]] = 1.0;
+        }
+        while (largeCount > 0) {
+            probabilities[large[-- largeCount]] = 1.0;
+        }
+    }
+}
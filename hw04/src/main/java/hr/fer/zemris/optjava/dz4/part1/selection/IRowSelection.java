@@ -0,0 +1,50 @@
+package hr.fer.zemris.optjava.dz4.part1.selection;
+
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+/**
+ * Models the type of selection of a solution (by its row index) from a
+ * {@link DoublePopulation}.
+ *
+ * @author Mate Gašparini
+ */
+public interface IRowSelection {
+
+    /**
+     * Selects some solution from the given population and returns its row.
+     *
+     * @param population The given population.
+     * @return The row of the selected solution.
+     */
+    int getRow(DoublePopulation population);
+
+    /**
+     * <p>Prepares the selection for the current version of the given
+     * population.</p>
+     * <p>Selections which need some per-population structure build it here,
+     * and build it again before selecting if the population version has
+     * changed since (see {@link DoublePopulation#getVersion()}), so they
+     * never select using stale fitness values. Nothing is done by
+     * default.</p>
+     *
+     * @param population The given population.
+     */
+    default void prepare(DoublePopulation population) {
+    }
+
+    /**
+     * <p>Selects the given number of solutions from the given population and
+     * stores their rows into the given array.</p>
+     * <p>By default, {@link #getRow(DoublePopulation)} is called for each of
+     * them.</p>
+     *
+     * @param population The given population.
+     * @param count The given number of solutions.
+     * @param rows Array for the selected rows.
+     */
+    default void getRows(DoublePopulation population, int count, int[] rows) {
+        for (int i = 0; i < count; i ++) {
+            rows[i] = getRow(population);
+        }
+    }
+}
@@ -20,4 +20,33 @@ public interface ISelection<T extends SingleObjectiveSolution> {
      * @return The selected solution.
      */
     T getSolution(List<T> population);
+
+    /**
+     * <p>Prepares the selection for the given population, whose solutions and
+     * their fitness values must not change until the next call.</p>
+     * <p>Selections which need some per-population structure build it here,
+     * once per generation, instead of on every selected solution. If a
+     * population is not prepared, such selections prepare it for each
+     * selection. Nothing is done by default.</p>
+     *
+     * @param population The given {@code List} of solutions.
+     */
+    default void prepare(List<T> population) {
+    }
+
+    /**
+     * <p>Selects the given number of solutions from the given {@code List} and
+     * adds them to the given {@code List} of selected solutions.</p>
+     * <p>By default, {@link #getSolution(List)} is called for each of them.</p>
+     *
+     * @param population The given {@code List} of solutions.
+     * @param count The given number of solutions.
+     * @param selected The {@code List} to which the selected solutions are
+     *                 added.
+     */
+    default void getSolutions(List<T> population, int count, List<T> selected) {
+        for (int i = 0; i < count; i ++) {
+            selected.add(getSolution(population));
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package hr.fer.zemris.optjava.dz4.part1.selection;
 
 import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -8,12 +9,12 @@ import java.util.List;
 import java.util.Random;
 
 /**
- * {@link ISelection} in which a solution is selected in a fitness-based
+ * {@link ISelection} (and {@link IRowSelection}) in which a solution is selected in a fitness-based
  * tournament of {@code n} randomly chosen {@link DoubleArraySolution}s.
  *
  * @author Mate Gašparini
  */
-public class NTournamentSelection implements ISelection<DoubleArraySolution> {
+public class NTournamentSelection implements ISelection<DoubleArraySolution>, IRowSelection {
 
     /** Minimum value of the {@code n} parameter. */
     public static final int MIN_TOURNAMENT = 2;
@@ -50,4 +51,16 @@ public class NTournamentSelection implements ISelection<DoubleArraySolution> {
 
         return bestSolution;
     }
+
+    @Override
+    public int getRow(DoublePopulation population) {
+        int best = random.nextInt(population.size);
+        for (int i = 1; i < n; i ++) {
+            int row = random.nextInt(population.size);
+            if (population.fitness[row] > population.fitness[best]) {
+                best = row;
+            }
+        }
+        return best;
+    }
 }
@@ -1,34 +1,136 @@
 package hr.fer.zemris.optjava.dz4.part1.selection;
 
 import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
 
 import java.util.List;
 import java.util.Random;
 
 /**
- * {@link ISelection} in which a solution is selected using fitness-based
- * proportional selection of the given population.
+ * <p>{@link ISelection} (and {@link IRowSelection}) in which a solution is
+ * selected using fitness-based proportional selection of the given
+ * population.</p>
+ * <p>The cumulative fitness sums are calculated once per population (see
+ * {@link #prepare(List)}), so each solution is selected by a binary search,
+ * in {@code O(log n)} time. A {@link DoublePopulation} is prepared again
+ * whenever its version changes. A {@code List} population which is not
+ * explicitly prepared is prepared for each selection.</p>
  *
  * @author Mate Gašparini
  */
-public class RouletteWheelSelection implements ISelection<DoubleArraySolution> {
+public class RouletteWheelSelection implements ISelection<DoubleArraySolution>, IRowSelection {
 
     /** Single {@link Random} instance. */
-    private Random random = new Random();
+    protected Random random = new Random();
+
+    /** The population for which the cumulative sums are calculated. */
+    protected Object prepared;
+
+    /** Version of the prepared {@link DoublePopulation}. */
+    protected int preparedVersion;
+
+    /** Number of solutions of the prepared population. */
+    protected int size;
+
+    /** Cumulative fitness sums ({@code i}-th element is the sum of the first
+     *  {@code i+1} fitness values). */
+    protected double[] cumulative = new double[0];
+
+    /** Sum of all fitness values of the prepared population. */
+    protected double fitnessSum;
 
     @Override
     public DoubleArraySolution getSolution(List<DoubleArraySolution> population) {
-        double fitnessSum = 0.0;
-        for (DoubleArraySolution solution : population) {
-            fitnessSum += solution.fitness;
+        boolean lazy = prepared != population;
+        if (lazy) {
+            prepare(population);
+        }
+        DoubleArraySolution solution = population.get(indexOf(random.nextDouble() * fitnessSum));
+        if (lazy) {
+            prepared = null; // The list may change before the next selection.
         }
+        return solution;
+    }
 
-        double value = random.nextDouble() * fitnessSum;
-        for (DoubleArraySolution solution : population) {
-            value -= solution.fitness;
-            if (value < 0) return solution;
+    @Override
+    public int getRow(DoublePopulation population) {
+        prepareIfChanged(population);
+        return indexOf(random.nextDouble() * fitnessSum);
+    }
+
+    @Override
+    public void prepare(List<DoubleArraySolution> population) {
+        resize(population.size());
+        double sum = 0.0;
+        for (int i = 0; i < size; i ++) {
+            sum += population.get(i).fitness;
+            cumulative[i] = sum;
         }
+        fitnessSum = sum;
+        prepared = population;
+    }
 
-        return population.get(population.size()-1); // Last element rounding errors.
+    @Override
+    public void prepare(DoublePopulation population) {
+        resize(population.size);
+        double sum = 0.0;
+        for (int i = 0; i < size; i ++) {
+            sum += population.fitness[i];
+            cumulative[i] = sum;
+        }
+        fitnessSum = sum;
+        prepared = population;
+        preparedVersion = population.getVersion();
+    }
+
+    /**
+     * Prepares the given population, unless the cumulative sums are already
+     * calculated for its current version.
+     *
+     * @param population The given population.
+     */
+    protected void prepareIfChanged(DoublePopulation population) {
+        if (prepared != population || preparedVersion != population.getVersion()) {
+            prepare(population);
+        }
+    }
+
+    /**
+     * Sets the number of solutions, enlarging the cumulative sums array if
+     * needed.
+     *
+     * @param size The given number of solutions.
+     */
+    private void resize(int size) {
+        if (cumulative.length < size) {
+            cumulative = new double[size];
+        }
+        this.size = size;
+    }
+
+    /**
+     * Returns the index of the solution whose cumulative fitness range
+     * contains the given value (or a uniformly chosen index, if all fitness
+     * values are zero).
+     *
+     * @param value The given value (between zero and the fitness sum).
+     * @return The index of the corresponding solution.
+     */
+    protected int indexOf(double value) {
+        if (!(fitnessSum > 0.0)) {
+            return random.nextInt(size);
+        }
+
+        int low = 0;
+        int high = size - 1; // Last element for rounding errors.
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > value) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
     }
 }
@@ -0,0 +1,83 @@
+package hr.fer.zemris.optjava.dz4.part1.selection;
+
+import hr.fer.zemris.optjava.dz4.part1.solution.DoubleArraySolution;
+import hr.fer.zemris.optjava.dz4.part1.solution.DoublePopulation;
+
+import java.util.List;
+
+/**
+ * <p>{@link RouletteWheelSelection} variant which selects multiple solutions
+ * using stochastic universal sampling: a single random offset is chosen, and
+ * the solutions are selected at equally spaced points of the cumulative
+ * fitness sums, in a single pass through the population.</p>
+ * <p>Each solution is selected nearly its expected number of times, and the
+ * selected solutions are shuffled, so that consecutive ones can be used as
+ * randomly paired parents.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class StochasticUniversalSelection extends RouletteWheelSelection {
+
+    /** Buffer for the selected indices (used for {@code List} populations). */
+    private int[] indices = new int[0];
+
+    @Override
+    public void getSolutions(List<DoubleArraySolution> population, int count,
+                             List<DoubleArraySolution> selected) {
+        boolean lazy = prepared != population;
+        if (lazy) {
+            prepare(population);
+        }
+        if (indices.length < count) {
+            indices = new int[count];
+        }
+        sample(count, indices);
+        for (int i = 0; i < count; i ++) {
+            selected.add(population.get(indices[i]));
+        }
+        if (lazy) {
+            prepared = null; // The list may change before the next selection.
+        }
+    }
+
+    @Override
+    public void getRows(DoublePopulation population, int count, int[] rows) {
+        prepareIfChanged(population);
+        sample(count, rows);
+    }
+
+    /**
+     * Stores the given number of indices of the prepared population, selected
+     * by stochastic universal sampling and shuffled, into the given array.
+     *
+     * @param count The given number of indices.
+     * @param selected Array for the selected indices.
+     */
+    private void sample(int count, int[] selected) {
+        if (count <= 0) return;
+        if (!(fitnessSum > 0.0)) {
+            for (int i = 0; i < count; i ++) {
+                selected[i] = random.nextInt(size);
+            }
+            return;
+        }
+
+        double step = fitnessSum / count;
+        double pointer = random.nextDouble() * step;
+        int index = 0;
+        int last = size - 1;
+        for (int i = 0; i < count; i ++, pointer += step) {
+            while (index < last && cumulative[index] <= pointer) {
+                index ++;
+            }
+            selected[i] = index;
+        }
+
+        for (int i = count - 1; i > 0; i --) {
+            int j = random.nextInt(i + 1);
+            int temp = selected[i];
+            selected[i] = selected[j];
+            selected[j] = temp;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package hr.fer.zemris.optjava.dz4.part1.solution;
+
+import java.util.Random;
+
+/**
+ * <p>Population of real-valued solutions stored as a structure of arrays.</p>
+ * <p>All genomes are stored in a single contiguous array (row by row, so the
+ * genome of the solution at row {@code r} starts at index
+ * {@code r*dimension}), and their function values and fitness values are
+ * stored in separate arrays. Solutions are referred to by their row
+ * indices, so operating on the population does not allocate.</p>
+ * <p>The population has a version, which is increased whenever its solutions
+ * change, so the structures built for it (e.g. by a selection) can tell
+ * whether they are stale. Code which writes into the arrays directly must
+ * call {@link #changed()} afterwards.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class DoublePopulation {
+
+    /** Number of solutions (rows). */
+    public final int size;
+
+    /** Number of values of each solution. */
+    public final int dimension;
+
+    /** Values of all solutions, row by row. */
+    public final double[] genomes;
+
+    /** Function value of each solution. */
+    public final double[] values;
+
+    /** Fitness value of each solution. */
+    public final double[] fitness;
+
+    /** Version of the solutions (increased on each change). */
+    private int version;
+
+    /**
+     * Constructor specifying the number of solutions and their dimension.
+     *
+     * @param size The specified number of solutions.
+     * @param dimension The specified number of values of each solution.
+     * @throws IllegalArgumentException If the size or the dimension is not
+     *         positive.
+     */
+    public DoublePopulation(int size, int dimension) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Population size must be positive.");
+        }
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Dimension must be positive.");
+        }
+
+        this.size = size;
+        this.dimension = dimension;
+        this.genomes = new double[Math.multiplyExact(size, dimension)];
+        this.values = new double[size];
+        this.fitness = new double[size];
+    }
+
+    /**
+     * Returns the version of the solutions, which is increased whenever they
+     * change.
+     *
+     * @return The current version.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks that some solutions (their genomes, values or fitness values)
+     * were changed.
+     */
+    public void changed() {
+        version ++;
+    }
+
+    /**
+     * Returns the index of the first value of the given row in the genomes
+     * array.
+     *
+     * @param row The given row.
+     * @return The corresponding offset.
+     */
+    public int offset(int row) {
+        return row * dimension;
+    }
+
+    /**
+     * Copies the solution at the given row (its genome, value and fitness) to
+     * the given row of the given population (of the same dimension).
+     *
+     * @param row The given row.
+     * @param target The given target population.
+     * @param targetRow The given target row.
+     */
+    public void copyRow(int row, DoublePopulation target, int targetRow) {
+        System.arraycopy(genomes, offset(row), target.genomes, target.offset(targetRow), dimension);
+        target.values[targetRow] = values[row];
+        target.fitness[targetRow] = fitness[row];
+        target.changed();
+    }
+
+    /**
+     * Copies the solution at the given row to the given
+     * {@link DoubleArraySolution} (of the same dimension).
+     *
+     * @param row The given row.
+     * @param solution The given solution.
+     */
+    public void copyTo(int row, DoubleArraySolution solution) {
+        System.arraycopy(genomes, offset(row), solution.values, 0, dimension);
+        solution.value = values[row];
+        solution.fitness = fitness[row];
+    }
+
+    /**
+     * Generates pseudo-random real values between the given bounds for each
+     * value of each solution.
+     *
+     * @param random The given {@link Random} object.
+     * @param lower The given lower bound value.
+     * @param upper The given upper bound value.
+     */
+    public void randomize(Random random, double lower, double upper) {
+        if (lower > upper) {
+            double lowerCopy = lower;
+            lower = upper;
+            upper = lowerCopy;
+        }
+        for (int i = 0; i < genomes.length; i ++) {
+            genomes[i] = lower + random.nextDouble() * (upper - lower);
+        }
+        changed();
+    }
+}
@@ -1,5 +1,10 @@
 package hr.fer.zemris.optjava.dz5.part2;
 
+import hr.fer.zemris.optjava.dz5.part2.crossover.CycleCrossover;
+import hr.fer.zemris.optjava.dz5.part2.crossover.EdgeRecombinationCrossover;
+import hr.fer.zemris.optjava.dz5.part2.crossover.OrderCrossover;
+import hr.fer.zemris.optjava.dz5.part2.crossover.PartiallyMappedCrossover;
+import hr.fer.zemris.optjava.dz5.part2.crossover.PermutationCrossover;
 import hr.fer.zemris.optjava.dz5.part2.function.ExpenseFunction;
 import hr.fer.zemris.optjava.dz5.part2.parser.ExpenseFunctionParser;
 import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
@@ -8,6 +13,8 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Random;
+import java.util.function.Function;
 
 /**
  * <p>Program which accepts multiple command line arguments and attempts to solve
@@ -19,6 +26,8 @@ import java.nio.file.Paths;
  *     <li>data/nug12.dat 1000 50</li>
  *     <li>data/nug25.dat 1000 50</li>
  * </ul>
+ * <p>After the optional seed, the crossover operator can be specified as
+ * {@code ox} (default), {@code pmx}, {@code cx} or {@code erx}.</p>
  *
  * @author Mate Gašparini
  */
@@ -27,15 +36,22 @@ public class GeneticAlgorithm {
     /** Number of command line arguments needed to run the algorithm. */
     private static final int ARGS_LENGTH = 3;
 
+    /** Number of command line arguments when the seed is also specified. */
+    private static final int SEEDED_ARGS_LENGTH = 4;
+
+    /** Number of command line arguments when the crossover is also specified. */
+    private static final int CROSSOVER_ARGS_LENGTH = 5;
+
     /**
      * Main method which is called when the program launches.
      *
      * @param args Command line arguments (path to the problem, population size,
-     *             subpopulation count).
+     *             subpopulation count, optional master seed and crossover).
      */
     public static void main(String[] args) {
-        if (args.length != ARGS_LENGTH) {
-            System.err.println("Expected " + ARGS_LENGTH + " arguments.");
+        if (args.length < ARGS_LENGTH || args.length > CROSSOVER_ARGS_LENGTH) {
+            System.err.println("Expected " + ARGS_LENGTH + " to " + CROSSOVER_ARGS_LENGTH
+                    + " arguments.");
             return;
         }
 
@@ -55,6 +71,31 @@ public class GeneticAlgorithm {
             return;
         }
 
+        long seed = new Random().nextLong();
+        if (args.length >= SEEDED_ARGS_LENGTH) {
+            try {
+                seed = Long.parseLong(args[3]);
+            } catch (NumberFormatException ex) {
+                System.err.println("Invalid seed: " + args[3]);
+                return;
+            }
+        }
+
+        Function<Random, PermutationCrossover> crossoverFactory = OrderCrossover::new;
+        if (args.length == CROSSOVER_ARGS_LENGTH) {
+            String crossover = args[4];
+            if (crossover.equals("pmx")) {
+                crossoverFactory = PartiallyMappedCrossover::new;
+            } else if (crossover.equals("cx")) {
+                crossoverFactory = CycleCrossover::new;
+            } else if (crossover.equals("erx")) {
+                crossoverFactory = EdgeRecombinationCrossover::new;
+            } else if (!crossover.equals("ox")) {
+                System.err.println("Invalid crossover: " + crossover);
+                return;
+            }
+        }
+
         Path problemPath = Paths.get(args[0]);
         if (!Files.isReadable(problemPath)) {
             System.err.println("Invalid problem path: " + args[0]);
@@ -69,7 +110,8 @@ public class GeneticAlgorithm {
             return;
         }
 
-        Solution solution = new SASEGASA(function, populationSize, subPopulationCount).run();
+        Solution solution = new SASEGASA(function, populationSize, subPopulationCount,
+                seed, Runtime.getRuntime().availableProcessors(), crossoverFactory).run();
         System.out.println(solution);
         System.out.println("Expense: " + solution.value);
     }
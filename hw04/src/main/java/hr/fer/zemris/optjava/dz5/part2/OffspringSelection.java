@@ -1,6 +1,7 @@
 package hr.fer.zemris.optjava.dz5.part2;
 
 import hr.fer.zemris.optjava.dz5.part2.crossover.OrderCrossover;
+import hr.fer.zemris.optjava.dz5.part2.crossover.PermutationCrossover;
 import hr.fer.zemris.optjava.dz5.part2.function.ExpenseFunction;
 import hr.fer.zemris.optjava.dz5.part2.mutator.SwitchMutator;
 import hr.fer.zemris.optjava.dz5.part2.selection.NTournamentSelection;
@@ -9,6 +10,7 @@ import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Function;
 
 /**
  * <i>Offspring selection</i> (OS) genetic algorithm implementation.
@@ -31,19 +33,25 @@ public class OffspringSelection {
     private static final double UPPER_BOUND = 1.0;
 
     /** Single {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
 
     /** The specified function which needs to be minimized. */
     private ExpenseFunction function;
 
     /** Parent selection strategy. */
-    private NTournamentSelection selection = new NTournamentSelection(5);
+    private NTournamentSelection selection;
 
     /** Parent crossover operator. */
-    private OrderCrossover crossover = new OrderCrossover();
+    private PermutationCrossover crossover;
 
     /** Child mutation strategy. */
-    private SwitchMutator mutator = new SwitchMutator();
+    private SwitchMutator mutator;
+
+    /**
+     * Solutions which are no longer used (rejected children and replaced
+     * generations), whose arrays are reused for new children.
+     */
+    private List<Solution> spare = new ArrayList<>();
 
     /**
      * Constructor specifying the function which needs to be minimized.
@@ -51,12 +59,48 @@ public class OffspringSelection {
      * @param function The specified function.
      */
     public OffspringSelection(ExpenseFunction function) {
+        this(function, new Random());
+    }
+
+    /**
+     * <p>Constructor specifying the function which needs to be minimized and
+     * the {@link Random} instance.</p>
+     * <p>The selection, crossover and mutation operators get their own
+     * {@link Random} instances (seeded from the given one), so instances
+     * created from differently seeded {@link Random}s can be used
+     * concurrently.</p>
+     *
+     * @param function The specified function.
+     * @param random The specified {@link Random} instance.
+     */
+    public OffspringSelection(ExpenseFunction function, Random random) {
+        this(function, random, OrderCrossover::new);
+    }
+
+    /**
+     * Constructor specifying the function which needs to be minimized, the
+     * {@link Random} instance and the crossover operator factory (which is
+     * given the {@link Random} instance the operator should use).
+     *
+     * @param function The specified function.
+     * @param random The specified {@link Random} instance.
+     * @param crossoverFactory The specified crossover operator factory.
+     */
+    public OffspringSelection(ExpenseFunction function, Random random,
+                              Function<Random, PermutationCrossover> crossoverFactory) {
         this.function = function;
+        this.random = random;
+        this.selection = new NTournamentSelection(5, new Random(random.nextLong()));
+        this.crossover = crossoverFactory.apply(new Random(random.nextLong()));
+        this.mutator = new SwitchMutator(new Random(random.nextLong()));
     }
 
     /**
-     * Runs the algorithm and generates some offspring after reaching maximum
-     * number of iterations or maximum selection pressure.
+     * <p>Runs the algorithm and generates some offspring after reaching maximum
+     * number of iterations or maximum selection pressure.</p>
+     * <p>The children are written into the arrays of the solutions which are
+     * no longer used (the given parents are never reused, as they belong to
+     * the caller), so an instance must not be used concurrently.</p>
      *
      * @param parents The given (sub)population's parents.
      * @return The generated offspring.
@@ -79,8 +123,8 @@ public class OffspringSelection {
                 Solution first = selection.getSolution(parents);
                 Solution second = selection.getSolution(parents);
 
-                Solution child = crossover.cross(first, second);
-                mutator.mutate(child);
+                Solution child = crossover.cross(first, second, obtain(first.values.length));
+                mutator.mutate(child, function);
 
                 child.value = value(child);
                 child.fitness = fitness(child);
@@ -96,17 +140,20 @@ public class OffspringSelection {
 
             while (children.size() < size) {
                 if (pool.size() != 0) {
-                    children.add(pool.get(random.nextInt(pool.size())));
+                    children.add(copy(pool.get(random.nextInt(pool.size()))));
                 } else {
                     Solution first = parents.get(random.nextInt(parents.size()));
                     Solution second = parents.get(random.nextInt(parents.size()));
 
-                    Solution child = crossover.cross(first, second);
+                    Solution child = crossover.cross(first, second, obtain(first.values.length));
                     child.value = value(child);
                     child.fitness = fitness(child);
                     children.add(child);
                 }
             }
+
+            spare.addAll(pool);
+            if (i > 0) spare.addAll(parents);
             parents = children;
         }
 
@@ -114,12 +161,46 @@ public class OffspringSelection {
     }
 
     /**
-     * Returns the calculated value of the function for the given solution.
+     * Returns a spare solution (or a new one, if there are none) whose array
+     * can be overwritten.
+     *
+     * @param size The size of the solution's array.
+     * @return The solution.
+     */
+    private Solution obtain(int size) {
+        if (spare.isEmpty()) {
+            return new Solution(new int[size]);
+        }
+        return spare.remove(spare.size() - 1);
+    }
+
+    /**
+     * Returns a copy of the given solution (stored in a spare solution), so
+     * each child has its own array even if the same solution is chosen
+     * multiple times.
+     *
+     * @param solution The given solution.
+     * @return The copy.
+     */
+    private Solution copy(Solution solution) {
+        Solution copy = obtain(solution.values.length);
+        System.arraycopy(solution.values, 0, copy.values, 0, solution.values.length);
+        copy.value = solution.value;
+        copy.fitness = solution.fitness;
+        return copy;
+    }
+
+    /**
+     * Returns the calculated value of the function for the given solution (or
+     * its current value, if it is already evaluated).
      *
      * @param solution The given solution.
      * @return The calculated function value.
      */
     private double value(Solution solution) {
+        if (!Double.isNaN(solution.value)) {
+            return solution.value;
+        }
         return function.getExpense(solution.values);
     }
 
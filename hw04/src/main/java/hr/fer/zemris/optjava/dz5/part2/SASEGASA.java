@@ -1,5 +1,7 @@
 package hr.fer.zemris.optjava.dz5.part2;
 
+import hr.fer.zemris.optjava.dz5.part2.crossover.OrderCrossover;
+import hr.fer.zemris.optjava.dz5.part2.crossover.PermutationCrossover;
 import hr.fer.zemris.optjava.dz5.part2.function.ExpenseFunction;
 import hr.fer.zemris.optjava.dz5.part2.solution.Population;
 import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
@@ -7,17 +9,36 @@ import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 /**
- * <i>Self-adaptive Segregative Genetic Algorithm with Simulated Annealing
- * Aspects</i> (SASEGASA) implementation.
+ * <p><i>Self-adaptive Segregative Genetic Algorithm with Simulated Annealing
+ * Aspects</i> (SASEGASA) implementation.</p>
+ * <p>Each subpopulation (village) is evolved by its own
+ * {@link OffspringSelection} instance (with its own operators and
+ * {@link Random} instances, all seeded from the master seed), so the villages
+ * are evolved in parallel and synchronize only when they are joined. The
+ * result therefore depends only on the master seed, and not on the number of
+ * threads.</p>
  *
  * @author Mate Gašparini
  */
 public class SASEGASA {
 
-    /** Genetic algorithm used for subpopulation evolution. */
-    private OffspringSelection offspringSelection;
+    /** Genetic algorithm used for the evolution of each subpopulation. */
+    private List<OffspringSelection> offspringSelections;
+
+    /** Master {@link Random} instance. */
+    private Random random;
+
+    /** Number of worker threads. */
+    private int threads;
 
     /** Function which needs to be minimized. */
     private ExpenseFunction function;
@@ -39,11 +60,58 @@ public class SASEGASA {
      * @param subPopulationCount The specified number of subpopulations.
      */
     public SASEGASA(ExpenseFunction function, int populationSize, int subPopulationCount) {
-        this.offspringSelection = new OffspringSelection(function);
+        this(function, populationSize, subPopulationCount, new Random().nextLong(),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor specifying all algorithm parameters, the master seed and the
+     * number of worker threads.
+     *
+     * @param function The specified function which needs to be minimized.
+     * @param populationSize The specified size of the whole population.
+     * @param subPopulationCount The specified number of subpopulations.
+     * @param seed The specified master seed.
+     * @param threads The specified number of worker threads.
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public SASEGASA(ExpenseFunction function, int populationSize, int subPopulationCount,
+                    long seed, int threads) {
+        this(function, populationSize, subPopulationCount, seed, threads, OrderCrossover::new);
+    }
+
+    /**
+     * Constructor specifying all algorithm parameters, the master seed, the
+     * number of worker threads and the crossover operator factory.
+     *
+     * @param function The specified function which needs to be minimized.
+     * @param populationSize The specified size of the whole population.
+     * @param subPopulationCount The specified number of subpopulations.
+     * @param seed The specified master seed.
+     * @param threads The specified number of worker threads.
+     * @param crossoverFactory The specified crossover operator factory (each
+     *                         subpopulation gets its own operator).
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public SASEGASA(ExpenseFunction function, int populationSize, int subPopulationCount,
+                    long seed, int threads,
+                    Function<Random, PermutationCrossover> crossoverFactory) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        this.random = new Random(seed);
+        this.threads = threads;
         this.function = function;
         this.populationSize = populationSize;
         this.subPopulationCount = subPopulationCount;
         this.subPopulationSize = populationSize / subPopulationCount;
+        this.offspringSelections = new ArrayList<>(subPopulationCount);
+        for (int i = 0; i < subPopulationCount; i ++) {
+            offspringSelections.add(new OffspringSelection(
+                    function, new Random(random.nextLong()), crossoverFactory));
+        }
     }
 
     /**
@@ -55,20 +123,24 @@ public class SASEGASA {
     public Solution run() {
         List<Population> populations = generateSubPopulations();
 
-        while (true) {
-            List<Population> generated = new ArrayList<>();
-            for (int i = 0; i < populations.size(); i ++) {
-                generated.add(new Population(
-                        offspringSelection.generateOffspring(populations.get(i).getSolutions())
-                ));
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.min(threads, subPopulationCount), runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            while (true) {
+                populations = evolve(populations, pool);
+
+                if (subPopulationCount == 1) break;
+
+                subPopulationCount --;
+                subPopulationSize = populationSize / subPopulationCount;
+                joinSubPopulations(populations);
             }
-            populations = generated;
-
-            if (subPopulationCount == 1) break;
-
-            subPopulationCount --;
-            subPopulationSize = populationSize / subPopulationCount;
-            joinSubPopulations(populations);
+        } finally {
+            pool.shutdownNow();
         }
 
         List<Solution> finalSolutions = populations.get(0).getSolutions();
@@ -76,6 +148,36 @@ public class SASEGASA {
         return finalSolutions.get(0);
     }
 
+    /**
+     * Generates the offspring of each of the given subpopulations in parallel,
+     * and returns the generated subpopulations once all of them are done.
+     *
+     * @param populations The given subpopulations.
+     * @param pool The pool of worker threads.
+     * @return The generated subpopulations.
+     */
+    private List<Population> evolve(List<Population> populations, ExecutorService pool) {
+        List<Callable<Population>> tasks = new ArrayList<>(populations.size());
+        for (int i = 0; i < populations.size(); i ++) {
+            OffspringSelection offspringSelection = offspringSelections.get(i);
+            List<Solution> parents = populations.get(i).getSolutions();
+            tasks.add(() -> new Population(offspringSelection.generateOffspring(parents)));
+        }
+
+        List<Population> generated = new ArrayList<>(populations.size());
+        try {
+            for (Future<Population> future : pool.invokeAll(tasks)) {
+                generated.add(future.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evolution interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Subpopulation evolution failed.", ex.getCause());
+        }
+        return generated;
+    }
+
     /**
      * Generates the starting subpopulations and returns them in a {@code List}.
      *
@@ -89,7 +191,9 @@ public class SASEGASA {
             int currentSubSize = i != subPopulationCount - 1 ?
                     subPopulationSize : populationSize - currentSize;
 
-            Population subPopulation = new Population(currentSubSize, function.getSolutionSize());
+            Population subPopulation = new Population(
+                    currentSubSize, function.getSolutionSize(), random
+            );
             for (Solution solution : subPopulation.getSolutions()) {
                 solution.value = value(solution);
                 solution.fitness = fitness(solution);
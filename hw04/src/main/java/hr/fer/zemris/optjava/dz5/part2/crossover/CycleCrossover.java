@@ -0,0 +1,56 @@
+package hr.fer.zemris.optjava.dz5.part2.crossover;
+
+import java.util.Random;
+
+/**
+ * <p>{@link PermutationCrossover} which crosses two permutations using the
+ * <i>CX</i> [Oliver et al., 1987.] method.</p>
+ * <p>The positions are divided into cycles (a cycle continues at the
+ * position, in the first parent, of the second parent's value at the current
+ * position). Values of each cycle are taken from a single parent, and the
+ * parents alternate between consecutive cycles, starting from a randomly
+ * chosen one.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class CycleCrossover extends PermutationCrossover {
+
+    /** Position of each value in the first parent. */
+    private int[] positions = new int[0];
+
+    /**
+     * Default constructor.
+     */
+    public CycleCrossover() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     */
+    public CycleCrossover(Random random) {
+        super(random);
+    }
+
+    @Override
+    public void cross(int[] firstParent, int[] secondParent, int[] child) {
+        int size = firstParent.length;
+        positions = positionsOf(firstParent, positions);
+        clearUsed(size); // Marks the visited positions.
+
+        boolean fromFirst = random.nextBoolean();
+        for (int start = 0; start < size; start ++) {
+            if (used[start]) continue;
+            int[] parent = fromFirst ? firstParent : secondParent;
+            int i = start;
+            do {
+                used[i] = true;
+                child[i] = parent[i];
+                i = positions[secondParent[i]];
+            } while (i != start);
+            fromFirst = !fromFirst;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package hr.fer.zemris.optjava.dz5.part2.crossover;
+
+import java.util.Random;
+
+/**
+ * <p>{@link PermutationCrossover} which crosses two permutations using the
+ * <i>ERX</i> [Whitley et al., 1989.] method.</p>
+ * <p>Both parents are treated as cycles, and the edge table contains the
+ * (at most four) neighbors of each value in either parent. The child starts
+ * with the first value of a randomly chosen parent, and each next value is
+ * the current value's remaining neighbor with the fewest remaining neighbors
+ * (ties are broken randomly), or a random remaining value if there is no
+ * such neighbor.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class EdgeRecombinationCrossover extends PermutationCrossover {
+
+    /** Maximum number of neighbors of a value. */
+    private static final int MAX_NEIGHBORS = 4;
+
+    /** Neighbors of each value ({@code MAX_NEIGHBORS} slots per value). */
+    private int[] neighbors = new int[0];
+
+    /** Number of remaining neighbors of each value. */
+    private int[] neighborCounts = new int[0];
+
+    /** Values which are not yet placed into the child (first elements). */
+    private int[] remaining = new int[0];
+
+    /** Index of each value in the remaining values array. */
+    private int[] remainingIndices = new int[0];
+
+    /**
+     * Default constructor.
+     */
+    public EdgeRecombinationCrossover() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     */
+    public EdgeRecombinationCrossover(Random random) {
+        super(random);
+    }
+
+    @Override
+    public void cross(int[] firstParent, int[] secondParent, int[] child) {
+        int size = firstParent.length;
+        if (neighborCounts.length < size) {
+            neighbors = new int[size * MAX_NEIGHBORS];
+            neighborCounts = new int[size];
+            remaining = new int[size];
+            remainingIndices = new int[size];
+        }
+        for (int i = 0; i < size; i ++) {
+            neighborCounts[i] = 0;
+            remaining[i] = i;
+            remainingIndices[i] = i;
+        }
+        addEdges(firstParent);
+        addEdges(secondParent);
+
+        int remainingCount = size;
+        int current = random.nextBoolean() ? firstParent[0] : secondParent[0];
+        for (int k = 0; k < size; k ++) {
+            child[k] = current;
+            remainingCount --;
+            int last = remaining[remainingCount];
+            remaining[remainingIndices[current]] = last;
+            remainingIndices[last] = remainingIndices[current];
+            if (remainingCount == 0) break;
+
+            int base = current * MAX_NEIGHBORS;
+            int next = -1;
+            int ties = 0;
+            for (int j = 0; j < neighborCounts[current]; j ++) {
+                int neighbor = neighbors[base + j];
+                removeNeighbor(neighbor, current);
+                if (next < 0 || neighborCounts[neighbor] < neighborCounts[next]) {
+                    next = neighbor;
+                    ties = 1;
+                } else if (neighborCounts[neighbor] == neighborCounts[next]
+                        && random.nextInt(++ ties) == 0) {
+                    next = neighbor;
+                }
+            }
+            current = next >= 0 ? next : remaining[random.nextInt(remainingCount)];
+        }
+    }
+
+    /**
+     * Adds the edges of the given (cyclic) permutation to the edge table.
+     *
+     * @param parent The given permutation.
+     */
+    private void addEdges(int[] parent) {
+        int size = parent.length;
+        for (int i = 0; i < size; i ++) {
+            int value = parent[i];
+            addNeighbor(value, parent[i == 0 ? size - 1 : i - 1]);
+            addNeighbor(value, parent[i + 1 == size ? 0 : i + 1]);
+        }
+    }
+
+    /**
+     * Adds the given neighbor of the given value to the edge table, unless it
+     * is already there.
+     *
+     * @param value The given value.
+     * @param neighbor The given neighbor.
+     */
+    private void addNeighbor(int value, int neighbor) {
+        if (value == neighbor) return;
+        int base = value * MAX_NEIGHBORS;
+        int count = neighborCounts[value];
+        for (int j = 0; j < count; j ++) {
+            if (neighbors[base + j] == neighbor) return;
+        }
+        neighbors[base + count] = neighbor;
+        neighborCounts[value] = count + 1;
+    }
+
+    /**
+     * Removes the given neighbor of the given value from the edge table.
+     *
+     * @param value The given value.
+     * @param neighbor The given neighbor.
+     */
+    private void removeNeighbor(int value, int neighbor) {
+        int base = value * MAX_NEIGHBORS;
+        int count = neighborCounts[value];
+        for (int j = 0; j < count; j ++) {
+            if (neighbors[base + j] == neighbor) {
+                neighbors[base + j] = neighbors[base + count - 1];
+                neighborCounts[value] = count - 1;
+                return;
+            }
+        }
+    }
+}
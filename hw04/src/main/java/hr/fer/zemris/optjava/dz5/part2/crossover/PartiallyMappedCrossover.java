@@ -0,0 +1,62 @@
+package hr.fer.zemris.optjava.dz5.part2.crossover;
+
+import java.util.Random;
+
+/**
+ * <p>{@link PermutationCrossover} which crosses two permutations using the
+ * <i>PMX</i> [Goldberg and Lingle, 1985.] method.</p>
+ * <p>A random segment is copied from the first parent, and every other
+ * position gets the value of the second parent at that position. If that
+ * value is already in the segment, it is replaced through the mapping
+ * defined by the segment (repeatedly, until a value outside the segment is
+ * reached).</p>
+ *
+ * @author Mate Gašparini
+ */
+public class PartiallyMappedCrossover extends PermutationCrossover {
+
+    /** Position of each value in the first parent. */
+    private int[] positions = new int[0];
+
+    /**
+     * Default constructor.
+     */
+    public PartiallyMappedCrossover() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     */
+    public PartiallyMappedCrossover(Random random) {
+        super(random);
+    }
+
+    @Override
+    public void cross(int[] firstParent, int[] secondParent, int[] child) {
+        int size = firstParent.length;
+        int start = random.nextInt(size-1);
+        int end = start + random.nextInt(size-start);
+
+        positions = positionsOf(firstParent, positions);
+        clearUsed(size);
+        for (int i = start; i <= end; i ++) {
+            child[i] = firstParent[i];
+            used[firstParent[i]] = true;
+        }
+
+        for (int i = 0; i < size; i ++) {
+            if (i == start) {
+                i = end;
+                continue;
+            }
+            int value = secondParent[i];
+            while (used[value]) {
+                value = secondParent[positions[value]];
+            }
+            child[i] = value;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package hr.fer.zemris.optjava.dz5.part2.crossover;
+
+import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>Crossover operator which crosses two {@link Solution}s whose values are
+ * permutations of {@code 0..n-1}.</p>
+ * <p>Implementations write the child into a given (reusable) buffer in
+ * {@code O(n)} time, using membership and position tables instead of
+ * searching the child. The tables are kept between calls, so an instance
+ * must not be used concurrently.</p>
+ *
+ * @author Mate Gašparini
+ */
+public abstract class PermutationCrossover {
+
+    /** Single {@link Random} instance. */
+    protected Random random;
+
+    /** Marks the values which are already placed into the child. */
+    protected boolean[] used = new boolean[0];
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     */
+    protected PermutationCrossover(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * <p>Crosses the given parent solutions and returns the resulting child
+     * solution.</p>
+     * <p>If the child is equal to one of the parents, it is returned as a copy
+     * of that parent (including its value), so it does not need to be
+     * evaluated again.</p>
+     *
+     * @param firstParent The first given parent.
+     * @param secondParent The second given parent.
+     * @return The resulting child.
+     */
+    public Solution cross(Solution firstParent, Solution secondParent) {
+        return cross(firstParent, secondParent, new Solution(new int[firstParent.values.length]));
+    }
+
+    /**
+     * <p>Crosses the given parent solutions, stores the resulting child into
+     * the given (reusable) solution and returns it.</p>
+     * <p>If the child is equal to one of the parents, it takes over the value
+     * and the fitness of that parent, so it does not need to be evaluated
+     * again. Otherwise, its value is reset.</p>
+     *
+     * @param firstParent The first given parent.
+     * @param secondParent The second given parent.
+     * @param child The given solution (of the same size as the parents) which
+     *              is overwritten by the child.
+     * @return The given solution, containing the child.
+     */
+    public Solution cross(Solution firstParent, Solution secondParent, Solution child) {
+        cross(firstParent.values, secondParent.values, child.values);
+
+        if (Arrays.equals(child.values, firstParent.values)) {
+            child.value = firstParent.value;
+            child.fitness = firstParent.fitness;
+        } else if (Arrays.equals(child.values, secondParent.values)) {
+            child.value = secondParent.value;
+            child.fitness = secondParent.fitness;
+        } else {
+            child.value = Double.NaN;
+        }
+        return child;
+    }
+
+    /**
+     * Crosses the given parent permutations and stores the resulting child
+     * permutation into the given buffer.
+     *
+     * @param firstParent The first given parent.
+     * @param secondParent The second given parent.
+     * @param child Buffer for the child (of the same size as the parents).
+     */
+    public abstract void cross(int[] firstParent, int[] secondParent, int[] child);
+
+    /**
+     * Clears the membership table for permutations of the given size
+     * (enlarging it if needed).
+     *
+     * @param size The given size.
+     */
+    protected void clearUsed(int size) {
+        if (used.length < size) {
+            used = new boolean[size];
+        } else {
+            Arrays.fill(used, 0, size, false);
+        }
+    }
+
+    /**
+     * Stores the position of each value of the given permutation into the
+     * given array (enlarging it if needed), and returns it.
+     *
+     * @param permutation The given permutation.
+     * @param positions Array for the positions (may be too small).
+     * @return The array containing the positions.
+     */
+    protected static int[] positionsOf(int[] permutation, int[] positions) {
+        if (positions.length < permutation.length) {
+            positions = new int[permutation.length];
+        }
+        for (int i = 0; i < permutation.length; i ++) {
+            positions[permutation[i]] = i;
+        }
+        return positions;
+    }
+}
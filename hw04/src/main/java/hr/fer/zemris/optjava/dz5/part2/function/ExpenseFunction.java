@@ -8,19 +8,52 @@ import Jama.Matrix;
  * <p>It is defined using two quadratic matrices of same dimensions - one of
  * which represents distances between nodes, and the other which represents
  * costs associated with routes between nodes.</p>
+ * <p>Both matrices are stored as flat row-major arrays. Besides the full
+ * evaluation (which takes quadratic time), the function can calculate the
+ * exact change of the expense caused by switching two elements of a solution
+ * in linear time.</p>
+ * <p>If both matrices are symmetric, the switch delta needs only half of the
+ * terms. If the costs (flow) matrix is sparse, its non-zero elements are
+ * also stored by rows and by columns, and both the expense and the switch
+ * delta visit only them.</p>
  *
  * @author Mate Gašparini
  */
 public class ExpenseFunction {
 
+    /** Maximum ratio of non-zero costs for which the costs are treated as sparse. */
+    private static final double SPARSE_DENSITY = 0.3;
+
     /** The length of the matrices (and the solution). */
     private int solutionSize;
 
-    /** Matrix which represents distances between nodes. */
-    private Matrix distances;
+    /** Row-major array which represents distances between nodes. */
+    private double[] distances;
+
+    /** Row-major array which represents costs associated with routes between nodes. */
+    private double[] costs;
+
+    /** Whether both matrices are symmetric. */
+    private boolean symmetric;
+
+    /** Start of each row in the sparse costs arrays ({@code null} if dense). */
+    private int[] rowStarts;
+
+    /** Column of each non-zero cost, row by row. */
+    private int[] rowColumns;
+
+    /** Non-zero costs, row by row. */
+    private double[] rowCosts;
+
+    /** Start of each column in the sparse costs arrays ({@code null} if
+     *  dense or symmetric). */
+    private int[] columnStarts;
 
-    /** Matrix which represents costs associated with routes between nodes. */
-    private Matrix costs;
+    /** Row of each non-zero cost, column by column. */
+    private int[] columnRows;
+
+    /** Non-zero costs, column by column. */
+    private double[] columnCosts;
 
     /**
      * Constructor specifying the distances and costs matrices.
@@ -29,9 +62,119 @@ public class ExpenseFunction {
      * @param costs The specified costs matrix.
      */
     public ExpenseFunction(Matrix distances, Matrix costs) {
-        this.solutionSize = distances.getRowDimension();
+        this(distances.getRowDimension(),
+                distances.getRowPackedCopy(), costs.getRowPackedCopy());
+    }
+
+    /**
+     * Constructor specifying the size and the row-major distances and costs
+     * arrays.
+     *
+     * @param solutionSize The specified length of the matrices.
+     * @param distances The specified row-major distances array.
+     * @param costs The specified row-major costs array.
+     * @throws IllegalArgumentException If the array lengths do not match the
+     *         size.
+     */
+    public ExpenseFunction(int solutionSize, double[] distances, double[] costs) {
+        this(solutionSize, distances, costs, isSymmetric(solutionSize, distances)
+                && isSymmetric(solutionSize, costs));
+    }
+
+    /**
+     * Constructor specifying the size, the row-major distances and costs
+     * arrays and whether they are both symmetric (as already detected by the
+     * caller, see {@link #isSymmetric(int, double[])}).
+     *
+     * @param solutionSize The specified length of the matrices.
+     * @param distances The specified row-major distances array.
+     * @param costs The specified row-major costs array.
+     * @param symmetric {@code true} if both matrices are symmetric.
+     * @throws IllegalArgumentException If the array lengths do not match the
+     *         size.
+     */
+    public ExpenseFunction(int solutionSize, double[] distances, double[] costs,
+                           boolean symmetric) {
+        if (distances.length != solutionSize * solutionSize
+                || costs.length != solutionSize * solutionSize) {
+            throw new IllegalArgumentException("Matrices must be of size " + solutionSize + ".");
+        }
+        this.solutionSize = solutionSize;
         this.distances = distances;
         this.costs = costs;
+        this.symmetric = symmetric;
+        if (countNonZero(costs) <= costs.length * SPARSE_DENSITY) {
+            initSparseCosts();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given row-major square matrix is
+     * symmetric.
+     *
+     * @param size The length of the matrix.
+     * @param matrix The given row-major matrix.
+     * @return {@code true} if the matrix is symmetric, or {@code false}
+     *         otherwise.
+     */
+    public static boolean isSymmetric(int size, double[] matrix) {
+        for (int i = 0; i < size; i ++) {
+            for (int j = 0; j < i; j ++) {
+                if (matrix[i * size + j] != matrix[j * size + i]) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of non-zero elements of the given matrix.
+     *
+     * @param matrix The given row-major matrix.
+     * @return The number of non-zero elements.
+     */
+    public static int countNonZero(double[] matrix) {
+        int count = 0;
+        for (double value : matrix) {
+            if (value != 0.0) count ++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the row-major distances array (which must not be modified).
+     *
+     * @return The distances array.
+     */
+    public double[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * Returns the row-major costs array (which must not be modified).
+     *
+     * @return The costs array.
+     */
+    public double[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * Returns {@code true} if both matrices are symmetric.
+     *
+     * @return {@code true} if both matrices are symmetric.
+     */
+    public boolean isSymmetric() {
+        return symmetric;
+    }
+
+    /**
+     * Returns {@code true} if the non-zero costs are stored separately
+     * (because the costs matrix is sparse).
+     *
+     * @return {@code true} if the costs matrix is treated as sparse.
+     */
+    public boolean isSparse() {
+        return rowStarts != null;
     }
 
     /**
@@ -50,14 +193,179 @@ public class ExpenseFunction {
      * @return The sum of all expenses.
      */
     public double getExpense(int[] solution) {
+        int n = solutionSize;
         double expense = 0.0;
-        for (int i = 0; i < solution.length; i ++) {
-            for (int j = 0; j < solution.length; j ++) {
-                double singleExpense = costs.get(i, j);
-                singleExpense *= distances.get(solution[i], solution[j]);
-                expense += singleExpense;
+        if (rowStarts != null) {
+            for (int i = 0; i < n; i ++) {
+                int distanceRow = solution[i] * n;
+                for (int k = rowStarts[i]; k < rowStarts[i + 1]; k ++) {
+                    expense += rowCosts[k] * distances[distanceRow + solution[rowColumns[k]]];
+                }
+            }
+            return expense;
+        }
+
+        for (int i = 0; i < n; i ++) {
+            int costRow = i * n;
+            int distanceRow = solution[i] * n;
+            for (int j = 0; j < n; j ++) {
+                expense += costs[costRow + j] * distances[distanceRow + solution[j]];
             }
         }
         return expense;
     }
+
+    /**
+     * Returns the change of the sum of all expenses which would be caused by
+     * switching the elements at the given indexes of the given solution array
+     * (which is not modified).
+     *
+     * @param solution The given solution array.
+     * @param first The first given index.
+     * @param second The second given index.
+     * @return The expense after the switch minus the expense before it.
+     */
+    public double getSwitchDelta(int[] solution, int first, int second) {
+        if (first == second) return 0.0;
+
+        int n = solutionSize;
+        int r = first * n;
+        int s = second * n;
+        int pr = solution[first];
+        int ps = solution[second];
+        int dr = pr * n;
+        int ds = ps * n;
+
+        double delta = costs[r + first] * (distances[ds + ps] - distances[dr + pr])
+                + costs[s + second] * (distances[dr + pr] - distances[ds + ps])
+                + costs[r + second] * (distances[ds + pr] - distances[dr + ps])
+                + costs[s + first] * (distances[dr + ps] - distances[ds + pr]);
+        if (rowStarts != null) {
+            return delta + getSparseSwitchDelta(solution, first, second);
+        }
+        if (symmetric) {
+            double sum = 0.0;
+            for (int k = 0; k < n; k ++) {
+                if (k == first || k == second) continue;
+                int pk = solution[k];
+                sum += (costs[r + k] - costs[s + k]) * (distances[ds + pk] - distances[dr + pk]);
+            }
+            return delta + 2.0 * sum;
+        }
+        for (int k = 0; k < n; k ++) {
+            if (k == first || k == second) continue;
+            int pk = solution[k];
+            int kn = k * n;
+            int dk = pk * n;
+            delta += (costs[r + k] - costs[s + k]) * (distances[ds + pk] - distances[dr + pk])
+                    + (costs[kn + first] - costs[kn + second]) * (distances[dk + ps] - distances[dk + pr]);
+        }
+        return delta;
+    }
+
+    /**
+     * Returns the part of the switch delta which depends on the elements
+     * other than the switched ones, visiting only the non-zero costs.
+     *
+     * @param solution The given solution array.
+     * @param first The first given index.
+     * @param second The second given index.
+     * @return The corresponding part of the switch delta.
+     */
+    private double getSparseSwitchDelta(int[] solution, int first, int second) {
+        double rows = rowSum(first, solution, first, second)
+                - rowSum(second, solution, first, second);
+        if (symmetric) {
+            return 2.0 * rows;
+        }
+        return rows + columnSum(first, solution, first, second)
+                - columnSum(second, solution, first, second);
+    }
+
+    /**
+     * Returns the sum of {@code c(row, k) * (d(ps, pk) - d(pr, pk))} over the
+     * non-zero costs of the given row, excluding the switched elements
+     * ({@code pr} and {@code ps} being their values).
+     *
+     * @param row The given row.
+     * @param solution The given solution array.
+     * @param first The first switched index.
+     * @param second The second switched index.
+     * @return The calculated sum.
+     */
+    private double rowSum(int row, int[] solution, int first, int second) {
+        int dr = solution[first] * solutionSize;
+        int ds = solution[second] * solutionSize;
+        double sum = 0.0;
+        for (int k = rowStarts[row]; k < rowStarts[row + 1]; k ++) {
+            int column = rowColumns[k];
+            if (column == first || column == second) continue;
+            int pk = solution[column];
+            sum += rowCosts[k] * (distances[ds + pk] - distances[dr + pk]);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the sum of {@code c(k, column) * (d(pk, ps) - d(pk, pr))} over
+     * the non-zero costs of the given column, excluding the switched elements
+     * ({@code pr} and {@code ps} being their values).
+     *
+     * @param column The given column.
+     * @param solution The given solution array.
+     * @param first The first switched index.
+     * @param second The second switched index.
+     * @return The calculated sum.
+     */
+    private double columnSum(int column, int[] solution, int first, int second) {
+        int pr = solution[first];
+        int ps = solution[second];
+        double sum = 0.0;
+        for (int k = columnStarts[column]; k < columnStarts[column + 1]; k ++) {
+            int row = columnRows[k];
+            if (row == first || row == second) continue;
+            int dk = solution[row] * solutionSize;
+            sum += columnCosts[k] * (distances[dk + ps] - distances[dk + pr]);
+        }
+        return sum;
+    }
+
+    /**
+     * Stores the non-zero costs by rows (and by columns, if the matrices are
+     * not symmetric).
+     */
+    private void initSparseCosts() {
+        int n = solutionSize;
+        int count = countNonZero(costs);
+        rowStarts = new int[n + 1];
+        rowColumns = new int[count];
+        rowCosts = new double[count];
+        int k = 0;
+        for (int i = 0; i < n; i ++) {
+            rowStarts[i] = k;
+            for (int j = 0; j < n; j ++) {
+                double cost = costs[i * n + j];
+                if (cost == 0.0) continue;
+                rowColumns[k] = j;
+                rowCosts[k ++] = cost;
+            }
+        }
+        rowStarts[n] = k;
+        if (symmetric) return;
+
+        columnStarts = new int[n + 1];
+        columnRows = new int[count];
+        columnCosts = new double[count];
+        k = 0;
+        for (int j = 0; j < n; j ++) {
+            columnStarts[j] = k;
+            for (int i = 0; i < n; i ++) {
+                double cost = costs[i * n + j];
+                if (cost == 0.0) continue;
+                columnRows[k] = i;
+                columnCosts[k ++] = cost;
+            }
+        }
+        columnStarts[n] = k;
+    }
 }
@@ -1,5 +1,6 @@
 package hr.fer.zemris.optjava.dz5.part2.mutator;
 
+import hr.fer.zemris.optjava.dz5.part2.function.ExpenseFunction;
 import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
 
 import java.util.Random;
@@ -12,7 +13,23 @@ import java.util.Random;
 public class SwitchMutator {
 
     /** Single {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
+
+    /**
+     * Default constructor.
+     */
+    public SwitchMutator() {
+        this(new Random());
+    }
+
+    /**
+     * Constructor specifying the {@link Random} instance.
+     *
+     * @param random The specified {@link Random} instance.
+     */
+    public SwitchMutator(Random random) {
+        this.random = random;
+    }
 
     /**
      * <p>Mutates the given solution by randomly switching two random elements
@@ -26,9 +43,39 @@ public class SwitchMutator {
         int size = solution.values.length;
         int first = random.nextInt(size-1);
         int second = first + random.nextInt(size-first);
+        switchElements(solution.values, first, second);
+    }
+
+    /**
+     * <p>Mutates the given solution in the same way as
+     * {@link #mutate(Solution)}.</p>
+     * <p>If the solution is already evaluated, its value is updated by the
+     * change caused by the switch (which takes linear time), instead of being
+     * reset.</p>
+     *
+     * @param solution The given solution.
+     * @param function The function used to evaluate the solution.
+     */
+    public void mutate(Solution solution, ExpenseFunction function) {
+        int size = solution.values.length;
+        int first = random.nextInt(size-1);
+        int second = first + random.nextInt(size-first);
+        if (!Double.isNaN(solution.value)) {
+            solution.value += function.getSwitchDelta(solution.values, first, second);
+        }
+        switchElements(solution.values, first, second);
+    }
 
-        int firstCopy = solution.values[first];
-        solution.values[first] = solution.values[second];
-        solution.values[second] = firstCopy;
+    /**
+     * Switches the elements at the given indexes of the given array.
+     *
+     * @param values The given array.
+     * @param first The first given index.
+     * @param second The second given index.
+     */
+    private static void switchElements(int[] values, int first, int second) {
+        int firstCopy = values[first];
+        values[first] = values[second];
+        values[second] = firstCopy;
     }
 }
@@ -0,0 +1,114 @@
+package hr.fer.zemris.optjava.dz5.part2.parser;
+
+import hr.fer.zemris.optjava.dz5.part2.function.ExpenseFunction;
+import hr.fer.zemris.optjava.dz5.part2.solution.Solution;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>Program which checks the binary cache of the
+ * {@link ExpenseFunctionParser}.</p>
+ * <p>The given QAPLIB file is copied into a temporary directory and parsed
+ * twice. The second parse must be read from the cache, and it must give the
+ * same matrices, symmetry and expenses (of random permutations) as the
+ * first one.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class ExpenseFunctionCacheCheck {
+
+    /** Number of random permutations whose expenses are compared. */
+    private static final int PERMUTATIONS = 100;
+
+    /**
+     * Main method which is called when the program launches.
+     *
+     * @param args Command line arguments (path to the QAPLIB file).
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Expected 1 argument.");
+            return;
+        }
+        Path source = Paths.get(args[0]);
+        if (!Files.isRegularFile(source)) {
+            System.err.println("Invalid problem path: " + args[0]);
+            return;
+        }
+
+        String failure;
+        try {
+            failure = check(source);
+        } catch (IOException ex) {
+            failure = "An IO error occurred: " + ex.getMessage();
+        }
+        if (failure != null) {
+            System.err.println(failure);
+            System.exit(1);
+        }
+        System.out.println("Cache round trip OK.");
+    }
+
+    /**
+     * Parses a copy of the given file twice and returns the description of
+     * the first failed check, or {@code null} if all checks pass.
+     *
+     * @param source The given file.
+     * @return The failure description, or {@code null}.
+     * @throws IOException If an IO error occurs.
+     */
+    private static String check(Path source) throws IOException {
+        Path directory = Files.createTempDirectory("qap");
+        try {
+            Path copy = Files.copy(source, directory.resolve(source.getFileName()));
+
+            ExpenseFunctionParser parser = new ExpenseFunctionParser();
+            ExpenseFunction parsed = parser.parse(copy);
+            if (parser.isCached()) {
+                return "The first parse was read from the cache.";
+            }
+            ExpenseFunction loaded = parser.parse(copy);
+            if (!parser.isCached()) {
+                return "The second parse was not read from the cache.";
+            }
+
+            if (parsed.getSolutionSize() != loaded.getSolutionSize()
+                    || !Arrays.equals(parsed.getDistances(), loaded.getDistances())
+                    || !Arrays.equals(parsed.getCosts(), loaded.getCosts())
+                    || parsed.isSymmetric() != loaded.isSymmetric()) {
+                return "The cached function differs from the parsed one.";
+            }
+            Random random = new Random();
+            for (int i = 0; i < PERMUTATIONS; i ++) {
+                int[] permutation = new Solution(parsed.getSolutionSize(), random).values;
+                if (parsed.getExpense(permutation) != loaded.getExpense(permutation)) {
+                    return "Expenses differ for " + Arrays.toString(permutation) + ".";
+                }
+            }
+            return null;
+        } finally {
+            delete(directory);
+        }
+    }
+
+    /**
+     * Deletes the given temporary directory with its files.
+     *
+     * @param directory The given directory.
+     */
+    private static void delete(Path directory) {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException ignorable) {
+            // The temporary directory is left behind.
+        }
+    }
+}
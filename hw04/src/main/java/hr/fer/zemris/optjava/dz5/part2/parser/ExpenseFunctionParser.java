@@ -1,23 +1,69 @@
 package hr.fer.zemris.optjava.dz5.part2.parser;
 
-import Jama.Matrix;
 import hr.fer.zemris.optjava.dz5.part2.function.ExpenseFunction;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
- * Class which parses contents of a file to an {@link ExpenseFunction} instance.
+ * <p>Class which parses contents of a file to an {@link ExpenseFunction}
+ * instance.</p>
+ * <p>The file is in the QAPLIB format: the problem size followed by the
+ * distances matrix and the costs (flow) matrix, all separated by arbitrary
+ * whitespace.</p>
+ * <p>After a file is parsed, its matrices are stored into a binary cache file
+ * next to it (with the {@value #CACHE_SUFFIX} suffix), together with the
+ * detected symmetry. Later parses of the unchanged file memory-map the cache
+ * file instead of parsing the text.</p>
  *
  * @author Mate Gašparini
  */
 public class ExpenseFunctionParser {
 
-    /** Regex used to split values by whitespaces. */
-    private static final String SPACE_REGEX = "\\s+";
+    /** Suffix appended to the file name to get the cache file name. */
+    public static final String CACHE_SUFFIX = ".cache";
+
+    /** First four bytes of every cache file ({@code QAPB}). */
+    private static final int MAGIC = 0x51415042;
+
+    /** Version of the cache file format. */
+    private static final int VERSION = 1;
+
+    /** Size of the cache file header (magic, version, source file size and
+     *  modification time, problem size and flags). */
+    private static final int HEADER_SIZE = 32;
+
+    /** Flag which marks that both matrices are symmetric. */
+    private static final int SYMMETRIC_FLAG = 1;
+
+    /** Whether the binary cache is used. */
+    private boolean useCache;
+
+    /** Whether the last parsed function was read from the cache. */
+    private boolean cached;
+
+    /**
+     * Default constructor, which uses the binary cache.
+     */
+    public ExpenseFunctionParser() {
+        this(true);
+    }
+
+    /**
+     * Constructor specifying whether the binary cache is used.
+     *
+     * @param useCache {@code true} if the binary cache should be used.
+     */
+    public ExpenseFunctionParser(boolean useCache) {
+        this.useCache = useCache;
+    }
 
     /**
      * Parses the contents of the file specified by the given path and returns
@@ -25,42 +71,202 @@ public class ExpenseFunctionParser {
      *
      * @param path The given path.
      * @return The corresponding {@link ExpenseFunction}.
-     * @throws IOException If an IO error occurs.
+     * @throws IOException If an IO error occurs, or if the file is invalid.
      */
     public ExpenseFunction parse(Path path) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-                Files.newInputStream(path)))) {
-            int length = Integer.parseInt(reader.readLine().trim());
+        cached = false;
+        if (!useCache) {
+            return parseText(path);
+        }
+
+        Path cachePath = path.resolveSibling(path.getFileName() + CACHE_SUFFIX);
+        long size = Files.size(path);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        ExpenseFunction function = readCache(cachePath, size, modified);
+        cached = function != null;
+        if (cached) {
+            return function;
+        }
 
-            Matrix distances = new Matrix(length, length);
-            fillMatrix(distances, reader);
+        function = parseText(path);
+        writeCache(cachePath, size, modified, function);
+        return function;
+    }
 
-            Matrix costs = new Matrix(length, length);
-            fillMatrix(costs, reader);
+    /**
+     * Returns {@code true} if the last parsed function was read from the
+     * cache file (instead of the text).
+     *
+     * @return {@code true} if the cache was used, or {@code false} otherwise.
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Parses the text of the file specified by the given path (without using
+     * the cache).
+     *
+     * @param path The given path.
+     * @return The corresponding {@link ExpenseFunction}.
+     * @throws IOException If an IO error occurs, or if the file is invalid.
+     */
+    private ExpenseFunction parseText(Path path) throws IOException {
+        Tokenizer tokenizer = new Tokenizer(Files.readAllBytes(path));
+        double length = tokenizer.nextValue();
+        if (length != (int) length || length <= 0) {
+            throw new IOException("Invalid problem size: " + length);
+        }
 
-            return new ExpenseFunction(distances, costs);
+        int n = (int) length;
+        double[] distances = new double[Math.multiplyExact(n, n)];
+        double[] costs = new double[distances.length];
+        for (int i = 0; i < distances.length; i ++) {
+            distances[i] = tokenizer.nextValue();
         }
+        for (int i = 0; i < costs.length; i ++) {
+            costs[i] = tokenizer.nextValue();
+        }
+        return new ExpenseFunction(n, distances, costs);
     }
 
     /**
-     * Fills the given matrix with the right number of values using the given
-     * reader for input.
+     * Returns the {@link ExpenseFunction} stored in the given cache file, or
+     * {@code null} if the file does not exist or does not match the source
+     * file with the given size and modification time.
      *
-     * @param matrix The given matrix.
-     * @param reader The given reader.
+     * @param cachePath Path to the cache file.
+     * @param sourceSize Size of the source file.
+     * @param sourceModified Modification time of the source file.
+     * @return The cached function, or {@code null}.
      * @throws IOException If an IO error occurs.
      */
-    private void fillMatrix(Matrix matrix, BufferedReader reader) throws IOException {
-        int length = matrix.getRowDimension();
-        int current = 0;
-
-        while (current < length*length) {
-            String line = reader.readLine().trim();
-            if (line.isEmpty()) continue;
-            String[] parts = line.split(SPACE_REGEX);
-            for (int i = 0; i < parts.length; i ++, current ++) {
-                double value = Double.parseDouble(parts[i]);
-                matrix.set(current / length, current % length, value);
+    private ExpenseFunction readCache(Path cachePath, long sourceSize, long sourceModified)
+            throws IOException {
+        if (!Files.isRegularFile(cachePath)) return null;
+
+        try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) return null;
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION
+                    || buffer.getLong() != sourceSize || buffer.getLong() != sourceModified) {
+                return null;
+            }
+            int n = buffer.getInt();
+            int flags = buffer.getInt();
+            if (n <= 0 || fileSize != HEADER_SIZE + 2L * n * n * Double.BYTES) return null;
+
+            double[] distances = new double[n * n];
+            double[] costs = new double[n * n];
+            buffer.asDoubleBuffer().get(distances).get(costs);
+            return new ExpenseFunction(n, distances, costs, (flags & SYMMETRIC_FLAG) != 0);
+        }
+    }
+
+    /**
+     * Stores the given function into the given cache file (through a
+     * temporary file, so that concurrent runs never see a partial file). If
+     * the file cannot be written, the cache is silently skipped.
+     *
+     * @param cachePath Path to the cache file.
+     * @param sourceSize Size of the source file.
+     * @param sourceModified Modification time of the source file.
+     * @param function The given function.
+     */
+    private void writeCache(Path cachePath, long sourceSize, long sourceModified,
+                            ExpenseFunction function) {
+        int n = function.getSolutionSize();
+        long fileSize = HEADER_SIZE + 2L * n * n * Double.BYTES;
+        if (fileSize > Integer.MAX_VALUE) return;
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileSize).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(sourceSize).putLong(sourceModified)
+                .putInt(n).putInt(function.isSymmetric() ? SYMMETRIC_FLAG : 0);
+        buffer.asDoubleBuffer().put(function.getDistances()).put(function.getCosts());
+        buffer.rewind(); // The double view does not move the position past the header.
+
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(cachePath.toAbsolutePath().getParent(),
+                    cachePath.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporary, cachePath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignorable) {
+            // The cache is only an optimization.
+            try {
+                if (temporary != null) Files.deleteIfExists(temporary);
+            } catch (IOException alsoIgnorable) {
+                // Nothing else can be done.
+            }
+        }
+    }
+
+    /**
+     * Splits the bytes of a file into whitespace-separated numbers, without
+     * creating a {@code String} for each line.
+     */
+    private static class Tokenizer {
+
+        /** Bytes of the file. */
+        private byte[] bytes;
+
+        /** Index of the next byte. */
+        private int position;
+
+        /**
+         * Constructor specifying the bytes of the file.
+         *
+         * @param bytes The specified bytes.
+         */
+        Tokenizer(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Returns the next number.
+         *
+         * @return The next number.
+         * @throws IOException If the end of the file is reached, or if the
+         *         number is invalid.
+         */
+        double nextValue() throws IOException {
+            while (position < bytes.length && bytes[position] <= ' ') {
+                position ++;
+            }
+            if (position == bytes.length) {
+                throw new IOException("Unexpected end of file.");
+            }
+
+            int start = position;
+            boolean negative = bytes[position] == '-';
+            if (negative) position ++;
+            long value = 0;
+            boolean integer = position < bytes.length && bytes[position] > ' ';
+            while (position < bytes.length && bytes[position] > ' ') {
+                int digit = bytes[position ++] - '0';
+                if (digit < 0 || digit > 9 || value > Long.MAX_VALUE / 10 - 9) {
+                    integer = false;
+                } else {
+                    value = value * 10 + digit;
+                }
+            }
+            if (integer) {
+                return negative ? -value : value;
+            }
+
+            String token = new String(bytes, start, position - start);
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException ex) {
+                throw new IOException("Invalid number: " + token);
             }
         }
     }
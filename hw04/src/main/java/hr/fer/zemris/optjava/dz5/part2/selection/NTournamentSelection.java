@@ -20,7 +20,7 @@ public class NTournamentSelection {
     private List<Solution> solutions;
 
     /** Single {@link Random} instance. */
-    private Random random = new Random();
+    private Random random;
 
     /**
      * Constructor specifying the number of solutions participating in the
@@ -29,8 +29,20 @@ public class NTournamentSelection {
      * @param n The specified parameter.
      */
     public NTournamentSelection(int n) {
+        this(n, new Random());
+    }
+
+    /**
+     * Constructor specifying the number of solutions participating in the
+     * tournament and the {@link Random} instance.
+     *
+     * @param n The specified parameter.
+     * @param random The specified {@link Random} instance.
+     */
+    public NTournamentSelection(int n, Random random) {
         this.n = n;
         this.solutions = new ArrayList<>();
+        this.random = random;
     }
 
     /**
@@ -2,6 +2,7 @@ package hr.fer.zemris.optjava.dz5.part2.solution;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Class which encapsulates a {@code List} of {@link Solution}s.
@@ -26,6 +27,21 @@ public class Population {
         }
     }
 
+    /**
+     * Constructor specifying the population and solution dimensions, and the
+     * {@link Random} instance used to generate the solutions.
+     *
+     * @param size The specified size of the population.
+     * @param solutionSize The specified size of the solution.
+     * @param random The specified {@link Random} instance.
+     */
+    public Population(int size, int solutionSize, Random random) {
+        solutions = new ArrayList<>(size);
+        for (int i = 0; i < size; i ++) {
+            solutions.add(new Solution(solutionSize, random));
+        }
+    }
+
     /**
      * Constructor specifying the {@code List} of {@link Solution}s.
      *
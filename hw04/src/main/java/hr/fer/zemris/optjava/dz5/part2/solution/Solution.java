@@ -14,8 +14,8 @@ public class Solution implements Comparable<Solution> {
     /** Single {@link Random} instance. */
     private static Random random = new Random();
 
-    /** Value of the solution. */
-    public double value;
+    /** Value of the solution ({@code NaN} if not yet evaluated). */
+    public double value = Double.NaN;
 
     /** Fitness corresponding to the value of the solution. */
     public double fitness;
@@ -29,8 +29,19 @@ public class Solution implements Comparable<Solution> {
      * @param size The specified size;
      */
     public Solution(int size) {
+        this(size, random);
+    }
+
+    /**
+     * Constructor specifying the size of the values array, which is randomly
+     * generated using the given {@link Random} instance.
+     *
+     * @param size The specified size.
+     * @param random The given {@link Random} instance.
+     */
+    public Solution(int size, Random random) {
         values = new int[size];
-        randomize();
+        randomize(random);
     }
 
     /**
@@ -42,6 +53,18 @@ public class Solution implements Comparable<Solution> {
         this.values = values;
     }
 
+    /**
+     * Constructor which copies the values array, the value and the fitness of
+     * the given solution.
+     *
+     * @param other The given solution.
+     */
+    public Solution(Solution other) {
+        this.values = other.values.clone();
+        this.value = other.value;
+        this.fitness = other.fitness;
+    }
+
     /**
      * <p>Compares this solution with the specified solution.</p>
      * <p>Returns a negative integer, zero, or a positive integer as this
@@ -66,8 +89,10 @@ public class Solution implements Comparable<Solution> {
 
     /**
      * Randomly switches elements in the values array.
+     *
+     * @param random The used {@link Random} instance.
      */
-    private void randomize() {
+    private void randomize(Random random) {
         generateOrdered();
 
         for (int i = 0; i < values.length - 1; i ++) {
@@ -0,0 +1,171 @@
+package hr.fer.zemris.optjava.dz6;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>Single ant, which constructs a tour using the choice information.</p>
+ * <p>The tour is stored in a primitive array, the visited nodes in a bitset
+ * and the probability components in a reusable buffer, so constructing a
+ * tour does not allocate. Each ant has its own {@link Random} instance, so
+ * different ants can construct their tours concurrently. The next node is
+ * chosen among the unvisited candidates of the current node, which takes
+ * {@code O(k)} time for {@code k} candidates; only if all of them are
+ * visited, the non-candidates are considered. If the non-candidate lists are
+ * not created, the nearest unvisited node is chosen instead (as all
+ * non-candidate vertices have the same, minimum pheromone value).</p>
+ *
+ * @author Mate Gašparini
+ */
+class Ant {
+
+    /** The visited nodes, in order. */
+    final int[] tour;
+
+    /** Length of the constructed tour (including the closing edge). */
+    double length;
+
+    /** Bitset of the visited nodes. */
+    private final long[] visited;
+
+    /** Probability components of the nodes considered in a step. */
+    private final double[] components;
+
+    /** The ant's own {@link Random} instance. */
+    private final Random random;
+
+    /**
+     * Constructor specifying the number of nodes, the maximum number of nodes
+     * considered in a step and the ant's own {@link Random} instance.
+     *
+     * @param size The specified number of nodes.
+     * @param maxChoices The specified maximum number of considered nodes.
+     * @param random The specified {@link Random} instance.
+     */
+    Ant(int size, int maxChoices, Random random) {
+        this.random = random;
+        this.tour = new int[size];
+        this.visited = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        this.components = new double[maxChoices];
+    }
+
+    /**
+     * Constructs a tour which starts at a random node and calculates its
+     * length.
+     *
+     * @param nodes The candidate and non-candidate lists.
+     * @param choice The choice information.
+     * @param distances The distances.
+     */
+    void constructTour(Nodes nodes, ChoiceInformation choice, IDistances distances) {
+        int size = tour.length;
+        Arrays.fill(visited, 0L);
+
+        int current = random.nextInt(size);
+        tour[0] = current;
+        visit(current);
+        length = 0.0;
+        for (int step = 1; step < size; step ++) {
+            int[] candidates = nodes.getCandidates(current);
+            int index = choose(candidates, choice.getCandidateRow(current), true);
+            int next;
+            if (index >= 0) {
+                next = candidates[index];
+                length += nodes.getCandidateDistances(current)[index];
+            } else {
+                if (nodes.hasNonCandidates()) {
+                    int[] nonCandidates = nodes.getNonCandidates(current);
+                    next = nonCandidates[choose(nonCandidates, choice.getRow(current), false)];
+                } else {
+                    next = nearestUnvisited(current, distances);
+                }
+                length += distances.get(current, next);
+            }
+            tour[step] = next;
+            visit(next);
+            current = next;
+        }
+        length += distances.get(current, tour[0]);
+    }
+
+    /**
+     * Chooses one of the unvisited nodes from the given list, with the
+     * probability proportional to its choice information.
+     *
+     * @param list The given list of nodes.
+     * @param row The choice information of the current node.
+     * @param aligned {@code true} if the choice information is given in the
+     *                order of the list, or {@code false} if it is indexed by
+     *                the nodes.
+     * @return The index of the chosen node in the list, or {@code -1} if all
+     *         nodes are visited.
+     */
+    private int choose(int[] list, double[] row, boolean aligned) {
+        double sum = 0.0;
+        int last = -1;
+        for (int i = 0; i < list.length; i ++) {
+            int node = list[i];
+            if (isVisited(node)) {
+                components[i] = 0.0;
+                continue;
+            }
+            components[i] = aligned ? row[i] : row[node];
+            sum += components[i];
+            last = i;
+        }
+        if (last < 0) return -1;
+
+        double limit = random.nextDouble() * sum;
+        for (int i = 0; i < last; i ++) {
+            limit -= components[i];
+            if (limit < 0.0 && components[i] > 0.0) return i;
+        }
+        return last; // Last element for rounding errors.
+    }
+
+    /**
+     * Returns the unvisited node which is the nearest to the given node.
+     *
+     * @param current The given node.
+     * @param distances The distances.
+     * @return The nearest unvisited node.
+     */
+    private int nearestUnvisited(int current, IDistances distances) {
+        int nearest = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int word = 0; word < visited.length; word ++) {
+            long unvisited = ~visited[word];
+            while (unvisited != 0) {
+                int node = word * Long.SIZE + Long.numberOfTrailingZeros(unvisited);
+                if (node >= tour.length) break;
+                unvisited &= unvisited - 1;
+
+                double distance = distances.get(current, node);
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = node;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Marks the given node as visited.
+     *
+     * @param node The given node.
+     */
+    private void visit(int node) {
+        visited[node >>> 6] |= 1L << node;
+    }
+
+    /**
+     * Returns {@code true} if the given node is visited.
+     *
+     * @param node The given node.
+     * @return {@code true} if the node is visited, or {@code false} otherwise.
+     */
+    private boolean isVisited(int node) {
+        return (visited[node >>> 6] & (1L << node)) != 0;
+    }
+}
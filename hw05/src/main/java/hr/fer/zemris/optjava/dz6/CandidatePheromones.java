@@ -0,0 +1,154 @@
+package hr.fer.zemris.optjava.dz6;
+
+import java.util.Arrays;
+
+/**
+ * <p>{@link IPheromones} implementation which stores the pheromone values only
+ * for the candidate vertices of each node (so it takes {@code O(n*k)} memory
+ * for {@code k} candidates), while all other vertices have the implicit
+ * minimum pheromone value.</p>
+ * <p>The evaporation is lazy: the values are stored divided by a common
+ * scale, so evaporating all of them only multiplies the scale and takes
+ * constant time. The lower bound is applied when the values are read.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class CandidatePheromones implements IPheromones {
+
+    /** Scale below which the stored values are normalized. */
+    private static final double MIN_SCALE = 1E-100;
+
+    /** The candidate lists. */
+    private Nodes nodes;
+
+    /** The rate at which all pheromones (in each iteration) evaporate. */
+    private double evaporationRate;
+
+    /** Ratio between {@code tauMin} and {@code tauMax}. */
+    private double a;
+
+    /** Pheromone values of the candidate vertices, divided by the scale. */
+    private double[][] values;
+
+    /** The common scale of all stored values. */
+    private double scale;
+
+    /** Maximum allowed pheromone value. */
+    private double tauMax;
+
+    /** Minimum allowed pheromone value. */
+    private double tauMin;
+
+    /**
+     * Constructor specifying all needed initialization information.
+     *
+     * @param nodes The specified candidate lists.
+     * @param evaporationRate The specified evaporation rate.
+     * @param a The specified ratio between minimum and maximum pheromone value.
+     * @param tau0 The specified starting maximum allowed pheromone value.
+     */
+    public CandidatePheromones(Nodes nodes, double evaporationRate, double a, double tau0) {
+        this.nodes = nodes;
+        this.evaporationRate = evaporationRate;
+        this.a = a;
+        setTauMax(tau0);
+        this.values = new double[nodes.size()][nodes.getCandidateCount()];
+        resetValues();
+    }
+
+    @Override
+    public double get(int from, int to) {
+        int slot = slotOf(from, to);
+        if (slot >= 0) return value(from, slot);
+        slot = slotOf(to, from);
+        if (slot >= 0) return value(to, slot);
+        return tauMin;
+    }
+
+    @Override
+    public void setTauMax(double tauMax) {
+        this.tauMax = tauMax;
+        this.tauMin = tauMax / a;
+    }
+
+    @Override
+    public void evaporate() {
+        scale *= (1 - evaporationRate);
+        if (scale < MIN_SCALE) {
+            for (double[] row : values) {
+                for (int slot = 0; slot < row.length; slot ++) {
+                    row[slot] *= scale;
+                }
+            }
+            scale = 1.0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The vertices which are not candidates of either node keep the
+     * minimum pheromone value.</p>
+     */
+    @Override
+    public void update(int[] pathNodes, double delta) {
+        for (int i = 0; i < pathNodes.length - 1; i ++) {
+            int from = pathNodes[i];
+            int to = pathNodes[i+1];
+            deposit(from, to, delta);
+            deposit(to, from, delta);
+        }
+    }
+
+    @Override
+    public void resetValues() {
+        scale = 1.0;
+        for (double[] row : values) {
+            Arrays.fill(row, tauMax);
+        }
+    }
+
+    /**
+     * Increases the pheromone value of the specified vertex for the specified
+     * amount, if the second node is a candidate of the first one.
+     *
+     * @param node First node of the vertex.
+     * @param other Second node of the vertex.
+     * @param delta The specified amount.
+     */
+    private void deposit(int node, int other, double delta) {
+        int slot = slotOf(node, other);
+        if (slot < 0) return;
+        double value = value(node, slot) + delta;
+        if (value > tauMax) value = tauMax;
+        values[node][slot] = value / scale;
+    }
+
+    /**
+     * Returns the bounded pheromone value of the specified node's candidate.
+     *
+     * @param node The specified node.
+     * @param slot The position of the candidate in the candidate list.
+     * @return The corresponding pheromone value.
+     */
+    private double value(int node, int slot) {
+        double value = values[node][slot] * scale;
+        return value < tauMin ? tauMin : value;
+    }
+
+    /**
+     * Returns the position of the second node in the first node's candidate
+     * list.
+     *
+     * @param node The first node.
+     * @param other The second node.
+     * @return The position of the second node, or {@code -1} if it is not a
+     *         candidate.
+     */
+    private int slotOf(int node, int other) {
+        int[] candidates = nodes.getCandidates(node);
+        for (int slot = 0; slot < candidates.length; slot ++) {
+            if (candidates[slot] == other) return slot;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,119 @@
+package hr.fer.zemris.optjava.dz6;
+
+import static java.lang.Math.pow;
+
+/**
+ * <p>Class containing choice information for some TSP, which is the pheromone
+ * value to the power of some specified value <i>alpha</i>, multiplied by the
+ * heuristic information.</p>
+ * <p>The values are recalculated once per iteration (after the pheromones
+ * are updated), so that ants do not need to exponentiate anything while
+ * constructing their tours. The values of the candidate vertices are always
+ * stored (in the order of the candidate lists), while the matrix of all
+ * values is stored only if the non-candidate lists are created.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class ChoiceInformation {
+
+    /** The candidate lists. */
+    private Nodes nodes;
+
+    /** Values of the candidate vertices of each node. */
+    private double[][] candidateValues;
+
+    /** Matrix containing all values (or {@code null}). */
+    private double[][] values;
+
+    /** Used for exponentiation of pheromone values. */
+    private double alpha;
+
+    /**
+     * Constructor specifying the candidate lists and the <i>alpha</i> value.
+     *
+     * @param nodes The specified candidate lists.
+     * @param alpha The specified <i>alpha</i> value.
+     */
+    public ChoiceInformation(Nodes nodes, double alpha) {
+        this.nodes = nodes;
+        this.alpha = alpha;
+        this.candidateValues = new double[nodes.size()][nodes.getCandidateCount()];
+        if (nodes.hasNonCandidates()) {
+            this.values = new double[nodes.size()][nodes.size()];
+        }
+    }
+
+    /**
+     * Returns the values of the specified node's candidates, in the order of
+     * the candidate list (which must not be modified).
+     *
+     * @param row The specified node.
+     * @return The corresponding values.
+     */
+    public double[] getCandidateRow(int row) {
+        return candidateValues[row];
+    }
+
+    /**
+     * Returns the specified row of the internal matrix (which must not be
+     * modified).
+     *
+     * @param row The specified row.
+     * @return The corresponding row.
+     * @throws IllegalStateException If the matrix is not stored.
+     */
+    public double[] getRow(int row) {
+        if (values == null) {
+            throw new IllegalStateException("Only the candidate values are stored.");
+        }
+        return values[row];
+    }
+
+    /**
+     * Recalculates all values (except the diagonal, which stays zero) from
+     * the given pheromones and heuristic information.
+     *
+     * @param pheromones The given pheromones.
+     * @param heuristic The given heuristic information.
+     */
+    public void update(IPheromones pheromones, HeuristicInformation heuristic) {
+        update(pheromones, heuristic, 0, nodes.size());
+    }
+
+    /**
+     * Recalculates the values in the given range of rows (so that disjoint
+     * ranges can be recalculated concurrently).
+     *
+     * @param pheromones The given pheromones.
+     * @param heuristic The given heuristic information.
+     * @param from The first row (inclusive).
+     * @param to The last row (exclusive).
+     */
+    public void update(IPheromones pheromones, HeuristicInformation heuristic, int from, int to) {
+        for (int row = from; row < to; row ++) {
+            int[] candidates = nodes.getCandidates(row);
+            double[] rowCandidateValues = candidateValues[row];
+            for (int slot = 0; slot < candidates.length; slot ++) {
+                rowCandidateValues[slot] = weight(pheromones.get(row, candidates[slot]))
+                        * heuristic.getCandidate(row, slot);
+            }
+
+            if (values == null) continue;
+            double[] rowValues = values[row];
+            for (int col = 0; col < rowValues.length; col ++) {
+                if (row == col) continue;
+                rowValues[col] = weight(pheromones.get(row, col)) * heuristic.get(row, col);
+            }
+        }
+    }
+
+    /**
+     * Returns the given pheromone value to the power of <i>alpha</i>.
+     *
+     * @param tau The given pheromone value.
+     * @return The calculated value.
+     */
+    private double weight(double tau) {
+        return alpha == 1.0 ? tau : pow(tau, alpha);
+    }
+}
@@ -0,0 +1,112 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * <p>{@link IDistances} implementation which calculates the distances on
+ * demand from the node coordinates, using one of the TSPLIB edge weight
+ * functions.</p>
+ * <p>It takes linear memory, so it is used for large instances, where the
+ * distance matrix would not fit. The distances to the candidates (which are
+ * needed most often) are cached by {@link Nodes}.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class CoordinateDistances implements IDistances {
+
+    /**
+     * The supported TSPLIB edge weight functions.
+     */
+    public enum Type {
+
+        /** Euclidean distance, rounded to the nearest integer. */
+        EUC_2D,
+
+        /** Euclidean distance, rounded up. */
+        CEIL_2D,
+
+        /** Pseudo-Euclidean distance (used by the {@code att} instances). */
+        ATT,
+
+        /** Geographical distance (the coordinates are latitude and longitude). */
+        GEO
+    }
+
+    /** Approximation of pi defined by TSPLIB for geographical distances. */
+    private static final double GEO_PI = 3.141592;
+
+    /** Earth radius defined by TSPLIB for geographical distances. */
+    private static final double EARTH_RADIUS = 6378.388;
+
+    /** The edge weight function. */
+    private Type type;
+
+    /** The x coordinates (or latitudes, in radians) of the nodes. */
+    private double[] x;
+
+    /** The y coordinates (or longitudes, in radians) of the nodes. */
+    private double[] y;
+
+    /**
+     * Constructor specifying the node coordinates and the edge weight
+     * function.
+     *
+     * @param points The specified coordinates ({@code x} and {@code y} of
+     *               each node, or latitude and longitude in the TSPLIB
+     *               {@code DDD.MM} format).
+     * @param type The specified edge weight function.
+     */
+    public CoordinateDistances(double[][] points, Type type) {
+        this.type = type;
+        this.x = new double[points.length];
+        this.y = new double[points.length];
+        for (int i = 0; i < points.length; i ++) {
+            if (type == Type.GEO) {
+                x[i] = radians(points[i][0]);
+                y[i] = radians(points[i][1]);
+            } else {
+                x[i] = points[i][0];
+                y[i] = points[i][1];
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return x.length;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        if (type == Type.GEO) {
+            double q1 = Math.cos(y[from] - y[to]);
+            double q2 = Math.cos(x[from] - x[to]);
+            double q3 = Math.cos(x[from] + x[to]);
+            return (int) (EARTH_RADIUS * Math.acos(0.5 * ((1.0 + q1)*q2 - (1.0 - q1)*q3)) + 1.0);
+        }
+
+        double xDelta = x[to] - x[from];
+        double yDelta = y[to] - y[from];
+        double squared = xDelta*xDelta + yDelta*yDelta;
+        if (type == Type.EUC_2D) {
+            return (int) (Math.sqrt(squared) + 0.5);
+        } else if (type == Type.CEIL_2D) {
+            return Math.ceil(Math.sqrt(squared));
+        } else {
+            double r = Math.sqrt(squared / 10.0);
+            int t = (int) (r + 0.5);
+            return t < r ? t + 1 : t;
+        }
+    }
+
+    /**
+     * Converts the given TSPLIB geographical coordinate ({@code DDD.MM},
+     * degrees and minutes) to radians.
+     *
+     * @param coordinate The given coordinate.
+     * @return The coordinate in radians.
+     */
+    private static double radians(double coordinate) {
+        int degrees = (int) coordinate;
+        double minutes = coordinate - degrees;
+        return GEO_PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+    }
+}
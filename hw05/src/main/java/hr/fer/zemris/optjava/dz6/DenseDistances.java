@@ -0,0 +1,46 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * {@link IDistances} implementation which stores all distances in a matrix.
+ *
+ * @author Mate Gašparini
+ */
+public class DenseDistances implements IDistances {
+
+    /** The distance matrix. */
+    private double[][] distances;
+
+    /**
+     * Constructor specifying the distance matrix (which is not copied).
+     *
+     * @param distances The specified distance matrix.
+     */
+    public DenseDistances(double[][] distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Constructor which calculates all distances of the given provider.
+     *
+     * @param source The given provider.
+     */
+    public DenseDistances(IDistances source) {
+        int size = source.size();
+        this.distances = new double[size][size];
+        for (int row = 0; row < size; row ++) {
+            for (int col = 0; col < size; col ++) {
+                distances[row][col] = source.get(row, col);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return distances.length;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        return distances[from][to];
+    }
+}
@@ -3,25 +3,52 @@ package hr.fer.zemris.optjava.dz6;
 import static java.lang.Math.pow;
 
 /**
- * Class containing a matrix of heuristic information (reciprocal distance
- * values to the power of some specified value <i>beta</i>) for some TSP.
+ * <p>Class containing heuristic information (reciprocal distance values to
+ * the power of some specified value <i>beta</i>) for some TSP.</p>
+ * <p>The values of the candidate vertices are always stored (in the order of
+ * the candidate lists). The matrix of all values is stored only if the
+ * non-candidate lists are created, and the other values are calculated on
+ * demand.</p>
  *
  * @author Mate Gašparini
  */
 public class HeuristicInformation {
 
-    /** Matrix containing the values. */
+    /** Values of the candidate vertices of each node. */
+    private double[][] candidateValues;
+
+    /** Matrix containing all values (or {@code null}). */
     private double[][] lists;
 
+    /** The distances. */
+    private IDistances distances;
+
+    /** The <i>beta</i> value. */
+    private double beta;
+
     /**
-     * Constructor specifying the distance matrix and the <i>beta</i> value.
+     * Constructor specifying the candidate lists, the distances and the
+     * <i>beta</i> value.
      *
-     * @param distances The specified distance matrix.
+     * @param nodes The specified candidate lists.
+     * @param distances The specified distances.
      * @param beta The specified <i>beta</i> value.
      */
-    public HeuristicInformation(double[][] distances, double beta) {
-        this.lists = new double[distances.length][distances.length];
-        fillLists(distances, beta);
+    public HeuristicInformation(Nodes nodes, IDistances distances, double beta) {
+        this.distances = distances;
+        this.beta = beta;
+        this.candidateValues = new double[nodes.size()][];
+        for (int row = 0; row < nodes.size(); row ++) {
+            double[] rowDistances = nodes.getCandidateDistances(row);
+            candidateValues[row] = new double[rowDistances.length];
+            for (int slot = 0; slot < rowDistances.length; slot ++) {
+                candidateValues[row][slot] = pow(1.0 / rowDistances[slot], beta);
+            }
+        }
+        if (nodes.hasNonCandidates()) {
+            this.lists = new double[nodes.size()][nodes.size()];
+            fillLists();
+        }
     }
 
     /**
@@ -29,24 +56,33 @@ public class HeuristicInformation {
      *
      * @param row The specified row.
      * @param col The specified column.
-     * @return The corresponding value from the internal matrix.
+     * @return The corresponding value.
      */
     public double get(int row, int col) {
-        return lists[row][col];
+        if (lists != null) return lists[row][col];
+        return pow(1.0 / distances.get(row, col), beta);
+    }
+
+    /**
+     * Returns the value of the specified node's candidate.
+     *
+     * @param row The specified node.
+     * @param slot The position of the candidate in the candidate list.
+     * @return The corresponding value.
+     */
+    public double getCandidate(int row, int slot) {
+        return candidateValues[row][slot];
     }
 
     /**
      * Calculates all values (except the diagonal, as it does not make sense)
      * and stores them in the internal matrix.
-     *
-     * @param distances The specified distance matrix.
-     * @param beta The specified <i>beta</i> value.
      */
-    private void fillLists(double[][] distances, double beta) {
-        for (int row = 0; row < distances.length; row ++) {
-            for (int col = 0; col < distances.length; col ++) {
+    private void fillLists() {
+        for (int row = 0; row < lists.length; row ++) {
+            for (int col = 0; col < lists.length; col ++) {
                 if (row == col) continue;
-                lists[row][col] = pow(1.0 / distances[row][col], beta);
+                lists[row][col] = pow(1.0 / distances.get(row, col), beta);
             }
         }
     }
@@ -0,0 +1,25 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * Distances between the nodes of some TSP graph.
+ *
+ * @author Mate Gašparini
+ */
+public interface IDistances {
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return The number of nodes.
+     */
+    int size();
+
+    /**
+     * Returns the distance between the specified nodes.
+     *
+     * @param from The first node.
+     * @param to The second node.
+     * @return The corresponding distance.
+     */
+    double get(int from, int to);
+}
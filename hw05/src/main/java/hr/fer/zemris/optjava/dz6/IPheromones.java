@@ -0,0 +1,50 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * Pheromone values for some TSP graph, bounded by the current minimum and
+ * maximum pheromone value.
+ *
+ * @author Mate Gašparini
+ */
+public interface IPheromones {
+
+    /**
+     * <p>Returns the pheromone value at the specified vertex from the TSP
+     * graph.</p>
+     * <p>Note that if the parameters change place, the returned value will be
+     * the same.</p>
+     *
+     * @param from First node of the vertex.
+     * @param to Second node of the vertex.
+     * @return The corresponding pheromone value.
+     */
+    double get(int from, int to);
+
+    /**
+     * Sets the maximum pheromone value to the given value, and calculates the
+     * minimum pheromone value.
+     *
+     * @param tauMax The given value.
+     */
+    void setTauMax(double tauMax);
+
+    /**
+     * Evaporates all pheromones (and does not allow the values to drop below
+     * the current minimum pheromone value).
+     */
+    void evaporate();
+
+    /**
+     * Increases the pheromone values for the specified amount for each vertex
+     * from the given path.
+     *
+     * @param pathNodes The given path.
+     * @param delta The specified amount.
+     */
+    void update(int[] pathNodes, double delta);
+
+    /**
+     * Sets all pheromone values to the current maximum pheromone value.
+     */
+    void resetValues();
+}
@@ -0,0 +1,311 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * <p>Two-dimensional KD-tree over the node coordinates, used for finding the
+ * nearest neighbors of the nodes in {@code O(log n)} (expected) time.</p>
+ * <p>The tree is implicit: the node indices are permuted so that the median
+ * of each range (by the coordinate of the range's depth) splits it into the
+ * two subtrees, and small ranges are scanned linearly. Searches do not
+ * modify the tree, so different threads can search it concurrently (each
+ * using its own {@link Search} instance).</p>
+ *
+ * @author Mate Gašparini
+ */
+class KDTree {
+
+    /** Size of the ranges which are not split any further. */
+    private static final int LEAF_SIZE = 8;
+
+    /** Number of quadrants. */
+    static final int QUADRANTS = 4;
+
+    /** The x coordinates of the nodes. */
+    private final double[] x;
+
+    /** The y coordinates of the nodes. */
+    private final double[] y;
+
+    /** The node indices, in the tree order. */
+    private final int[] order;
+
+    /**
+     * Constructor which builds the tree over the specified coordinates.
+     *
+     * @param points The specified coordinates ({@code x} and {@code y} of
+     *               each node).
+     */
+    KDTree(double[][] points) {
+        int size = points.length;
+        this.x = new double[size];
+        this.y = new double[size];
+        this.order = new int[size];
+        for (int i = 0; i < size; i ++) {
+            x[i] = points[i][0];
+            y[i] = points[i][1];
+            order[i] = i;
+        }
+        build(0, size, 0);
+    }
+
+    /**
+     * Builds the subtree over the given range of the tree order.
+     *
+     * @param from The first index (inclusive).
+     * @param to The last index (exclusive).
+     * @param depth The depth of the subtree (which defines the coordinate).
+     */
+    private void build(int from, int to, int depth) {
+        while (to - from > LEAF_SIZE) {
+            int middle = (from + to) >>> 1;
+            select(from, to, middle, coordinates(depth));
+            build(from, middle, depth + 1);
+            from = middle + 1;
+            depth ++;
+        }
+    }
+
+    /**
+     * Partially sorts the given range of the tree order (by the given
+     * coordinates), so that the given index holds the node which would be
+     * there if the range were sorted, with no greater nodes before it and no
+     * smaller nodes after it.
+     *
+     * @param from The first index (inclusive).
+     * @param to The last index (exclusive).
+     * @param k The given index.
+     * @param key The given coordinates.
+     */
+    private void select(int from, int to, int k, double[] key) {
+        int left = from;
+        int right = to - 1;
+        while (left < right) {
+            double pivot = key[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (key[order[i]] < pivot) i ++;
+                while (key[order[j]] > pivot) j --;
+                if (i <= j) {
+                    int swap = order[i];
+                    order[i] = order[j];
+                    order[j] = swap;
+                    i ++;
+                    j --;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the coordinates used for splitting at the given depth.
+     *
+     * @param depth The given depth.
+     * @return The corresponding coordinates.
+     */
+    private double[] coordinates(int depth) {
+        return (depth & 1) == 0 ? x : y;
+    }
+
+    /**
+     * <p>Search for the nearest neighbors of a node, with its own buffers.</p>
+     * <p>The neighbors can be restricted to one quadrant around the node
+     * (the quadrants are half-open, so each other node, except the ones with
+     * the same coordinates, belongs to exactly one of them).</p>
+     */
+    class Search {
+
+        /** The found nodes (sorted by the distance within each search). */
+        final int[] found;
+
+        /** Squared distances of the found nodes. */
+        final double[] squaredDistances;
+
+        /** Number of found nodes. */
+        int count;
+
+        /** Maximum number of found nodes. */
+        private int limit;
+
+        /** The node whose neighbors are searched for. */
+        private int node;
+
+        /** The searched quadrant (or {@code -1} for all of them). */
+        private int quadrant;
+
+        /** Number of found nodes which are skipped by the current search. */
+        private int skipped;
+
+        /**
+         * Constructor specifying the maximum number of found nodes.
+         *
+         * @param capacity The specified maximum number of found nodes.
+         */
+        Search(int capacity) {
+            this.found = new int[capacity];
+            this.squaredDistances = new double[capacity];
+        }
+
+        /**
+         * Finds the given number of nodes nearest to the given node, in the
+         * given quadrant, and appends them to the found nodes (which are
+         * skipped, and stay in front).
+         *
+         * @param node The given node.
+         * @param quadrant The given quadrant (or {@code -1} for all of them).
+         * @param number The given number of nodes.
+         */
+        void find(int node, int quadrant, int number) {
+            if (number <= 0 || count == found.length) return;
+            this.node = node;
+            this.quadrant = quadrant;
+            this.skipped = count;
+            this.limit = Math.min(count + number, found.length);
+            search(0, order.length, 0,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Sorts all found nodes by the distance.
+         */
+        void sort() {
+            for (int i = 1; i < count; i ++) {
+                int candidate = found[i];
+                double distance = squaredDistances[i];
+                int j = i;
+                while (j > 0 && squaredDistances[j - 1] > distance) {
+                    found[j] = found[j - 1];
+                    squaredDistances[j] = squaredDistances[j - 1];
+                    j --;
+                }
+                found[j] = candidate;
+                squaredDistances[j] = distance;
+            }
+        }
+
+        /**
+         * Searches the subtree over the given range of the tree order, whose
+         * nodes lie in the given region.
+         *
+         * @param from The first index (inclusive).
+         * @param to The last index (exclusive).
+         * @param depth The depth of the subtree.
+         * @param minX The minimum x coordinate of the region.
+         * @param maxX The maximum x coordinate of the region.
+         * @param minY The minimum y coordinate of the region.
+         * @param maxY The maximum y coordinate of the region.
+         */
+        private void search(int from, int to, int depth,
+                            double minX, double maxX, double minY, double maxY) {
+            if (from >= to || !intersects(minX, maxX, minY, maxY)) return;
+            if (count == limit) {
+                double xDelta = Math.max(Math.max(minX - x[node], x[node] - maxX), 0.0);
+                double yDelta = Math.max(Math.max(minY - y[node], y[node] - maxY), 0.0);
+                if (xDelta*xDelta + yDelta*yDelta >= squaredDistances[count - 1]) return;
+            }
+
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i ++) {
+                    consider(order[i]);
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            int median = order[middle];
+            consider(median);
+            if ((depth & 1) == 0) {
+                double split = x[median];
+                if (x[node] < split) {
+                    search(from, middle, depth + 1, minX, split, minY, maxY);
+                    search(middle + 1, to, depth + 1, split, maxX, minY, maxY);
+                } else {
+                    search(middle + 1, to, depth + 1, split, maxX, minY, maxY);
+                    search(from, middle, depth + 1, minX, split, minY, maxY);
+                }
+            } else {
+                double split = y[median];
+                if (y[node] < split) {
+                    search(from, middle, depth + 1, minX, maxX, minY, split);
+                    search(middle + 1, to, depth + 1, minX, maxX, split, maxY);
+                } else {
+                    search(middle + 1, to, depth + 1, minX, maxX, split, maxY);
+                    search(from, middle, depth + 1, minX, maxX, minY, split);
+                }
+            }
+        }
+
+        /**
+         * Adds the given node to the found nodes, if it is among the nearest
+         * ones (and if it is not the searched node, or an already found
+         * one).
+         *
+         * @param other The given node.
+         */
+        private void consider(int other) {
+            if (other == node) return;
+            double xDelta = x[other] - x[node];
+            double yDelta = y[other] - y[node];
+            if (quadrant >= 0 && quadrant(xDelta, yDelta) != quadrant) return;
+
+            double distance = xDelta*xDelta + yDelta*yDelta;
+            if (count == limit && distance >= squaredDistances[count - 1]) return;
+            for (int i = 0; i < skipped; i ++) {
+                if (found[i] == other) return;
+            }
+
+            int i = count < limit ? count ++ : count - 1;
+            while (i > skipped && squaredDistances[i - 1] > distance) {
+                found[i] = found[i - 1];
+                squaredDistances[i] = squaredDistances[i - 1];
+                i --;
+            }
+            found[i] = other;
+            squaredDistances[i] = distance;
+        }
+
+        /**
+         * Returns {@code true} if the given region intersects the searched
+         * quadrant.
+         *
+         * @param minX The minimum x coordinate of the region.
+         * @param maxX The maximum x coordinate of the region.
+         * @param minY The minimum y coordinate of the region.
+         * @param maxY The maximum y coordinate of the region.
+         * @return {@code true} if the region intersects the quadrant, or
+         *         {@code false} otherwise.
+         */
+        private boolean intersects(double minX, double maxX, double minY, double maxY) {
+            double px = x[node];
+            double py = y[node];
+            if (quadrant == 0) return maxX >= px && maxY > py;
+            if (quadrant == 1) return minX < px && maxY >= py;
+            if (quadrant == 2) return minX <= px && minY < py;
+            if (quadrant == 3) return maxX > px && minY <= py;
+            return true;
+        }
+    }
+
+    /**
+     * Returns the quadrant of the given offset (or {@code -1} for the zero
+     * offset).
+     *
+     * @param xDelta The x coordinate of the offset.
+     * @param yDelta The y coordinate of the offset.
+     * @return The corresponding quadrant.
+     */
+    static int quadrant(double xDelta, double yDelta) {
+        if (xDelta >= 0 && yDelta > 0) return 0;
+        if (xDelta < 0 && yDelta >= 0) return 1;
+        if (xDelta <= 0 && yDelta < 0) return 2;
+        if (xDelta > 0 && yDelta <= 0) return 3;
+        return -1;
+    }
+}
@@ -0,0 +1,354 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * <p>Local search which improves a tour using the <i>2-opt</i> and the
+ * <i>Or-opt</i> moves, until no improving move is found.</p>
+ * <p>Only the moves which create a vertex between a node and one of its
+ * candidates are considered, and the candidates are sorted by the distance,
+ * so the search for a node stops as soon as no shorter vertex can be
+ * created. The nodes whose neighborhood did not change since their last
+ * unsuccessful search are not searched again (<i>don't look bits</i>), and
+ * the others are kept in a queue. The tour is kept in its array (with the
+ * position of each node), so a 2-opt move reverses the shorter of the two
+ * segments, and an Or-opt move shifts the shorter part of the tour.</p>
+ * <p>An instance keeps its buffers between the searches, so each thread
+ * needs its own instance.</p>
+ *
+ * @author Mate Gašparini
+ */
+public class LocalSearch {
+
+    /**
+     * The tours improved by the local search in each iteration.
+     */
+    public enum Scope {
+
+        /** No tour is improved. */
+        NONE,
+
+        /** Only the iteration-best tour is improved. */
+        ITERATION_BEST,
+
+        /** The tour of each ant is improved. */
+        ALL
+    }
+
+    /** Minimum gain of an accepted move (which prevents rounding loops). */
+    private static final double EPSILON = 1E-9;
+
+    /** Maximum length of a segment moved by an Or-opt move. */
+    private static final int MAX_SEGMENT = 3;
+
+    /** The candidate lists. */
+    private Nodes nodes;
+
+    /** The distances. */
+    private IDistances distances;
+
+    /** The tour which is being improved. */
+    private int[] tour;
+
+    /** Position of each node in the tour. */
+    private int[] position;
+
+    /** Queue of the nodes which should be searched (a ring buffer). */
+    private int[] queue;
+
+    /** Index of the first node in the queue. */
+    private int head;
+
+    /** Number of nodes in the queue. */
+    private int queued;
+
+    /** {@code true} for each node which is in the queue. */
+    private boolean[] inQueue;
+
+    /** Nodes of the moved segment. */
+    private int[] segment = new int[MAX_SEGMENT];
+
+    /** Gain of the last performed move. */
+    private double gain;
+
+    /**
+     * Constructor specifying the candidate lists and the distances.
+     *
+     * @param nodes The specified candidate lists.
+     * @param distances The specified distances.
+     */
+    public LocalSearch(Nodes nodes, IDistances distances) {
+        this.nodes = nodes;
+        this.distances = distances;
+        this.position = new int[nodes.size()];
+        this.queue = new int[nodes.size()];
+        this.inQueue = new boolean[nodes.size()];
+    }
+
+    /**
+     * Improves the given tour (in place) and returns its new length.
+     *
+     * @param tour The given tour.
+     * @param length The length of the given tour.
+     * @return The length of the improved tour.
+     */
+    public double improve(int[] tour, double length) {
+        this.tour = tour;
+        head = 0;
+        queued = 0;
+        for (int i = 0; i < tour.length; i ++) {
+            position[tour[i]] = i;
+            push(tour[i]);
+        }
+
+        while (queued > 0) {
+            int node = queue[head];
+            head = (head + 1) % queue.length;
+            queued --;
+            inQueue[node] = false;
+
+            if (twoOpt(node) || orOpt(node)) {
+                length -= gain;
+                push(node);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Tries to find and perform an improving 2-opt move which replaces a
+     * vertex of the given node with a vertex to one of its candidates.
+     *
+     * @param a The given node.
+     * @return {@code true} if a move is performed, or {@code false} otherwise.
+     */
+    private boolean twoOpt(int a) {
+        int[] candidates = nodes.getCandidates(a);
+        double[] candidateDistances = nodes.getCandidateDistances(a);
+        for (int direction = 0; direction < 2; direction ++) {
+            boolean forward = direction == 0;
+            int b = forward ? next(a) : previous(a);
+            double ab = distances.get(a, b);
+            for (int slot = 0; slot < candidates.length; slot ++) {
+                double ac = candidateDistances[slot];
+                if (ac >= ab) break;
+
+                int c = candidates[slot];
+                int d = forward ? next(c) : previous(c);
+                if (c == b || d == a) continue;
+
+                double moveGain = ab + distances.get(c, d) - ac - distances.get(b, d);
+                if (moveGain > EPSILON) {
+                    if (forward) {
+                        reverse(position[b], position[c]);
+                    } else {
+                        reverse(position[a], position[d]);
+                    }
+                    push(a);
+                    push(b);
+                    push(c);
+                    push(d);
+                    gain = moveGain;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to find and perform an improving Or-opt move which moves a
+     * segment starting or ending with the given node next to a candidate of
+     * one of the segment's ends.
+     *
+     * @param a The given node.
+     * @return {@code true} if a move is performed, or {@code false} otherwise.
+     */
+    private boolean orOpt(int a) {
+        for (int length = 1; length <= MAX_SEGMENT && length + 3 <= tour.length; length ++) {
+            if (moveSegment(position[a], length)) return true;
+            if (length > 1 && moveSegment(index(position[a] - length + 1), length)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tries to find and perform an improving move of the specified segment.
+     *
+     * @param start Position of the first node of the segment.
+     * @param length The length of the segment.
+     * @return {@code true} if a move is performed, or {@code false} otherwise.
+     */
+    private boolean moveSegment(int start, int length) {
+        int first = tour[start];
+        int last = tour[index(start + length - 1)];
+        int before = previous(first);
+        int after = next(last);
+        double removalGain = distances.get(before, first) + distances.get(last, after)
+                - distances.get(before, after);
+        if (removalGain <= EPSILON) return false;
+
+        for (int end = 0; end < 2; end ++) {
+            if (end == 1 && length == 1) break;
+            int x = end == 0 ? first : last;
+            int y = end == 0 ? last : first;
+            int[] candidates = nodes.getCandidates(x);
+            double[] candidateDistances = nodes.getCandidateDistances(x);
+            for (int slot = 0; slot < candidates.length; slot ++) {
+                double xc = candidateDistances[slot];
+                if (xc >= removalGain) break;
+
+                int c = candidates[slot];
+                if (inSegment(c, start, length)) continue;
+                for (int side = 0; side < 2; side ++) {
+                    int o = side == 0 ? next(c) : previous(c);
+                    if (inSegment(o, start, length)) continue;
+
+                    double moveGain = removalGain - xc - distances.get(y, o) + distances.get(c, o);
+                    if (moveGain > EPSILON) {
+                        if (side == 0) {
+                            insert(start, length, c, x == first);
+                        } else {
+                            insert(start, length, o, x == last);
+                        }
+                        push(before);
+                        push(after);
+                        push(first);
+                        push(last);
+                        push(c);
+                        push(o);
+                        gain = moveGain;
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the specified segment between the given node and its successor,
+     * by shifting the shorter part of the tour between them.
+     *
+     * @param start Position of the first node of the segment.
+     * @param length The length of the segment.
+     * @param u The given node (which is not in the segment).
+     * @param forward {@code true} if the first node of the segment should
+     *                follow the given node, or {@code false} if the segment
+     *                should be reversed.
+     */
+    private void insert(int start, int length, int u, boolean forward) {
+        for (int k = 0; k < length; k ++) {
+            segment[k] = tour[index(start + k)];
+        }
+
+        int after = index(position[u] - index(start + length)) + 1;
+        int before = tour.length - length - after;
+        int target;
+        if (after <= before) {
+            for (int k = 0; k < after; k ++) {
+                place(tour[index(start + length + k)], start + k);
+            }
+            target = start + after;
+        } else {
+            target = index(position[u] + 1);
+            for (int k = before - 1; k >= 0; k --) {
+                place(tour[index(target + k)], target + length + k);
+            }
+        }
+        for (int k = 0; k < length; k ++) {
+            place(forward ? segment[k] : segment[length - 1 - k], target + k);
+        }
+    }
+
+    /**
+     * Reverses the part of the tour between the given positions (inclusive,
+     * going forward), or the rest of the tour if it is shorter (which
+     * results in the same cycle).
+     *
+     * @param i The first position.
+     * @param j The last position.
+     */
+    private void reverse(int i, int j) {
+        int length = index(j - i) + 1;
+        if (2 * length > tour.length) {
+            int swap = index(j + 1);
+            j = index(i - 1);
+            i = swap;
+            length = tour.length - length;
+        }
+        for (int k = 0; k < length / 2; k ++) {
+            int node = tour[i];
+            place(tour[j], i);
+            place(node, j);
+            i = index(i + 1);
+            j = index(j - 1);
+        }
+    }
+
+    /**
+     * Puts the given node at the given position (modulo the tour length).
+     *
+     * @param node The given node.
+     * @param index The given position.
+     */
+    private void place(int node, int index) {
+        index = index(index);
+        tour[index] = node;
+        position[node] = index;
+    }
+
+    /**
+     * Returns {@code true} if the given node is in the specified segment.
+     *
+     * @param node The given node.
+     * @param start Position of the first node of the segment.
+     * @param length The length of the segment.
+     * @return {@code true} if the node is in the segment, or {@code false}
+     *         otherwise.
+     */
+    private boolean inSegment(int node, int start, int length) {
+        return index(position[node] - start) < length;
+    }
+
+    /**
+     * Returns the successor of the given node.
+     *
+     * @param node The given node.
+     * @return The successor.
+     */
+    private int next(int node) {
+        return tour[index(position[node] + 1)];
+    }
+
+    /**
+     * Returns the predecessor of the given node.
+     *
+     * @param node The given node.
+     * @return The predecessor.
+     */
+    private int previous(int node) {
+        return tour[index(position[node] - 1)];
+    }
+
+    /**
+     * Returns the given position modulo the tour length.
+     *
+     * @param index The given position (greater than minus the tour length).
+     * @return The corresponding position in the tour.
+     */
+    private int index(int index) {
+        int n = tour.length;
+        return index >= n ? index - n : index < 0 ? index + n : index;
+    }
+
+    /**
+     * Adds the given node to the queue, if it is not already there.
+     *
+     * @param node The given node.
+     */
+    private void push(int node) {
+        if (inQueue[node]) return;
+        inQueue[node] = true;
+        queue[(head + queued) % queue.length] = node;
+        queued ++;
+    }
+}
@@ -1,13 +1,13 @@
 package hr.fer.zemris.optjava.dz6;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
-
-import static java.lang.Math.pow;
-import static java.lang.Math.random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * <p>Class which represents the <i>Max-Min Ant System Algorithm</i>, an
@@ -15,6 +15,22 @@ import static java.lang.Math.random;
  * <p>Ant colony algorithms are nature inspired, as the name suggests. These
  * algorithms simulate the pheromone-driven movement of ants and are often used
  * to find the shortest cycle in a node graph.</p>
+ * <p>Each ant constructs its tour using the {@link ChoiceInformation}, which
+ * is recalculated once per iteration, and reuses its tour and bitset
+ * buffers between iterations.</p>
+ * <p>In each iteration, the ants are split between the worker threads (each
+ * ant has its own {@link Random} instance) and each thread reports its best
+ * ant. The pheromone evaporation and the choice information recalculation
+ * are then split by rows, while the deposit on the chosen tour (which takes
+ * linear time) is done by the calling thread.</p>
+ * <p>For large instances, the sparse storage mode can be used: only the
+ * candidate vertices have their own pheromone and heuristic values (the
+ * pheromones evaporate lazily, see {@link CandidatePheromones}), and no
+ * structure takes quadratic memory, so the distances can be calculated on
+ * demand.</p>
+ * <p>The constructed tours can be improved by the {@link LocalSearch} before
+ * the pheromones are updated (either the tour of each ant, by the worker
+ * threads, or only the iteration-best tour).</p>
  *
  * @author Mate Gašparini
  */
@@ -33,16 +49,22 @@ public class MMASAlgorithm {
     private Nodes nodes;
 
     /** The pheromone values on the vertices. */
-    private Pheromones pheromones;
+    private IPheromones pheromones;
+
+    /** Evaporation of a range of rows (or {@code null} if it is lazy). */
+    private RowAction evaporation;
 
     /** The heuristic information matrix. */
     private HeuristicInformation heuristic;
 
-    /** The distance matrix. */
-    private double[][] distances;
+    /** The choice information matrix. */
+    private ChoiceInformation choice;
+
+    /** The ants (reused in each generation). */
+    private Ant[] ants;
 
-    /** Used for exponentiation of pheromone values. */
-    private double alpha;
+    /** The distances. */
+    private IDistances distances;
 
     /** Number of ants in a single generation (iteration). */
     private int antCount;
@@ -50,6 +72,12 @@ public class MMASAlgorithm {
     /** Number of generations (iterations). */
     private int maxGeneration;
 
+    /** Number of worker threads. */
+    private int threads;
+
+    /** The tours improved by the local search. */
+    private LocalSearch.Scope localSearch = LocalSearch.Scope.NONE;
+
     /**
      * Constructor specifying all needed algorithm parameters.
      *
@@ -63,46 +91,185 @@ public class MMASAlgorithm {
      */
     public MMASAlgorithm(double[][] distances, double alpha, double beta, double a,
                          int candidateCount, int antCount, int maxGeneration) {
+        this(distances, alpha, beta, a, candidateCount, antCount, maxGeneration,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor specifying all needed algorithm parameters and the number
+     * of worker threads.
+     *
+     * @param distances The specified distance matrix.
+     * @param alpha The specified <i>alpha</i> value (used for pheromones).
+     * @param beta The specified <i>beta</i> value (used for heuristic info).
+     * @param a The specified <i>a</i> value (pheromone bounds ratio).
+     * @param candidateCount The specified candidate list size.
+     * @param antCount The specified number of ants in a single generation.
+     * @param maxGeneration The specified number of generations.
+     * @param threads The specified number of worker threads.
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public MMASAlgorithm(double[][] distances, double alpha, double beta, double a,
+                         int candidateCount, int antCount, int maxGeneration, int threads) {
+        this(new DenseDistances(distances), alpha, beta, a, candidateCount, antCount,
+                maxGeneration, threads, false);
+    }
+
+    /**
+     * Constructor specifying all needed algorithm parameters, the number of
+     * worker threads and the storage mode.
+     *
+     * @param distances The specified distances.
+     * @param alpha The specified <i>alpha</i> value (used for pheromones).
+     * @param beta The specified <i>beta</i> value (used for heuristic info).
+     * @param a The specified <i>a</i> value (pheromone bounds ratio).
+     * @param candidateCount The specified candidate list size.
+     * @param antCount The specified number of ants in a single generation.
+     * @param maxGeneration The specified number of generations.
+     * @param threads The specified number of worker threads.
+     * @param sparse {@code true} if only the values of the candidate vertices
+     *               should be stored.
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public MMASAlgorithm(IDistances distances, double alpha, double beta, double a,
+                         int candidateCount, int antCount, int maxGeneration, int threads,
+                         boolean sparse) {
+        this(distances, new Nodes(distances, candidateCount, !sparse), alpha, beta, a,
+                antCount, maxGeneration, threads);
+    }
+
+    /**
+     * Constructor specifying the distances, the candidate lists, all other
+     * needed algorithm parameters and the number of worker threads. The
+     * sparse storage mode is used if the non-candidate lists are not
+     * created.
+     *
+     * @param distances The specified distances.
+     * @param nodes The specified candidate (and non-candidate) lists.
+     * @param alpha The specified <i>alpha</i> value (used for pheromones).
+     * @param beta The specified <i>beta</i> value (used for heuristic info).
+     * @param a The specified <i>a</i> value (pheromone bounds ratio).
+     * @param antCount The specified number of ants in a single generation.
+     * @param maxGeneration The specified number of generations.
+     * @param threads The specified number of worker threads.
+     * @throws IllegalArgumentException If the number of threads is not
+     *         positive.
+     */
+    public MMASAlgorithm(IDistances distances, Nodes nodes, double alpha, double beta, double a,
+                         int antCount, int maxGeneration, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive.");
+        }
+        this.threads = threads;
         this.distances = distances;
-        this.alpha = alpha;
         this.antCount = antCount;
         this.maxGeneration = maxGeneration;
 
-        this.nodes = new Nodes(distances, candidateCount);
-        this.pheromones = new Pheromones(distances.length, RHO, a, calculateTau0());
-        this.heuristic = new HeuristicInformation(distances, beta);
+        this.nodes = nodes;
+        boolean sparse = !nodes.hasNonCandidates();
+        if (sparse) {
+            this.pheromones = new CandidatePheromones(nodes, RHO, a, calculateTau0());
+        } else {
+            Pheromones densePheromones = new Pheromones(distances.size(), RHO, a, calculateTau0());
+            this.pheromones = densePheromones;
+            this.evaporation = densePheromones::evaporate;
+        }
+        this.heuristic = new HeuristicInformation(nodes, distances, beta);
+        this.choice = new ChoiceInformation(nodes, alpha);
+        this.ants = new Ant[antCount];
+        int maxChoices = sparse ? nodes.getCandidateCount() : distances.size();
+        for (int ant = 0; ant < antCount; ant ++) {
+            ants[ant] = new Ant(distances.size(), maxChoices, new Random(random.nextLong()));
+        }
+    }
+
+    /**
+     * Sets the tours which are improved by the local search in each
+     * iteration (none by default).
+     *
+     * @param localSearch The given local search scope.
+     */
+    public void setLocalSearch(LocalSearch.Scope localSearch) {
+        this.localSearch = localSearch;
     }
 
     /**
      * Runs the algorithm and, after {@code maxGeneration} iterations, prints
      * out the best (shortest) found graph cycle.
+     *
+     * @throws IllegalStateException If the calling thread is interrupted (the
+     *         interrupt flag stays set), or if some iteration fails.
      */
     public void run() {
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            run(pool);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted before printing the best cycle.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Iteration failed.", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the algorithm using the given pool of worker threads.
+     *
+     * @param pool The given pool.
+     * @throws InterruptedException If the calling thread is interrupted.
+     * @throws ExecutionException If some task fails.
+     */
+    private void run(ExecutorService pool) throws InterruptedException, ExecutionException {
         double iterationBestChance = 1.0;
         double iterationBestChanceDelta = 1.0 / maxGeneration;
 
         double bestSoFar = Double.MAX_VALUE;
-        int[] bestSoFarPath = null;
+        int[] bestSoFarPath = new int[distances.size()];
+        int[] iterationBestPath = new int[distances.size()];
+
+        List<Callable<Ant>> antTasks = new ArrayList<>(threads);
+        int antChunks = Math.min(threads, antCount);
+        for (int i = 0; i < antChunks; i ++) {
+            int from = antCount * i / antChunks;
+            int to = antCount * (i + 1) / antChunks;
+            LocalSearch search = localSearch == LocalSearch.Scope.ALL
+                    ? new LocalSearch(nodes, distances) : null;
+            antTasks.add(() -> constructTours(from, to, search));
+        }
+        LocalSearch bestSearch = localSearch == LocalSearch.Scope.ITERATION_BEST
+                ? new LocalSearch(nodes, distances) : null;
+        List<Callable<Void>> choiceTasks = rowTasks((from, to) -> choice.update(pheromones, heuristic, from, to));
+        List<Callable<Void>> evaporationTasks = evaporation == null ? null : rowTasks(evaporation);
 
         int stagnationCounter = 0;
         for (int generation = 0; generation < maxGeneration; generation ++) {
-            double iterationBest = Double.MAX_VALUE;
-            int[] iterationBestPath = null;
-            for (int ant = 0; ant < antCount; ant ++) {
-                List<Integer> path = simulateAntPath();
-                double length = calculatePathLength(path);
-
-                if (length < iterationBest) {
-                    iterationBest = length;
-                    iterationBestPath = listToArray(path);
+            invokeAll(pool, choiceTasks);
+            Ant iterationBestAnt = null;
+            for (Future<Ant> future : pool.invokeAll(antTasks)) {
+                Ant ant = future.get();
+                if (iterationBestAnt == null || ant.length < iterationBestAnt.length) {
+                    iterationBestAnt = ant;
                 }
             }
+            if (bestSearch != null) {
+                iterationBestAnt.length = bestSearch.improve(iterationBestAnt.tour, iterationBestAnt.length);
+            }
+            double iterationBest = iterationBestAnt.length;
+            System.arraycopy(iterationBestAnt.tour, 0, iterationBestPath, 0, iterationBestPath.length);
 
             System.out.println("Iteration: " + generation + ", best: " + iterationBest);
 
             if (iterationBest < bestSoFar) {
                 bestSoFar = iterationBest;
-                bestSoFarPath = iterationBestPath;
+                System.arraycopy(iterationBestPath, 0, bestSoFarPath, 0, bestSoFarPath.length);
                 pheromones.setTauMax(1.0 / (RHO * bestSoFar));
                 stagnationCounter = 0;
             } else {
@@ -113,9 +280,13 @@ public class MMASAlgorithm {
                 }
             }
 
-            pheromones.evaporate();
+            if (evaporationTasks == null) {
+                pheromones.evaporate();
+            } else {
+                invokeAll(pool, evaporationTasks);
+            }
 
-            if (random() < iterationBestChance) {
+            if (random.nextDouble() < iterationBestChance) {
                 pheromones.update(iterationBestPath, 1.0 / iterationBest);
             } else {
                 pheromones.update(bestSoFarPath, 1.0 / bestSoFar);
@@ -128,124 +299,92 @@ public class MMASAlgorithm {
     }
 
     /**
-     * Calculates the starting maximum pheromone value (using the formula given
-     * mentioned during the lecture).
+     * Lets the ants in the given range construct their tours (and improves
+     * them, if the local search is given) and returns the one with the
+     * shortest tour.
      *
-     * @return The calculated starting maximum pheromone value.
+     * @param from The first ant (inclusive).
+     * @param to The last ant (exclusive).
+     * @param search The local search (or {@code null}).
+     * @return The ant with the shortest tour.
      */
-    private double calculateTau0() {
-        return antCount / nearestNeighborLength();
+    private Ant constructTours(int from, int to, LocalSearch search) {
+        Ant best = null;
+        for (int i = from; i < to; i ++) {
+            Ant ant = ants[i];
+            ant.constructTour(nodes, choice, distances);
+            if (search != null) {
+                ant.length = search.improve(ant.tour, ant.length);
+            }
+            if (best == null || ant.length < best.length) {
+                best = ant;
+            }
+        }
+        return best;
     }
 
     /**
-     * Calculates the length of the path between all nearest neighbor nodes.
+     * Returns the tasks which perform the given action on disjoint ranges of
+     * rows, one per worker thread.
      *
-     * @return The length of the nearest neighbor cycle.
+     * @param action The given action.
+     * @return The corresponding tasks.
      */
-    private double nearestNeighborLength() {
-        double length = 0.0;
-        for (int row = 0; row < distances.length; row ++) {
-            double rowMin = Double.MAX_VALUE;
-            for (int col = 0; col < distances.length; col++) {
-                if (row == col) continue;
-                double value = distances[row][col];
-                if (value < rowMin) rowMin = value;
-            }
-            length += rowMin;
+    private List<Callable<Void>> rowTasks(RowAction action) {
+        int size = distances.size();
+        int chunks = Math.min(threads, size);
+        List<Callable<Void>> tasks = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i ++) {
+            int from = (int) ((long) size * i / chunks);
+            int to = (int) ((long) size * (i + 1) / chunks);
+            tasks.add(() -> {
+                action.perform(from, to);
+                return null;
+            });
         }
-        return length;
+        return tasks;
     }
 
     /**
-     * Simulates the pheromone-driven movement of a single ant and returns a
-     * {@code List} of all visited nodes.
+     * Invokes all given tasks using the given pool and waits for them.
      *
-     * @return The {@code List} containing the nodes ordered as they have been
-     * visited by the ant.
+     * @param pool The given pool.
+     * @param tasks The given tasks.
+     * @throws InterruptedException If the calling thread is interrupted.
+     * @throws ExecutionException If some task fails.
      */
-    private List<Integer> simulateAntPath() {
-        List<Integer> path = new ArrayList<>(distances.length);
-        path.add(random.nextInt(distances.length));
-
-        for (int pathIndex = 0; pathIndex < distances.length - 1; pathIndex ++) {
-            int currentNode = path.get(pathIndex);
-            List<Integer> possibilities = Arrays.stream(
-                    nodes.getCandidates(currentNode)
-            ).boxed().filter(node -> !path.contains(node)).collect(Collectors.toList());
-
-            if (possibilities.size() == 1) {
-                path.add(possibilities.get(0));
-                continue;
-            } else if (possibilities.size() == 0) {
-                possibilities = Arrays.stream(
-                        nodes.getNonCandidates(currentNode)
-                ).boxed().filter(node -> !path.contains(node)).collect(Collectors.toList());
-            }
-
-            double denominator = 0.0;
-            for (int possibility : possibilities) {
-                denominator += calculateComponent(currentNode, possibility);
-            }
-
-            double randomValue = random();
-            double limitValue = 0.0;
-
-            for (int possibility : possibilities) {
-                limitValue += calculateComponent(currentNode, possibility) / denominator;
-                if (randomValue < limitValue) {
-                    path.add(possibility);
-                    break;
-                }
-            }
+    private static void invokeAll(ExecutorService pool, List<Callable<Void>> tasks)
+            throws InterruptedException, ExecutionException {
+        for (Future<Void> future : pool.invokeAll(tasks)) {
+            future.get();
         }
-
-        return path;
     }
 
+
     /**
-     * <p>Calculates the component of probability for the specified vertex.</p>
-     * <p>Uses the pheromone value and the heuristic information for the
-     * specified vertex.</p>
+     * Calculates the starting maximum pheromone value (using the formula given
+     * mentioned during the lecture).
      *
-     * @param from The starting node index.
-     * @param to The target node index.
-     * @return The calculated component.
+     * @return The calculated starting maximum pheromone value.
      */
-    private double calculateComponent(int from, int to) {
-        return pow(pheromones.get(from, to), alpha) * heuristic.get(from, to);
+    private double calculateTau0() {
+        return antCount / nearestNeighborLength();
     }
 
     /**
-     * Calculates the length of the given path.
+     * Calculates the length of the path between all nearest neighbor nodes
+     * (which are the first candidates).
      *
-     * @param path {@code List} containing the nodes of the path.
-     * @return The calculated path length.
+     * @return The length of the nearest neighbor cycle.
      */
-    private double calculatePathLength(List<Integer> path) {
+    private double nearestNeighborLength() {
         double length = 0.0;
-        for (int i = 0; i < path.size(); i ++) {
-            int currentNode = path.get(i);
-            int nextNode = path.get((i+1) % path.size());
-            length += distances[currentNode][nextNode];
+        for (int row = 0; row < nodes.size(); row ++) {
+            length += nodes.getCandidateDistances(row)[0];
         }
         return length;
     }
 
-    /**
-     * Helper method which converts the given {@code List} of {@code Integer}s
-     * to an {@code int} array.
-     *
-     * @param list The given {@code List}.
-     * @return The corresponding {@code int} array.
-     */
-    private int[] listToArray(List<Integer> list) {
-        int[] array = new int[list.size()];
-        for (int i = 0; i < list.size(); i ++) {
-            array[i] = list.get(i);
-        }
-        return array;
-    }
-
     /**
      * Helper method which comma-formats and prints the given path.
      *
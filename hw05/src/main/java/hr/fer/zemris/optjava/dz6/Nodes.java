@@ -1,17 +1,34 @@
 package hr.fer.zemris.optjava.dz6;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * <p>Class containing candidate (and non-candiate) lists for each node.</p>
- * <p>A node's candidates are its closest nodes.</p>
+ * <p>A node's candidates are its closest nodes, sorted by their distance,
+ * which is cached. The non-candidate lists take quadratic memory, so they
+ * can be omitted for large instances.</p>
+ * <p>If the node coordinates are known, the candidates are found using a
+ * {@link KDTree} (in {@code O(k log n)} expected time per node), and they
+ * can be chosen from each quadrant around the node, so that clustered
+ * instances get candidates leading out of the cluster. Otherwise, all
+ * distances are scanned. In both cases, the lists are filled in parallel
+ * (using the {@link ForkJoinPool#commonPool()} threads).</p>
  *
  * @author Mate Gašparini
  */
 public class Nodes {
 
+    /** Number of nodes for which the candidates are found by a single task. */
+    private static final int TASK_SIZE = 256;
+
     /** The "lists" of candidates for each node. */
     private int[][] candidates;
 
-    /** The "lists" of non-scandidates for each node. */
+    /** Distances to the candidates of each node. */
+    private double[][] candidateDistances;
+
+    /** The "lists" of non-scandidates for each node (or {@code null}). */
     private int[][] nonCandidates;
 
     /** Size of each node's candidate list. */
@@ -24,17 +41,117 @@ public class Nodes {
      * @param candidateCount The specified size of each node's candidate list.
      */
     public Nodes(double[][] distances, int candidateCount) {
+        this(new DenseDistances(distances), candidateCount, true);
+    }
+
+    /**
+     * Constructor specifying the distances, the candidate count and whether
+     * the non-candidate lists should be created.
+     *
+     * @param distances The specified distances.
+     * @param candidateCount The specified size of each node's candidate list.
+     * @param withNonCandidates {@code true} if the non-candidate lists should
+     *                          be created.
+     * @throws IllegalArgumentException If the candidate count is not
+     *         positive, or if it is not less than the number of nodes.
+     */
+    public Nodes(IDistances distances, int candidateCount, boolean withNonCandidates) {
+        int size = distances.size();
+        if (candidateCount <= 0) {
+            throw new IllegalArgumentException("Candidate count must be positive.");
+        }
+        if (candidateCount >= size) {
+            throw new IllegalArgumentException("Candidate count must be less than " + size + ".");
+        }
+        this.candidateCount = candidateCount;
+
+        candidates = new int[size][candidateCount];
+        candidateDistances = new double[size][candidateCount];
+        ForkJoinPool.commonPool().invoke(new RowTask(0, size, (from, to) -> {
+            for (int row = from; row < to; row ++) {
+                fillCandidates(distances, row);
+            }
+        }));
+        if (withNonCandidates) {
+            fillNonCandidates();
+        }
+    }
+
+    /**
+     * Constructor specifying the node coordinates, the distances, the
+     * candidate count, whether the candidates should be chosen from each
+     * quadrant and whether the non-candidate lists should be created.
+     *
+     * @param points The specified coordinates ({@code x} and {@code y} of
+     *               each node), consistent with the distances.
+     * @param distances The specified distances.
+     * @param candidateCount The specified size of each node's candidate list.
+     * @param quadrant {@code true} if the candidates should be chosen from
+     *                 each quadrant (a quarter of them from each, and the
+     *                 rest among the other closest nodes).
+     * @param withNonCandidates {@code true} if the non-candidate lists should
+     *                          be created.
+     * @throws IllegalArgumentException If the candidate count is not
+     *         positive, or if it is not less than the number of nodes.
+     */
+    public Nodes(double[][] points, IDistances distances, int candidateCount,
+                 boolean quadrant, boolean withNonCandidates) {
+        int size = points.length;
+        if (candidateCount <= 0) {
+            throw new IllegalArgumentException("Candidate count must be positive.");
+        }
+        if (candidateCount >= size) {
+            throw new IllegalArgumentException("Candidate count must be less than " + size + ".");
+        }
         this.candidateCount = candidateCount;
-        int nonCandidateCount = distances.length - candidateCount - 1;
 
-        candidates = new int[distances.length][candidateCount];
-        nonCandidates = new int[distances.length][nonCandidateCount];
+        candidates = new int[size][candidateCount];
+        candidateDistances = new double[size][candidateCount];
+        KDTree tree = new KDTree(points);
+        ForkJoinPool.commonPool().invoke(new RowTask(0, size, (from, to) -> {
+            KDTree.Search search = tree.new Search(candidateCount);
+            for (int row = from; row < to; row ++) {
+                search.count = 0;
+                if (quadrant) {
+                    for (int q = 0; q < KDTree.QUADRANTS; q ++) {
+                        search.find(row, q, candidateCount / KDTree.QUADRANTS);
+                    }
+                }
+                search.find(row, -1, candidateCount - search.count);
+                search.sort();
 
-        fillArrays(distances);
+                for (int slot = 0; slot < candidateCount; slot ++) {
+                    candidates[row][slot] = search.found[slot];
+                    candidateDistances[row][slot] = distances.get(row, search.found[slot]);
+                }
+            }
+        }));
+        if (withNonCandidates) {
+            fillNonCandidates();
+        }
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return candidates.length;
+    }
+
+    /**
+     * Returns the size of each node's candidate list.
+     *
+     * @return The candidate count.
+     */
+    public int getCandidateCount() {
+        return candidateCount;
     }
 
     /**
-     * Returns the specified node's candidate "list" (actually, an array).
+     * Returns the specified node's candidate "list" (actually, an array),
+     * sorted by the distance.
      *
      * @param node The specified node index.
      * @return The corresponding candidate list.
@@ -43,51 +160,131 @@ public class Nodes {
         return candidates[node];
     }
 
+    /**
+     * Returns the distances to the specified node's candidates (in the order
+     * of the candidate list).
+     *
+     * @param node The specified node index.
+     * @return The corresponding distances.
+     */
+    public double[] getCandidateDistances(int node) {
+        return candidateDistances[node];
+    }
+
+    /**
+     * Returns {@code true} if the non-candidate lists are created.
+     *
+     * @return {@code true} if the non-candidate lists are created, or
+     *         {@code false} otherwise.
+     */
+    public boolean hasNonCandidates() {
+        return nonCandidates != null;
+    }
+
     /**
      * Returns the specified node's non-candidate "list" (actually, an array).
      *
      * @param node The specified node index.
      * @return The corresponding non-candidate list.
+     * @throws IllegalStateException If the non-candidate lists are not
+     *         created.
      */
     public int[] getNonCandidates(int node) {
+        if (nonCandidates == null) {
+            throw new IllegalStateException("Non-candidate lists are not created.");
+        }
         return nonCandidates[node];
     }
 
     /**
-     * Fills the candidate and non-candidate lists according to the distances
-     * between the nodes.
+     * Fills the specified node's candidate list with its closest nodes, by
+     * inserting each closer node into the sorted list (and dropping the
+     * farthest candidate once the list is full).
      *
-     * @param distances The given distance matrix.
+     * @param distances The given distances.
+     * @param row The specified node.
+     */
+    private void fillCandidates(IDistances distances, int row) {
+        int[] rowCandidates = candidates[row];
+        double[] rowDistances = candidateDistances[row];
+        int count = 0;
+        for (int col = 0; col < distances.size(); col ++) {
+            if (row == col) continue;
+
+            double distance = distances.get(row, col);
+            if (count == candidateCount && distance >= rowDistances[count - 1]) continue;
+
+            int i = count < candidateCount ? count ++ : count - 1;
+            while (i > 0 && rowDistances[i - 1] > distance) {
+                rowDistances[i] = rowDistances[i - 1];
+                rowCandidates[i] = rowCandidates[i - 1];
+                i --;
+            }
+            rowDistances[i] = distance;
+            rowCandidates[i] = col;
+        }
+    }
+
+    /**
+     * Fills the non-candidate lists with all nodes which are not candidates.
      */
-    private void fillArrays(double[][] distances) {
-        for (int row = 0; row < distances.length; row ++) {
-            int candidateCounter = 0;
+    private void fillNonCandidates() {
+        nonCandidates = new int[size()][size() - candidateCount - 1];
+        boolean[] isCandidate = new boolean[size()];
+        for (int row = 0; row < size(); row ++) {
+            for (int candidate : candidates[row]) {
+                isCandidate[candidate] = true;
+            }
             int nonCandidateCounter = 0;
-            for (int col = 0; col < distances.length; col ++) {
-                if (row == col) continue;
-
-                if (candidateCounter != candidateCount) {
-                    // Fill first candidateCount candidates in order.
-                    candidates[row][candidateCounter] = col;
-                    candidateCounter ++;
-                } else {
-                    // Replace the worst if found better.
-                    double distance = distances[row][col];
-                    boolean foundBetter = false;
-                    for (int i = 0; i < candidateCount; i ++) {
-                        double savedDistance = distances[row][candidates[row][i]];
-                        if (distance < savedDistance) {
-                            nonCandidates[row][nonCandidateCounter ++] = candidates[row][i];
-                            candidates[row][i] = col;
-                            foundBetter = true;
-                            break;
-                        }
-                    }
-                    if (!foundBetter) {
-                        nonCandidates[row][nonCandidateCounter ++] = col;
-                    }
-                }
+            for (int col = 0; col < size(); col ++) {
+                if (row == col || isCandidate[col]) continue;
+                nonCandidates[row][nonCandidateCounter ++] = col;
+            }
+            for (int candidate : candidates[row]) {
+                isCandidate[candidate] = false;
+            }
+        }
+    }
+
+    /**
+     * Task which performs some action on a range of rows, splitting it into
+     * halves while it is too large.
+     */
+    private static class RowTask extends RecursiveAction {
+
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The first row (inclusive). */
+        private int from;
+
+        /** The last row (exclusive). */
+        private int to;
+
+        /** The performed action. */
+        private RowAction action;
+
+        /**
+         * Constructor specifying the range of rows and the action.
+         *
+         * @param from The first row (inclusive).
+         * @param to The last row (exclusive).
+         * @param action The performed action.
+         */
+        RowTask(int from, int to, RowAction action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_SIZE) {
+                action.perform(from, to);
+                return;
             }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RowTask(from, middle, action), new RowTask(middle, to, action));
         }
     }
 }
@@ -0,0 +1,87 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * {@link IDistances} implementation for symmetric distances, which stores
+ * only the lower triangle of the distance matrix (without the zero
+ * diagonal), packed row by row into a single array.
+ *
+ * @author Mate Gašparini
+ */
+public class PackedDistances implements IDistances {
+
+    /** Number of nodes. */
+    private int size;
+
+    /** The packed lower triangle. */
+    private double[] values;
+
+    /**
+     * Constructor specifying the number of nodes (all distances are zero).
+     *
+     * @param size The specified number of nodes.
+     * @throws IllegalArgumentException If the triangle is too large for an
+     *         array.
+     */
+    public PackedDistances(int size) {
+        long length = (long) size * (size - 1) / 2;
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many nodes for a packed matrix: " + size + ".");
+        }
+        this.size = size;
+        this.values = new double[(int) length];
+    }
+
+    /**
+     * Constructor which calculates the lower triangle of the given (symmetric)
+     * distances.
+     *
+     * @param source The given distances.
+     * @throws IllegalArgumentException If the triangle is too large for an
+     *         array.
+     */
+    public PackedDistances(IDistances source) {
+        this(source.size());
+        int index = 0;
+        for (int row = 1; row < size; row ++) {
+            for (int col = 0; col < row; col ++) {
+                values[index ++] = source.get(row, col);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double get(int from, int to) {
+        if (from == to) return 0.0;
+        return values[index(from, to)];
+    }
+
+    /**
+     * Sets the distance between the specified (different) nodes.
+     *
+     * @param from The first node.
+     * @param to The second node.
+     * @param distance The specified distance.
+     */
+    public void set(int from, int to, double distance) {
+        values[index(from, to)] = distance;
+    }
+
+    /**
+     * Returns the index of the specified (different) nodes' distance in the
+     * packed triangle.
+     *
+     * @param from The first node.
+     * @param to The second node.
+     * @return The corresponding index.
+     */
+    private static int index(int from, int to) {
+        int row = Math.max(from, to);
+        int col = Math.min(from, to);
+        return (int) ((long) row * (row - 1) / 2) + col;
+    }
+}
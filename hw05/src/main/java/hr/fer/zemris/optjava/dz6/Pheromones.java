@@ -2,11 +2,11 @@ package hr.fer.zemris.optjava.dz6;
 
 /**
  * Class which is responsible for handling all pheromone values for some TSP
- * graph.
+ * graph (stored in a matrix).
  *
  * @author Mate Gašparini
  */
-public class Pheromones {
+public class Pheromones implements IPheromones {
 
     /** The rate at which all pheromones (in each iteration) evaporate. */
     private double evaporationRate;
@@ -39,37 +39,31 @@ public class Pheromones {
         resetValues();
     }
 
-    /**
-     * <p>Returns the pheromone value at the specified vertex from the TSP
-     * graph.</p>
-     * <p>Note that if the parameters change place, the returned value will be
-     * the same.</p>
-     *
-     * @param from First node of the vertex.
-     * @param to Second node of the vertex.
-     * @return The corresponding pheromone value.
-     */
+    @Override
     public double get(int from, int to) {
         return values[from][to];
     }
 
-    /**
-     * Sets the maximum pheromone value to the given value, and calculates the
-     * minimum pheromone value (using the specified ratio <i>a</i>).
-     *
-     * @param tauMax The given value.
-     */
+    @Override
     public void setTauMax(double tauMax) {
         this.tauMax = tauMax;
         this.tauMin = tauMax / a;
     }
 
+    @Override
+    public void evaporate() {
+        evaporate(0, values.length);
+    }
+
     /**
-     * Evaporates all pheromones using the specified evaporation rate (and does
-     * not allow the values to drop below the current minimum pheromone value).
+     * Evaporates the pheromones in the given range of rows (so that disjoint
+     * ranges can be evaporated concurrently).
+     *
+     * @param from The first row (inclusive).
+     * @param to The last row (exclusive).
      */
-    public void evaporate() {
-        for (int row = 0; row < values.length; row ++) {
+    public void evaporate(int from, int to) {
+        for (int row = from; row < to; row ++) {
             for (int col = 0; col < values.length; col ++) {
                 values[row][col] *= (1 - evaporationRate);
                 if (values[row][col] < tauMin) values[row][col] = tauMin;
@@ -77,13 +71,7 @@ public class Pheromones {
         }
     }
 
-    /**
-     * Increases the pheromone values for the specified amount for each vertex
-     * from the given path.
-     *
-     * @param pathNodes The given path.
-     * @param delta The specified amount.
-     */
+    @Override
     public void update(int[] pathNodes, double delta) {
         for (int i = 0; i < pathNodes.length - 1; i ++) {
             int from = pathNodes[i];
@@ -94,9 +82,7 @@ public class Pheromones {
         }
     }
 
-    /**
-     * Sets all pheromone values to the current maximum pheromone value.
-     */
+    @Override
     public void resetValues() {
         for (int row = 0; row < values.length; row ++) {
             for (int col = 0; col < values.length; col ++) {
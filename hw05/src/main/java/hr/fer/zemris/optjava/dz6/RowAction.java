@@ -0,0 +1,19 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * Action performed on a range of rows (nodes), so that disjoint ranges can
+ * be processed concurrently.
+ *
+ * @author Mate Gašparini
+ */
+@FunctionalInterface
+interface RowAction {
+
+    /**
+     * Performs the action on the given range of rows.
+     *
+     * @param from The first row (inclusive).
+     * @param to The last row (exclusive).
+     */
+    void perform(int from, int to);
+}
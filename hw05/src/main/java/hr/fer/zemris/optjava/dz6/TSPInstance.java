@@ -0,0 +1,72 @@
+package hr.fer.zemris.optjava.dz6;
+
+/**
+ * Traveling salesman problem (TSP) instance, loaded by the {@link TSPParser}.
+ *
+ * @author Mate Gašparini
+ */
+public class TSPInstance {
+
+    /** The distances between the nodes. */
+    private IDistances distances;
+
+    /** The planar node coordinates (or {@code null}). */
+    private double[][] points;
+
+    /** {@code true} if the distances are given explicitly. */
+    private boolean explicit;
+
+    /**
+     * Constructor specifying all attributes.
+     *
+     * @param distances The specified distances.
+     * @param points The specified planar node coordinates (or {@code null}).
+     * @param explicit {@code true} if the distances are given explicitly.
+     */
+    public TSPInstance(IDistances distances, double[][] points, boolean explicit) {
+        this.distances = distances;
+        this.points = points;
+        this.explicit = explicit;
+    }
+
+    /**
+     * Returns the number of nodes.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return distances.size();
+    }
+
+    /**
+     * Returns the distances between the nodes (which are calculated on demand,
+     * unless they are given explicitly).
+     *
+     * @return The distances.
+     */
+    public IDistances getDistances() {
+        return distances;
+    }
+
+    /**
+     * Returns the planar node coordinates, which are consistent with the
+     * distances (so they can be used for finding the nearest nodes).
+     *
+     * @return The coordinates ({@code x} and {@code y} of each node), or
+     *         {@code null} if the instance is not planar.
+     */
+    public double[][] getPoints() {
+        return points;
+    }
+
+    /**
+     * Returns {@code true} if the distances are given explicitly (so they are
+     * already stored).
+     *
+     * @return {@code true} if the distances are given explicitly, or
+     *         {@code false} otherwise.
+     */
+    public boolean isExplicit() {
+        return explicit;
+    }
+}
@@ -2,26 +2,49 @@ package hr.fer.zemris.optjava.dz6;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
 
 /**
- * Class used for parsing files containing traveling salesman problem (TSP)
- * definitions.
+ * <p>Class used for parsing files containing traveling salesman problem (TSP)
+ * definitions, in the TSPLIB format.</p>
+ * <p>The supported edge weight types are {@code EUC_2D}, {@code CEIL_2D},
+ * {@code ATT} and {@code GEO} (whose distances are calculated on demand,
+ * see {@link CoordinateDistances}), and {@code EXPLICIT} with the
+ * {@code FULL_MATRIX}, {@code UPPER_ROW}, {@code LOWER_ROW},
+ * {@code UPPER_DIAG_ROW} and {@code LOWER_DIAG_ROW} formats. The explicit
+ * distances are stored as a packed triangle (see {@link PackedDistances}),
+ * so asymmetric full matrices are rejected.</p>
+ * <p>The file is read in a single pass, so the coordinate instances are
+ * loaded in linear time and memory.</p>
  *
  * @author Mate Gašparini
  */
 public class TSPParser {
 
-    /** Label which marks the line containing the number of nodes. */
+    /** Key of the line containing the number of nodes. */
     private static final String DIMENSION_LABEL = "DIMENSION";
 
-    /** Labels which mark the start of the node coordinate list. */
-    private static final List<String> START_LABELS = List.of(
-            "NODE_COORD_SECTION", "DISPLAY_DATA_SECTION"
-    );
+    /** Key of the line containing the edge weight type. */
+    private static final String TYPE_LABEL = "EDGE_WEIGHT_TYPE";
+
+    /** Key of the line containing the explicit edge weight format. */
+    private static final String FORMAT_LABEL = "EDGE_WEIGHT_FORMAT";
+
+    /** Suffix of the labels which mark the start of a data section. */
+    private static final String SECTION_SUFFIX = "_SECTION";
+
+    /** Label which marks the start of the node coordinate list. */
+    private static final String COORDINATES_LABEL = "NODE_COORD_SECTION";
+
+    /** Label which marks the start of the display coordinate list. */
+    private static final String DISPLAY_LABEL = "DISPLAY_DATA_SECTION";
+
+    /** Label which marks the start of the explicit edge weights. */
+    private static final String WEIGHTS_LABEL = "EDGE_WEIGHT_SECTION";
+
+    /** Edge weight type of the explicitly given distances. */
+    private static final String EXPLICIT = "EXPLICIT";
 
     /** Label which marks the end of data relevant for the specified TSP. */
     private static final String EOF = "EOF";
@@ -29,6 +52,12 @@ public class TSPParser {
     /** The path specifying the file containing the TSP definition. */
     private Path path;
 
+    /** The tokens of the current line (used for the edge weights). */
+    private String[] tokens = new String[0];
+
+    /** Index of the next token of the current line. */
+    private int tokenIndex;
+
     /**
      * Constructor specifying the TSP definition file path.
      *
@@ -44,126 +73,249 @@ public class TSPParser {
      *
      * @return The distance matrix.
      * @throws IOException If an IO error occurs.
+     * @throws IllegalArgumentException If the file is invalid or not
+     *         supported.
      */
     public double[][] getDistances() throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(Files.newInputStream(path)))) {
-            double[][] points = new double[parseDimension(reader)][2];
-            findStart(reader);
-            parsePoints(reader, points);
-            return calculateDistances(points);
+        IDistances distances = parse().getDistances();
+        double[][] matrix = new double[distances.size()][distances.size()];
+        for (int i = 0; i < matrix.length; i ++) {
+            for (int j = 0; j < matrix.length; j ++) {
+                matrix[i][j] = distances.get(i, j);
+            }
         }
+        return matrix;
     }
 
     /**
-     * Consumes input lines from the given reader until {@code DIMENSION_LABEL}
-     * is reached and returns the parsed dimension.
+     * Parses the specified file and returns the TSP instance.
      *
-     * @param reader The given reader.
-     * @return The number of nodes used for the TSP.
+     * @return The parsed instance.
      * @throws IOException If an IO error occurs.
-     * @throws IllegalArgumentException If {@code DIMENSION_LABEL} could not be
-     *         found, or if the dimension could not be parsed.
+     * @throws IllegalArgumentException If the file is invalid or not
+     *         supported.
      */
-    private int parseDimension(BufferedReader reader) throws IOException {
-        while (true) {
-            String line = reader.readLine();
-            if (line == null || line.equals(EOF)) break;
-            if (line.startsWith(DIMENSION_LABEL)) {
-                line = line.substring(DIMENSION_LABEL.length());
-                line = line.split("\\s*:\\s*")[1];
-                try {
-                    return Integer.parseInt(line);
-                } catch (NumberFormatException ex) {
-                    throw new IllegalArgumentException(
-                            line + " is not a valid dimension");
+    public TSPInstance parse() throws IOException {
+        int dimension = -1;
+        String type = CoordinateDistances.Type.EUC_2D.name();
+        String format = null;
+        double[][] coordinates = null;
+        double[][] display = null;
+        IDistances weights = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) break;
+                line = line.trim();
+                if (line.isEmpty()) continue;
+                if (line.equals(EOF)) break;
+
+                int colon = line.indexOf(':');
+                String key = colon < 0 ? line : line.substring(0, colon).trim();
+                String value = colon < 0 ? "" : line.substring(colon + 1).trim();
+                if (!key.endsWith(SECTION_SUFFIX)) {
+                    if (key.equals(DIMENSION_LABEL)) {
+                        dimension = parseDimension(value);
+                    } else if (key.equals(TYPE_LABEL)) {
+                        type = value;
+                    } else if (key.equals(FORMAT_LABEL)) {
+                        format = value;
+                    }
+                    continue;
+                }
+
+                if (dimension < 0) {
+                    throw new IllegalArgumentException("Could not find the "
+                            + DIMENSION_LABEL + " line before " + key + ".");
+                }
+                if (key.equals(COORDINATES_LABEL)) {
+                    coordinates = parsePoints(reader, dimension);
+                } else if (key.equals(DISPLAY_LABEL)) {
+                    display = parsePoints(reader, dimension);
+                } else if (key.equals(WEIGHTS_LABEL)) {
+                    weights = parseWeights(reader, dimension, format);
+                } else {
+                    throw new IllegalArgumentException("Unsupported section: '" + key + "'.");
                 }
             }
         }
-        throw new IllegalArgumentException("Could not find the "
-                + DIMENSION_LABEL + " line.");
+
+        if (type.equals(EXPLICIT)) {
+            if (weights == null) {
+                throw new IllegalArgumentException("Could not find the " + WEIGHTS_LABEL + " line.");
+            }
+            return new TSPInstance(weights, null, true);
+        }
+
+        CoordinateDistances.Type coordinateType = null;
+        for (CoordinateDistances.Type supported : CoordinateDistances.Type.values()) {
+            if (supported.name().equals(type)) coordinateType = supported;
+        }
+        if (coordinateType == null) {
+            throw new IllegalArgumentException("Unsupported edge weight type: '" + type + "'.");
+        }
+        if (coordinates == null) coordinates = display;
+        if (coordinates == null) {
+            throw new IllegalArgumentException("Could not find the " + COORDINATES_LABEL + " line.");
+        }
+        return new TSPInstance(
+                new CoordinateDistances(coordinates, coordinateType),
+                coordinateType == CoordinateDistances.Type.GEO ? null : coordinates,
+                false
+        );
     }
 
     /**
-     * Consumes input lines from the given reader until some of the
-     * {@code START_LABELS} is reached.
+     * Parses the given dimension.
      *
-     * @param reader The given reader.
-     * @throws IOException If an IO error occurs.
-     * @throws IllegalArgumentException If none of the {@code START_LABELS}
-     *         could be found.
+     * @param value The given dimension.
+     * @return The number of nodes used for the TSP.
+     * @throws IllegalArgumentException If the dimension could not be parsed.
      */
-    private void findStart(BufferedReader reader) throws IOException {
-        while (true) {
-            String line = reader.readLine();
-            if (line == null || line.equals(EOF)) break;
-            if (START_LABELS.contains(line)) {
-                return;
+    private int parseDimension(String value) {
+        try {
+            int dimension = Integer.parseInt(value);
+            if (dimension < 2) {
+                throw new IllegalArgumentException("Dimension must be at least 2.");
             }
+            return dimension;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(value + " is not a valid dimension");
         }
-        throw new IllegalArgumentException("Could not find some of the "
-                + START_LABELS + " lines.");
     }
 
     /**
      * Parses the lines from the given reader containing the coordinates of all
-     * points (nodes) and stores them in the given points array.
+     * points (nodes) and returns them.
      *
      * @param reader The given reader.
-     * @param points The given points array.
+     * @param dimension The number of nodes.
+     * @return The coordinates ({@code x} and {@code y} of each node).
      * @throws IOException If an IO error occurs.
      * @throws IllegalArgumentException If there are coordinates missing, or if
      *         some coordinate could not be parsed.
      */
-    private void parsePoints(BufferedReader reader, double[][] points) throws IOException {
-        for (int i = 0; i < points.length; i ++) {
+    private double[][] parsePoints(BufferedReader reader, int dimension) throws IOException {
+        double[][] points = new double[dimension][];
+        for (int i = 0; i < dimension; i ++) {
             String line = reader.readLine();
-            if (line == null || line.equals(EOF)) {
+            if (line == null || line.trim().equals(EOF)) {
                 throw new IllegalArgumentException("Expected more node coordinate entries.");
             }
 
             String[] parts = line.trim().split("\\s+");
             try {
-                points[i][0] = Double.parseDouble(parts[1]);
-                points[i][1] = Double.parseDouble(parts[2]);
-            } catch (NumberFormatException ex) {
+                int node = Integer.parseInt(parts[0]) - 1;
+                if (node < 0 || node >= dimension || points[node] != null) {
+                    throw new IllegalArgumentException("Invalid node " + parts[0]
+                            + " at " + i + "th line of node coordinate entries.");
+                }
+                points[node] = new double[] {
+                        Double.parseDouble(parts[1]), Double.parseDouble(parts[2])
+                };
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException ex) {
                 throw new IllegalArgumentException("Parsing error at " + i
                         + "th line of node coordinate entries.");
             }
         }
+        return points;
     }
 
     /**
-     * <p>Calculates the distance matrix for the given points array.</p>
-     * <p>The matrix will be a square matrix with all zeros on the diagonal.</p>
+     * Parses the explicit edge weights in the given format from the given
+     * reader and returns them (as a packed triangle).
      *
-     * @param points The given points array.
-     * @return The calculated distance matrix.
+     * @param reader The given reader.
+     * @param dimension The number of nodes.
+     * @param format The given format.
+     * @return The parsed distances.
+     * @throws IOException If an IO error occurs.
+     * @throws IllegalArgumentException If the format is not supported, if
+     *         some weight could not be parsed, or if a full matrix is not
+     *         symmetric.
      */
-    private double[][] calculateDistances(double[][] points) {
-        double[][] distances = new double[points.length][points.length];
-        for (int i = 0; i < points.length; i ++) {
-            for (int j = 0; j < points.length; j ++) {
-                distances[i][j] = distance(
-                        points[i][0], points[i][1], points[j][0], points[j][1]
-                );
+    private IDistances parseWeights(BufferedReader reader, int dimension, String format)
+            throws IOException {
+        if (format == null) {
+            throw new IllegalArgumentException("Could not find the " + FORMAT_LABEL + " line.");
+        }
+        tokens = new String[0];
+        tokenIndex = 0;
+
+        if (format.equals("FULL_MATRIX")) {
+            double[][] matrix = new double[dimension][dimension];
+            for (int i = 0; i < dimension; i ++) {
+                for (int j = 0; j < dimension; j ++) {
+                    matrix[i][j] = nextWeight(reader);
+                }
+            }
+            for (int i = 0; i < dimension; i ++) {
+                for (int j = 0; j < i; j ++) {
+                    if (matrix[i][j] != matrix[j][i]) {
+                        throw new IllegalArgumentException("Asymmetric edge weights are not supported"
+                                + " (between nodes " + (j + 1) + " and " + (i + 1) + ").");
+                    }
+                }
+            }
+            return new PackedDistances(new DenseDistances(matrix));
+        }
+
+        boolean upper;
+        boolean diagonal;
+        if (format.equals("UPPER_ROW")) {
+            upper = true;
+            diagonal = false;
+        } else if (format.equals("LOWER_ROW")) {
+            upper = false;
+            diagonal = false;
+        } else if (format.equals("UPPER_DIAG_ROW")) {
+            upper = true;
+            diagonal = true;
+        } else if (format.equals("LOWER_DIAG_ROW")) {
+            upper = false;
+            diagonal = true;
+        } else {
+            throw new IllegalArgumentException("Unsupported edge weight format: '" + format + "'.");
+        }
+
+        PackedDistances distances = new PackedDistances(dimension);
+        for (int i = 0; i < dimension; i ++) {
+            int from = upper ? (diagonal ? i : i + 1) : 0;
+            int to = upper ? dimension : (diagonal ? i + 1 : i);
+            for (int j = from; j < to; j ++) {
+                double weight = nextWeight(reader);
+                if (i != j) distances.set(i, j, weight);
             }
         }
         return distances;
     }
 
     /**
-     * Calculates the Euclidean distance between the two specified points.
+     * Returns the next edge weight from the given reader (the weights are
+     * separated by whitespace, regardless of the lines).
      *
-     * @param x1 The x coordinate of the first point.
-     * @param y1 The y coordinate of the first point.
-     * @param x2 The x coordinate of the second point.
-     * @param y2 The y coordinate of the second point.
-     * @return The calculated distance.
+     * @param reader The given reader.
+     * @return The parsed weight.
+     * @throws IOException If an IO error occurs.
+     * @throws IllegalArgumentException If there are weights missing, or if
+     *         some weight could not be parsed.
      */
-    private double distance(double x1, double y1, double x2, double y2) {
-        double xDelta = x2 - x1;
-        double yDelta = y2 - y1;
-        return Math.sqrt(xDelta*xDelta + yDelta*yDelta);
+    private double nextWeight(BufferedReader reader) throws IOException {
+        while (tokenIndex == tokens.length) {
+            String line = reader.readLine();
+            if (line == null || line.trim().equals(EOF)) {
+                throw new IllegalArgumentException("Expected more edge weight entries.");
+            }
+            line = line.trim();
+            tokens = line.isEmpty() ? new String[0] : line.split("\\s+");
+            tokenIndex = 0;
+        }
+        String token = tokens[tokenIndex ++];
+        try {
+            return Double.parseDouble(token);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("'" + token + "' is not a valid edge weight.");
+        }
     }
 }
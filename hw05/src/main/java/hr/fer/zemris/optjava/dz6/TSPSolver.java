@@ -9,11 +9,20 @@ import java.nio.file.Paths;
  * <p>Command line program which tries to solve some specified traveling
  * salesman problem (TSP) using an improved version of the ant colony algorithm
  * ({@link MMASAlgorithm}).</p>
- * <p>It accepts 4 arguments:</p>
+ * <p>It accepts 4 to 7 arguments:</p>
  * <ul>
  * <li>The first argument is the path to the file specifying the TSP.</li>
  * <li>The second argument is the size of the candidate list for each node.</li>
- * <li>The third argument is the maximum generation (number of iterations).</li>
+ * <li>The third argument is the number of ants in a single generation.</li>
+ * <li>The fourth argument is the maximum generation (number of iterations).</li>
+ * <li>The optional fifth argument is the storage mode ({@code dense} or
+ * {@code sparse}). By default, the sparse mode is used for instances with
+ * more than {@value #SPARSE_THRESHOLD} nodes.</li>
+ * <li>The optional sixth argument is the candidate list kind
+ * ({@code nearest} or {@code quadrant}, the former being the default).</li>
+ * <li>The optional seventh argument defines the tours improved by the local
+ * search ({@code none}, {@code best} or {@code all}, the first one being the
+ * default).</li>
  * </ul>
  *
  * @author Mate Gašparini
@@ -32,15 +41,19 @@ public class TSPSolver {
     /** Used to calculate the parameter <i>a</i> (used for minimum pheromone). */
     private static final double P = 0.9;
 
+    /** Number of nodes above which the sparse storage mode is used by default. */
+    private static final int SPARSE_THRESHOLD = 2000;
+
     /**
      * Main method which is called when the program launches.
      *
      * @param args Command line arguments (problem file path, candidate count,
-     *        ant count and max generation).
+     *        ant count, max generation, optional storage mode, optional
+     *        candidate list kind and optional local search scope).
      */
     public static void main(String[] args) {
-        if (args.length != 4) {
-            System.err.println("Expected 4 arguments.");
+        if (args.length < 4 || args.length > 7) {
+            System.err.println("Expected 4 to 7 arguments.");
             return;
         }
 
@@ -62,24 +75,77 @@ public class TSPSolver {
             return;
         }
 
-        double[][] distances;
+        TSPInstance instance;
         try {
-            distances = new TSPParser(problemPath).getDistances();
+            instance = new TSPParser(problemPath).parse();
         } catch (IOException e) {
             System.err.println("There was a problem reading " + args[0] + ".");
             return;
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            return;
         }
 
-        if (candidateCount > distances.length) {
-            System.err.println("Candidate length must be less or equal to "
-                    + distances.length + ".");
+        if (candidateCount >= instance.size()) {
+            System.err.println("Candidate length must be less than "
+                    + instance.size() + ".");
             return;
         }
 
-        new MMASAlgorithm(
-                distances, ALPHA, BETA, calculateA(distances.length),
-                candidateCount, antCount, maxGeneration
-        ).run();
+        boolean sparse = instance.size() > SPARSE_THRESHOLD;
+        if (args.length >= 5) {
+            if (args[4].equals("sparse")) {
+                sparse = true;
+            } else if (args[4].equals("dense")) {
+                sparse = false;
+            } else {
+                System.err.println("Unknown storage mode: '" + args[4] + "'.");
+                return;
+            }
+        }
+
+        boolean quadrant = false;
+        if (args.length >= 6) {
+            if (args[5].equals("quadrant")) {
+                quadrant = true;
+            } else if (!args[5].equals("nearest")) {
+                System.err.println("Unknown candidate list kind: '" + args[5] + "'.");
+                return;
+            }
+        }
+
+        LocalSearch.Scope localSearch = LocalSearch.Scope.NONE;
+        if (args.length == 7) {
+            if (args[6].equals("best")) {
+                localSearch = LocalSearch.Scope.ITERATION_BEST;
+            } else if (args[6].equals("all")) {
+                localSearch = LocalSearch.Scope.ALL;
+            } else if (!args[6].equals("none")) {
+                System.err.println("Unknown local search scope: '" + args[6] + "'.");
+                return;
+            }
+        }
+
+        IDistances distances = instance.getDistances();
+        if (!sparse && !instance.isExplicit()) {
+            distances = new PackedDistances(distances);
+        }
+        Nodes nodes;
+        if (instance.getPoints() != null) {
+            nodes = new Nodes(instance.getPoints(), distances, candidateCount, quadrant, !sparse);
+        } else {
+            if (quadrant) {
+                System.err.println("Quadrant candidates need planar coordinates, using the nearest nodes.");
+            }
+            nodes = new Nodes(distances, candidateCount, !sparse);
+        }
+
+        MMASAlgorithm algorithm = new MMASAlgorithm(
+                distances, nodes, ALPHA, BETA, calculateA(instance.size()),
+                antCount, maxGeneration, Runtime.getRuntime().availableProcessors()
+        );
+        algorithm.setLocalSearch(localSearch);
+        algorithm.run();
     }
 
     /**
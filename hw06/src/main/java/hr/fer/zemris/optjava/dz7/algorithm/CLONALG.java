@@ -120,14 +120,15 @@ public class CLONALG extends OptAlgorithm {
     /**
      * Calculates the fitness (affinity) for each antibody of the given
      * population of antibodies, stores its value in each antibody and sorts the
-     * population according to its value (in descending order).
+     * population according to its value (in descending order). The antibodies
+     * are evaluated in parallel.
      *
      * @param population The given population of antibodies.
      */
     private void evaluate(Antibody[] population) {
-        for (Antibody antibody : population) {
-            antibody.affinity = fitness(function.valueAt(antibody.solution));
-        }
+        forEachParallel(population.length, i ->
+                population[i].affinity = fitness(function.valueAt(population[i].solution))
+        );
         Arrays.sort(population, Comparator.reverseOrder());
     }
 
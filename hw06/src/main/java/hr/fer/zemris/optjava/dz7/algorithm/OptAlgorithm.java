@@ -3,6 +3,9 @@ package hr.fer.zemris.optjava.dz7.algorithm;
 import hr.fer.zemris.optjava.dz7.function.Function;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 /**
  * Represents some generic optimization algorithm.
@@ -77,4 +80,59 @@ public abstract class OptAlgorithm {
     protected double fitness(double value) {
         return 1.0/value;
     }
+
+    /**
+     * Helper method which performs the given action for each index of the
+     * population (of the given size) in parallel, using the
+     * {@link ForkJoinPool#commonPool()} threads. Used for the function
+     * evaluations, which are independent of each other.
+     *
+     * @param size The given population size.
+     * @param action The given action (which must be thread-safe).
+     */
+    protected void forEachParallel(int size, IntConsumer action) {
+        ForkJoinPool.commonPool().invoke(new IndexTask(0, size, action));
+    }
+
+    /**
+     * Task which performs some action for each index of a range, splitting it
+     * into halves until a single index is left.
+     */
+    private static class IndexTask extends RecursiveAction {
+
+        /** Serialization version. */
+        private static final long serialVersionUID = 1L;
+
+        /** The first index (inclusive). */
+        private int from;
+
+        /** The last index (exclusive). */
+        private int to;
+
+        /** The performed action. */
+        private IntConsumer action;
+
+        /**
+         * Constructor specifying the range of indices and the action.
+         *
+         * @param from The first index (inclusive).
+         * @param to The last index (exclusive).
+         * @param action The performed action.
+         */
+        IndexTask(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) action.accept(from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new IndexTask(from, middle, action), new IndexTask(middle, to, action));
+        }
+    }
 }
@@ -154,9 +154,7 @@ public abstract class PSO extends OptAlgorithm {
     }
 
     private void evaluatePopulation() {
-        for (int i = 0; i < populationSize; i ++) {
-            fitness[i] = fitness(function.valueAt(positions[i]));
-        }
+        forEachParallel(populationSize, i -> fitness[i] = fitness(function.valueAt(positions[i])));
     }
 
     private void updatePersonalBests() {
@@ -4,8 +4,10 @@ import hr.fer.zemris.optjava.dz7.network.FFANN;
 import hr.fer.zemris.optjava.dz7.network.dataset.IReadOnlyDataset;
 
 /**
- * Represents an error function of some neural network's weights for some
- * specified dataset.
+ * <p>Represents an error function of some neural network's weights for some
+ * specified dataset.</p>
+ * <p>Each thread calculates the network outputs in its own buffers, so the
+ * function can be evaluated concurrently.</p>
  *
  * @author Mate Gašparini
  */
@@ -17,6 +19,9 @@ public class ErrorFunction implements Function {
     /** Dataset for the given problem. Contains expected input-output pairs. */
     private IReadOnlyDataset dataset;
 
+    /** Neuron value buffers of each thread which evaluates the function. */
+    private ThreadLocal<double[][]> buffers;
+
     /**
      * Constructor specifying the neural network and the problem dataset.
      *
@@ -26,6 +31,7 @@ public class ErrorFunction implements Function {
     public ErrorFunction(FFANN network, IReadOnlyDataset dataset) {
         this.network = network;
         this.dataset = dataset;
+        this.buffers = ThreadLocal.withInitial(network::createBuffers);
     }
 
     @Override
@@ -35,11 +41,11 @@ public class ErrorFunction implements Function {
 
     @Override
     public double valueAt(double[] point) {
+        double[][] layerBuffers = buffers.get();
         double error = 0.0;
         for (int sampleIndex = 0; sampleIndex < dataset.getSampleSize(); sampleIndex ++) {
             double[] inputs = dataset.getInputsAt(sampleIndex);
-            double[] outputs = new double[dataset.getOutputSize()];
-            network.calcOutputs(inputs, point, outputs);
+            double[] outputs = network.calcOutputs(inputs, point, layerBuffers);
 
             double[] expected = dataset.getOutputsAt(sampleIndex);
             for (int i = 0; i < dataset.getOutputSize(); i ++) {
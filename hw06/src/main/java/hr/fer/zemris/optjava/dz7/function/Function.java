@@ -17,7 +17,9 @@ public interface Function {
     int getDimension();
 
     /**
-     * Returns the scalar value at the given point.
+     * Returns the scalar value at the given point. The optimization algorithms
+     * evaluate their populations in parallel, so this method should be
+     * thread-safe.
      *
      * @param point The given point (n-dimensional real vector).
      * @return The function value at the given point.
@@ -3,8 +3,12 @@ package hr.fer.zemris.optjava.dz7.network;
 import hr.fer.zemris.optjava.dz7.network.transfer.ITransferFunction;
 
 /**
- * Represents a <i>feedforward artificial neural network</i> which contains
- * various information about layer dimensions, transfer functions etc.
+ * <p>Represents a <i>feedforward artificial neural network</i> which contains
+ * various information about layer dimensions, transfer functions etc.</p>
+ * <p>The network does not store any calculated values, so it can be used by
+ * multiple threads at once. The neuron values of the hidden and the output
+ * layers are kept in the buffers given by the caller (see
+ * {@link #createBuffers()}), or in the calling thread's own buffers.</p>
  *
  * @author Mate Gašparini
  */
@@ -19,8 +23,8 @@ public class FFANN {
     /** Stores the number of weights the network needs to provide output properly. */
     private int weightsCount;
 
-    /** Single instance of all layers and their calculated neuron values. */
-    private double[][] layerValues;
+    /** Neuron value buffers of each thread which uses the network. */
+    private ThreadLocal<double[][]> threadBuffers = ThreadLocal.withInitial(this::createBuffers);
 
     /**
      * Constructor specifying the layer sizes and the transfer functions.
@@ -33,10 +37,6 @@ public class FFANN {
         this.layerSizes = layerSizes;
         this.transferFunctions = transferFunctions;
         calculateWeightsCount();
-        this.layerValues = new double[layerSizes.length][];
-        for (int i = 1; i < layerValues.length - 1; i ++) {
-            layerValues[i] = new double[layerSizes[i]];
-        }
     }
 
     /**
@@ -48,6 +48,21 @@ public class FFANN {
         return weightsCount;
     }
 
+    /**
+     * Creates the buffers for the neuron values of each (except the first)
+     * layer, which can be passed to
+     * {@link #calcOutputs(double[], double[], double[][])}.
+     *
+     * @return The created buffers (the last one holds the outputs).
+     */
+    public double[][] createBuffers() {
+        double[][] buffers = new double[layerSizes.length - 1][];
+        for (int i = 0; i < buffers.length; i ++) {
+            buffers[i] = new double[layerSizes[i+1]];
+        }
+        return buffers;
+    }
+
     /**
      * Propagates the given inputs using the given weights through the network
      * and fills the given outputs with the calculated values.
@@ -57,20 +72,35 @@ public class FFANN {
      * @param outputs The given outputs.
      */
     public void calcOutputs(double[] inputs, double[] weights, double[] outputs) {
-        layerValues[0] = inputs;
-        layerValues[layerValues.length - 1] = outputs;
+        double[] values = calcOutputs(inputs, weights, threadBuffers.get());
+        System.arraycopy(values, 0, outputs, 0, values.length);
+    }
 
+    /**
+     * Propagates the given inputs using the given weights through the network,
+     * storing the neuron values in the given buffers, and returns the
+     * calculated outputs.
+     *
+     * @param inputs The given inputs.
+     * @param weights The given weights.
+     * @param buffers The given buffers (created by {@link #createBuffers()}).
+     * @return The calculated outputs (the last of the given buffers).
+     */
+    public double[] calcOutputs(double[] inputs, double[] weights, double[][] buffers) {
+        double[] previous = inputs;
         int weightIndex = 0;
         for (int i = 1; i < layerSizes.length; i ++) {
+            double[] current = buffers[i-1];
             for (int layerNeuron = 0; layerNeuron < layerSizes[i]; layerNeuron ++) {
                 double value = weights[weightIndex++]; // Neuron's bias value.
                 for (int j = 0; j < layerSizes[i-1]; j ++) {
-                    value += layerValues[i-1][j] * weights[weightIndex++];
+                    value += previous[j] * weights[weightIndex++];
                 }
-                value = transferFunctions[i-1].transfer(value);
-                layerValues[i][layerNeuron] = value;
+                current[layerNeuron] = transferFunctions[i-1].transfer(value);
             }
+            previous = current;
         }
+        return previous;
     }
 
     /**
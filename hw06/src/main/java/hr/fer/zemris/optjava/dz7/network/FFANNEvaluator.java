@@ -44,11 +44,11 @@ public class FFANNEvaluator {
      * @param stream The given stream.
      */
     public void evaluate(PrintStream stream) {
+        double[][] buffers = network.createBuffers();
         int hitCounter = 0;
         for (int i = 0; i < dataset.getSampleSize(); i ++) {
             double[] inputs = dataset.getInputsAt(i);
-            double[] outputs = new double[dataset.getOutputSize()];
-            network.calcOutputs(inputs, weights, outputs);
+            double[] outputs = network.calcOutputs(inputs, weights, buffers);
             round(outputs);
 
             double[] expected = dataset.getOutputsAt(i);